@@ -0,0 +1,130 @@
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+// Simple data holder for a row of the assignments table
+class Assignment {
+    public int assignId;
+    public int sessionId;
+    public String studentId;
+    public String evaluatorId;
+
+    public Assignment() {
+    }
+
+    public Assignment(int sessionId, String studentId, String evaluatorId) {
+        this.sessionId = sessionId;
+        this.studentId = studentId;
+        this.evaluatorId = evaluatorId;
+    }
+}
+
+// One line of the evaluator's "My Assigned Presentations" table
+class AssignedSubmission {
+    public int submitId;
+    public String studentId;
+    public String studentName;
+    public String title;
+    public String abstractText;
+    public String type;
+    public String status;    // Evaluated / Not Evaluated
+    public String myTotal;   // evaluator's own total, or "-"
+    public String filepath;
+}
+
+// All SQL for the assignments table
+public class AssignmentRepository {
+
+    public static void assign(int sessionId, String studentId, String evaluatorId) throws SQLException {
+        String sql = "INSERT INTO assignments(session_id, student_id, evaluator_id) VALUES(?,?,?)";
+
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, sessionId);
+            ps.setString(2, studentId);
+            ps.setString(3, evaluatorId);
+            ps.executeUpdate();
+        }
+    }
+
+    // Batch insert in one transaction; a duplicate (uq_assign_multi_eval) rolls back the whole batch
+    public static void assignMany(List<Assignment> assignments) throws SQLException {
+        String sql = "INSERT INTO assignments(session_id, student_id, evaluator_id) VALUES(?,?,?)";
+
+        DatabaseHandler.inTransaction(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (Assignment a : assignments) {
+                    ps.setInt(1, a.sessionId);
+                    ps.setString(2, a.studentId);
+                    ps.setString(3, a.evaluatorId);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            return null;
+        });
+    }
+
+    // Submissions assigned to one evaluator with their own evaluation status
+    public static List<AssignedSubmission> findAssignedToEvaluator(String evaluatorId) throws SQLException {
+        String sql =
+            "SELECT s.submit_id, u.user_id AS student_id, u.username AS student_name, " +
+            "       s.title, s.abstract, s.type, s.filepath, " +
+            "       CASE WHEN e.eval_id IS NULL THEN 'Not Evaluated' ELSE 'Evaluated' END AS status, " +
+            "       COALESCE(e.total, '-') AS my_total " +
+            "FROM assignments a " +
+            "JOIN sessions sess ON sess.session_id = a.session_id " +
+            "JOIN users u ON a.student_id = u.user_id " +
+            // Only pick the latest submission for that student + session type
+            "JOIN submissions s ON s.submit_id = ( " +
+            "    SELECT MAX(s2.submit_id) " +
+            "    FROM submissions s2 " +
+            "    WHERE s2.student_id = u.user_id " +
+            "      AND s2.type = sess.session_type " +
+            ") "  +
+            "LEFT JOIN evaluations e ON e.submit_id = s.submit_id AND e.evaluator_id = a.evaluator_id " +
+            "WHERE a.evaluator_id = ? " +
+            "ORDER BY s.submit_id DESC;";
+        List<AssignedSubmission> list = new ArrayList<>();
+
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, evaluatorId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    AssignedSubmission r = new AssignedSubmission();
+                    r.submitId = rs.getInt("submit_id");
+                    r.studentId = rs.getString("student_id");
+                    r.studentName = rs.getString("student_name");
+                    r.title = rs.getString("title");
+                    r.abstractText = rs.getString("abstract");
+                    r.type = rs.getString("type");
+                    r.status = rs.getString("status");
+                    r.myTotal = String.valueOf(rs.getObject("my_total"));
+                    r.filepath = rs.getString("filepath");
+                    list.add(r);
+                }
+            }
+        }
+        return list;
+    }
+
+    // Evaluator must be assigned to the student owning this submission
+    public static boolean isEvaluatorAssigned(String evaluatorId, int submitId) throws SQLException {
+        String sql =
+            "SELECT count(*) " +
+            "FROM assignments a " +
+            "JOIN submissions s ON s.student_id = a.student_id " +
+            "WHERE a.evaluator_id = ? AND s.submit_id = ?";
+
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, evaluatorId);
+            ps.setInt(2, submitId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+}
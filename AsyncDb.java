@@ -0,0 +1,37 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Runs database work on virtual threads so the Swing Event Dispatch Thread never waits on JDBC.
+// Windows normally use UiTaskRunner, which also hands the result back to the EDT.
+public class AsyncDb {
+
+    // A piece of background work (usually one or more repository calls)
+    public interface Query<T> {
+        T run() throws Exception;
+    }
+
+    // One cheap virtual thread per query; they block on JDBC without tying up platform threads
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Starts the query in the background. Cancelling the returned future interrupts the worker
+    // (a borrow waiting for a pooled connection stops at once; a running SQLite call finishes
+    // and its result is dropped).
+    public static <T> CompletableFuture<T> supply(Query<T> query) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        Future<?> task = EXECUTOR.submit(() -> {
+            try {
+                result.complete(query.run());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) task.cancel(true);
+        });
+        return result;
+    }
+}
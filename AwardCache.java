@@ -0,0 +1,97 @@
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Rankings returned by AwardCache
+class CachedRankings {
+    public Map<String, List<AwardResult>> rankings;   // read-only
+    public long dataVersion;                          // DataVersion the rankings were computed at
+    public boolean hit;                               // true = nothing changed, no query was run
+}
+
+// Remembers the last rankings AwardEngine produced and returns them again while none of the
+// tables they are computed from has been written (DataVersion). Checking costs one small
+// query, against a scan of every evaluated submission for a recompute.
+public class AwardCache {
+
+    // Everything award rankings are computed from (directly or through the derived tables)
+    static final String[] TABLES = {"users", "submissions", "evaluations", "votes"};
+
+    // Shared cache over the default award categories
+    public static final AwardCache DEFAULT = new AwardCache(new AwardEngine());
+
+    private final AwardEngine engine;
+    private final Map<String, CachedRankings> entries = new ConcurrentHashMap<>();   // "k/scoring" -> last result
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public AwardCache(AwardEngine engine) {
+        this.engine = engine;
+    }
+
+    public AwardEngine getEngine() {
+        return engine;
+    }
+
+    public CachedRankings rank(int k, AwardEngine.Scoring scoring) throws SQLException {
+        VoteCounter.flushIfStarted();   // queued votes would not show in the version yet
+
+        // Read the version BEFORE computing: a write that lands during the computation moves
+        // the version past the one stored, so the next call recomputes instead of trusting it
+        long version = DataVersion.of(TABLES);
+        String key = k + "/" + scoring;
+        CachedRankings cached = entries.get(key);
+        if (cached != null && cached.dataVersion == version) {
+            hits.increment();
+            CachedRankings result = new CachedRankings();
+            result.rankings = cached.rankings;
+            result.dataVersion = version;
+            result.hit = true;
+            return result;
+        }
+
+        misses.increment();
+        CachedRankings fresh = new CachedRankings();
+        fresh.rankings = readOnly(engine.rank(k, scoring));
+        fresh.dataVersion = version;
+        entries.put(key, fresh);
+        return fresh;
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    // Share of rank() calls answered from the cache, 0..1
+    public double hitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    // e.g. "3 hits, 1 miss (75% hit rate)"
+    public String summary() {
+        return String.format("%d hits, %d misses (%.0f%% hit rate)", getHits(), getMisses(), hitRate() * 100);
+    }
+
+    private static Map<String, List<AwardResult>> readOnly(Map<String, List<AwardResult>> rankings) {
+        Map<String, List<AwardResult>> copy = new LinkedHashMap<>();
+        for (Map.Entry<String, List<AwardResult>> e : rankings.entrySet()) {
+            copy.put(e.getKey(), Collections.unmodifiableList(new ArrayList<>(e.getValue())));
+        }
+        return Collections.unmodifiableMap(copy);
+    }
+}
@@ -0,0 +1,132 @@
+import java.io.File;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Checks that AwardCache never returns rankings older than the database, also when another
+// process writes to the same file, and shows what a cache hit saves.
+//
+//   java -cp ".;sqlite-jdbc-3.51.1.0.jar" AwardCacheCheck
+//
+// A second JVM changes the data while this one holds cached rankings:
+//   regrade  another copy of the application re-grades the Best Oral winner to zero
+//   rename   plain JDBC (no application code, like the sqlite3 shell) renames the winner's student
+// After each write the cache must miss and give the same rankings as an uncached AwardEngine.
+public class AwardCacheCheck {
+
+    private static final int K = 10;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 3 && args[0].equals("--child")) {
+            runChild(args[1], args[2]);
+            return;
+        }
+
+        File dir = new File("bench-db");
+        dir.mkdirs();
+        File db = new File(dir, "award-cache.db");
+        for (String suffix : new String[]{"", "-wal", "-shm"}) new File(db.getPath() + suffix).delete();
+        DatabaseHandler.useDatabase(db.getPath(), DatabaseProfile.BULK_LOAD);
+        DataGenerator.Config cfg = new DataGenerator.Config();
+        cfg.students = 5000;
+        cfg.evaluators = 120;
+        DataGenerator.generate(cfg);
+        DatabaseHandler.useDatabase(db.getPath(), DatabaseProfile.INTERACTIVE);
+
+        AwardCache cache = new AwardCache(new AwardEngine());
+        boolean ok = true;
+
+        long t = System.nanoTime();
+        CachedRankings first = cache.rank(K, AwardEngine.Scoring.RAW);
+        long missNanos = System.nanoTime() - t;
+        t = System.nanoTime();
+        CachedRankings again = cache.rank(K, AwardEngine.Scoring.RAW);
+        long hitNanos = System.nanoTime() - t;
+        System.out.printf("First Compute Winners: %s, %.2f ms%n", first.hit ? "hit" : "miss", missNanos / 1e6);
+        System.out.printf("Second, nothing changed: %s, %.3f ms%n", again.hit ? "hit" : "miss", hitNanos / 1e6);
+        ok &= !first.hit && again.hit;
+
+        List<AwardResult> oral = first.rankings.get("BEST_ORAL");
+        ok &= afterChildWrite(db, cache, "regrade " + oral.get(0).submitId, "BEST_ORAL", oral.get(1).submitId);
+
+        AwardResult winner = cache.rank(K, AwardEngine.Scoring.RAW).rankings.get("BEST_ORAL").get(0);
+        ok &= afterChildWrite(db, cache, "rename " + winner.studentId, "BEST_ORAL", winner.submitId);
+
+        System.out.println("Award cache: " + cache.summary());
+        DatabaseHandler.getPool().shutdown();
+        System.out.println(ok ? "PASS: the cache followed every write from the other process"
+                              : "FAIL: the cache returned stale rankings");
+        System.exit(ok ? 0 : 1);
+    }
+
+    // Lets a child JVM write, then checks the cache against a fresh computation
+    private static boolean afterChildWrite(File db, AwardCache cache, String change, String type, int submitId)
+            throws Exception {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        int exit = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                AwardCacheCheck.class.getName(), "--child", db.getPath(), change)
+                .inheritIO().start().waitFor();
+        if (exit != 0) {
+            System.out.println("  child failed: " + change);
+            return false;
+        }
+
+        CachedRankings cached = cache.rank(K, AwardEngine.Scoring.RAW);
+        Map<String, List<AwardResult>> fresh = cache.getEngine().rank(K);
+        boolean same = sameRankings(cached.rankings, fresh);
+        AwardResult top = cached.rankings.get(type).get(0);
+
+        System.out.println("After another process did '" + change + "': " + (cached.hit ? "hit" : "miss")
+                + ", " + type + " winner is submission " + top.submitId + " (" + top.studentName + ")"
+                + (same ? ", same as uncached" : ", DIFFERENT from uncached"));
+        return !cached.hit && same && top.submitId == submitId;
+    }
+
+    private static void runChild(String dbPath, String change) throws Exception {
+        String[] parts = change.split(" ");
+        if (parts[0].equals("regrade")) {
+            // The other copy of the application: goes through the repositories
+            DatabaseHandler.useDatabase(dbPath, DatabaseProfile.INTERACTIVE);
+            int submitId = Integer.parseInt(parts[1]);
+            List<String> evaluators = new ArrayList<>();
+            try (Connection conn = DatabaseHandler.requireConnection();
+                 PreparedStatement ps = conn.prepareStatement("SELECT evaluator_id FROM evaluations WHERE submit_id = ?")) {
+                ps.setInt(1, submitId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) evaluators.add(rs.getString(1));
+                }
+            }
+            for (String evaluatorId : evaluators) {
+                Evaluation e = EvaluationRepository.find(evaluatorId, submitId);
+                e.scores.replaceAll((criterion, score) -> 0);   // total is computed from these on save
+                EvaluationRepository.update(e);
+            }
+            DatabaseHandler.getPool().shutdown();
+        } else {
+            // Someone with a plain SQL tool: no application code involved
+            try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dbPath);
+                 PreparedStatement ps = conn.prepareStatement(
+                         "UPDATE users SET username = username || ' (renamed)' WHERE user_id = ?")) {
+                ps.setString(1, parts[1]);
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    private static boolean sameRankings(Map<String, List<AwardResult>> a, Map<String, List<AwardResult>> b) {
+        if (!a.keySet().equals(b.keySet())) return false;
+        for (String type : a.keySet()) {
+            List<AwardResult> x = a.get(type);
+            List<AwardResult> y = b.get(type);
+            if (x.size() != y.size()) return false;
+            for (int i = 0; i < x.size(); i++) {
+                if (x.get(i).submitId != y.get(i).submitId || x.get(i).total != y.get(i).total
+                        || !String.valueOf(x.get(i).studentName).equals(String.valueOf(y.get(i).studentName))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
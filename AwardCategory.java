@@ -0,0 +1,38 @@
+import java.util.List;
+import java.util.function.Predicate;
+
+// One award AwardEngine can hand out, defined by which submissions compete for it.
+// New awards (e.g. Best First-Year Project) only need a new instance here or passed to the engine.
+public class AwardCategory {
+
+    public static final AwardCategory BEST_ORAL =
+            new AwardCategory("BEST_ORAL", "Best Oral", s -> "Oral Presentation".equals(s.type));
+    public static final AwardCategory BEST_POSTER =
+            new AwardCategory("BEST_POSTER", "Best Poster", s -> "Poster Presentation".equals(s.type));
+
+    // People's Choice is decided by the audience (VoteCounter), not by the evaluators; with no
+    // votes at all it goes to the best overall average (see AwardEngine)
+    public static final AwardCategory PEOPLES_CHOICE =
+            new AwardCategory("PEOPLES_CHOICE", "People's Choice", s -> true, true);
+
+    public final String awardType;                    // key stored in the awards table
+    public final String label;                        // shown to the user
+    public final Predicate<SubmissionScore> eligible;
+    public final boolean byVotes;                     // ranked by audience votes instead of scores, once there are any
+
+    public AwardCategory(String awardType, String label, Predicate<SubmissionScore> eligible) {
+        this(awardType, label, eligible, false);
+    }
+
+    public AwardCategory(String awardType, String label, Predicate<SubmissionScore> eligible, boolean byVotes) {
+        this.awardType = awardType;
+        this.label = label;
+        this.eligible = eligible;
+        this.byVotes = byVotes;
+    }
+
+    // The awards the ceremony gives out today
+    public static List<AwardCategory> defaults() {
+        return List.of(BEST_ORAL, BEST_POSTER, PEOPLES_CHOICE);
+    }
+}
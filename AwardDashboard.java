@@ -1,4 +1,9 @@
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import javax.swing.*;
 
 // AwardDashboard provides a simple UI for staff to compute and view award winners
@@ -7,6 +12,22 @@ public class AwardDashboard extends JFrame {
 
     private JTextArea output; // area to display computed award results
 
+    // Rank by averages adjusted for harsh / lenient evaluators instead of raw averages
+    private final JCheckBox normalizeBox = new JCheckBox("Adjust for evaluator bias");
+
+    // Runs award queries off the EDT and shows progress
+    private final UiTaskRunner tasks = new UiTaskRunner(this);
+
+    // Award categories shown on this screen; results are reused while no data changed
+    private final AwardCache cache = AwardCache.DEFAULT;
+    private final AwardEngine engine = cache.getEngine();
+
+    // Gold, silver, bronze and two honourable mentions per category
+    private static final int TOP_K = 5;
+
+    // Places per category kept in each run's snapshot, so runs can be compared further down
+    private static final int SNAPSHOT_DEPTH = 100;
+
     public AwardDashboard() {
         super("Awards & Ceremony");
 
@@ -30,51 +51,159 @@ public class AwardDashboard extends JFrame {
         // Buttons for computing and clearing award results
         JPanel btnPanel = new JPanel();
         JButton computeBtn = new JButton("Compute Winners");
+        JButton compareBtn = new JButton("Compare Runs...");
         JButton clearBtn = new JButton("Clear");
+        btnPanel.add(normalizeBox);
         btnPanel.add(computeBtn);
+        btnPanel.add(compareBtn);
         btnPanel.add(clearBtn);
+        btnPanel.add(tasks.getProgressBar());
         add(btnPanel, BorderLayout.SOUTH);
 
         // Trigger award computation
         computeBtn.addActionListener(e -> compute());
 
+        // Diff two stored runs
+        compareBtn.addActionListener(e -> compareRuns());
+
         // Clear displayed output
         clearBtn.addActionListener(e -> output.setText(""));
 
         setVisible(true);
     }
 
-    // Compute all awards using AwardCalculator
+    // Compute all awards using AwardCalculator (in the background)
     private void compute() {
         output.setText(""); // reset output area
+        AwardEngine.Scoring scoring = normalizeBox.isSelected()
+                ? AwardEngine.Scoring.NORMALIZED : AwardEngine.Scoring.RAW;
+
+        tasks.run(() -> {
+                    // Best Oral, Best Poster and People's Choice (top K each) all come from
+                    // one scan of the per-submission averages
+                    CachedRankings result = cache.rank(SNAPSHOT_DEPTH, scoring);
+                    Map<String, List<AwardResult>> deep = result.rankings;
+                    Map<String, List<AwardResult>> rankings = new LinkedHashMap<>();
+                    for (Map.Entry<String, List<AwardResult>> e : deep.entrySet()) {
+                        List<AwardResult> ranked = e.getValue();
+                        rankings.put(e.getKey(), ranked.subList(0, Math.min(TOP_K, ranked.size())));
+                    }
+
+                    // Keep this run in the history, then save the top K as the current awards.
+                    // Saved on every run, cache hit or not: the awards table may hold another
+                    // scoring mode's winners, or ones saved by another process.
+                    int runId = SnapshotRepository.save(deep, SNAPSHOT_DEPTH, scoring);
+                    AwardCalculator.saveRankings(rankings);
+                    String saved = "(Saved into awards table as run #" + runId
+                            + (result.hit ? "; no data changed, rankings reused from memory)" : ")");
+
+                    StringBuilder text = new StringBuilder("=== AWARD WINNERS ===\n");
+                    if (scoring == AwardEngine.Scoring.NORMALIZED) {
+                        text.append("(averages adjusted for evaluator bias)\n");
+                    }
+                    text.append("\n");
+                    for (AwardCategory c : engine.getCategories()) {
+                        text.append(format(c.label, rankings.getOrDefault(c.awardType, List.of())));
+                    }
+                    return text.append("\n").append(saved).append("\n")
+                            .append("Award cache: ").append(cache.summary()).append("\n").toString();
+                },
+                text -> output.append(text),
+                ex -> output.append("Error: " + ex.getMessage() + "\n"));
+    }
 
-        // Compute Best Oral based on highest average score among Oral presentations
-        AwardResult bestOral = AwardCalculator.computeBestByType("Oral Presentation");
-
-        // Compute Best Poster based on highest average score among Poster presentations
-        AwardResult bestPoster = AwardCalculator.computeBestByType("Poster Presentation");
-
-        // Compute People's Choice as highest overall average evaluation score
-        AwardResult peoples = AwardCalculator.computePeoplesChoice();
-
-        output.append("=== AWARD WINNERS ===\n\n");
-        output.append(format("Best Oral", bestOral));
-        output.append(format("Best Poster", bestPoster));
-        output.append(format("People's Choice", peoples));
-
-        // Save computed award results into awards table for record keeping
-        AwardCalculator.saveAwards(bestOral, bestPoster, peoples);
+    // Pick two stored runs and show what changed between them. Works on the stored
+    // snapshots only, nothing is recomputed.
+    private void compareRuns() {
+        tasks.run(SnapshotRepository::findAll, runs -> {
+            if (runs.size() < 2) {
+                JOptionPane.showMessageDialog(this, "At least two award runs are needed to compare.");
+                return;
+            }
+            JComboBox<String> from = new JComboBox<>();
+            JComboBox<String> to = new JComboBox<>();
+            for (AwardSnapshot s : runs) {
+                String item = "#" + s.runId + "  " + s.createdAt + "  " + modeLabel(s);
+                from.addItem(item);
+                to.addItem(item);
+            }
+            from.setSelectedIndex(1);   // previous run -> latest run
+            to.setSelectedIndex(0);
+
+            JPanel panel = new JPanel(new GridLayout(2, 2, 5, 5));
+            panel.add(new JLabel("From:"));
+            panel.add(from);
+            panel.add(new JLabel("To:"));
+            panel.add(to);
+            if (JOptionPane.showConfirmDialog(this, panel, "Compare Award Runs",
+                    JOptionPane.OK_CANCEL_OPTION) != JOptionPane.OK_OPTION) return;
+
+            int fromId = runs.get(from.getSelectedIndex()).runId;
+            int toId = runs.get(to.getSelectedIndex()).runId;
+            output.setText("");
+            tasks.run(() -> describeDiff(fromId, toId),
+                    text -> output.append(text),
+                    ex -> output.append("Error: " + ex.getMessage() + "\n"));
+        }, ex -> output.append("Error: " + ex.getMessage() + "\n"));
+    }
 
-        output.append("\n(Saved into awards table)\n");
+    private String describeDiff(int fromId, int toId) throws Exception {
+        AwardSnapshot older = SnapshotRepository.find(fromId);
+        AwardSnapshot newer = SnapshotRepository.find(toId);
+        if (older == null || newer == null) return "Run no longer stored (pruned)\n";
+
+        if (!SnapshotDiff.comparable(older, newer)) {
+            return "Run #" + fromId + " was ranked " + modeLabel(older) + " and run #" + toId + " "
+                    + modeLabel(newer) + ".\nOnly runs of the same scoring mode can be compared.\n";
+        }
+        List<SnapshotChange> changes = SnapshotDiff.diff(older, newer);
+
+        // Titles for the changed submissions only
+        List<Integer> ids = new ArrayList<>();
+        for (SnapshotChange c : changes) ids.add(c.submitId);
+        Map<Integer, String> titles = new HashMap<>();
+        for (Submission s : SubmissionRepository.findByIds(ids)) titles.put(s.submitId, s.title);
+
+        StringBuilder sb = new StringBuilder("=== RUN #" + fromId + " -> RUN #" + toId + " ===\n")
+                .append("(").append(modeLabel(older)).append(" -> ").append(modeLabel(newer)).append(")\n\n");
+        if (changes.isEmpty()) return sb.append("No changes\n").toString();
+
+        String type = null;
+        for (SnapshotChange c : changes) {
+            if (!c.awardType.equals(type)) {
+                type = c.awardType;
+                sb.append("\n").append(type).append(":\n");
+            }
+            sb.append(String.format("  %-7s %4s -> %-4s  %s (%.2f -> %.2f)%n", c.kind(),
+                    c.oldRank == 0 ? "-" : "#" + c.oldRank,
+                    c.newRank == 0 ? "-" : "#" + c.newRank,
+                    titles.getOrDefault(c.submitId, "submission " + c.submitId),
+                    c.oldAverage, c.newAverage));
+        }
+        return sb.toString();
     }
 
-    // Format award result for display
-    private String format(String title, AwardResult r) {
-        if (r == null) return title + ": No data\n\n";
+    // "raw" / "normalized", or a note for runs saved before the mode was recorded
+    private static String modeLabel(AwardSnapshot s) {
+        return s.scoring == null ? "mode not recorded" : s.scoring.name().toLowerCase();
+    }
 
-        return title + ":\n" +
-                "  Student: " + r.studentName + " (" + r.studentId + ")\n" +
-                "  Submission: " + r.submissionTitle + "\n" +
-                "  Total Score: " + r.total + "\n\n";
+    // Format one category's ranking for display
+    private String format(String title, List<AwardResult> ranked) {
+        if (ranked.isEmpty()) return title + ": No data\n\n";
+
+        StringBuilder sb = new StringBuilder(title + ":\n");
+        for (AwardResult r : ranked) {
+            sb.append("  ").append(r.rank).append(". ").append(AwardEngine.rankLabel(r.rank)).append("\n")
+              .append("     Student: ").append(r.studentName).append(" (").append(r.studentId).append(")\n")
+              .append("     Submission: ").append(r.submissionTitle).append("\n");
+            if (r.votes > 0) {
+                sb.append("     Audience Votes: ").append(r.votes).append("\n");
+            } else {
+                sb.append("     Average Score: ").append(r.total)
+                  .append(" (").append(r.evalCount).append(" evaluations)\n");
+            }
+        }
+        return sb.append("\n").toString();
     }
 }
@@ -0,0 +1,130 @@
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Computes the winners of all award categories from one scan of the per-submission averages,
+// instead of running the full submissions x users x evaluations aggregate once per award.
+// Categories decided by audience votes are read from vote_counts instead; while nobody has
+// voted (the application has no ballot screen yet, votes come in through VoteCounter) they
+// fall back to the best overall average, as People's Choice was decided before voting existed.
+public class AwardEngine {
+
+    // Ranking order, best first: higher average, then more evaluations, then the earlier
+    // submission (submit_id grows in submission order, so lower = submitted first)
+    static final Comparator<SubmissionScore> BEST_FIRST =
+            Comparator.comparingDouble((SubmissionScore s) -> s.average).reversed()
+                    .thenComparing(Comparator.comparingInt((SubmissionScore s) -> s.evalCount).reversed())
+                    .thenComparingInt(s -> s.submitId);
+
+    private static final String[] RANK_LABELS = {"Gold", "Silver", "Bronze"};
+
+    // Which average the ranking uses
+    public enum Scoring {
+        RAW,          // plain average of the evaluation totals
+        NORMALIZED    // average after removing each evaluator's bias (z-scores, see AwardRepository)
+    }
+
+    private final List<AwardCategory> categories;
+
+    public AwardEngine() {
+        this(AwardCategory.defaults());
+    }
+
+    public AwardEngine(List<AwardCategory> categories) {
+        this.categories = List.copyOf(categories);
+    }
+
+    public List<AwardCategory> getCategories() {
+        return categories;
+    }
+
+    // Winner per award type, in category order; null when nothing is eligible
+    public Map<String, AwardResult> compute() throws SQLException {
+        Map<String, AwardResult> winners = new LinkedHashMap<>();
+        for (Map.Entry<String, List<AwardResult>> e : rank(1).entrySet()) {
+            winners.put(e.getKey(), e.getValue().isEmpty() ? null : e.getValue().get(0));
+        }
+        return winners;
+    }
+
+    // Top k per award type, best first, with rank 1..k filled in (empty list when nothing is
+    // eligible). Each category keeps a bounded heap of its k best so far while the scores
+    // stream past, so the cost is O(n log k) and nothing is sorted in full.
+    public Map<String, List<AwardResult>> rank(int k) throws SQLException {
+        return rank(k, Scoring.RAW);
+    }
+
+    public Map<String, List<AwardResult>> rank(int k, Scoring scoring) throws SQLException {
+        if (k < 1) throw new IllegalArgumentException("k must be at least 1");
+
+        List<PriorityQueue<SubmissionScore>> heaps = new ArrayList<>();
+        for (int i = 0; i < categories.size(); i++) {
+            heaps.add(new PriorityQueue<>(k + 1, BEST_FIRST.reversed()));   // head = worst kept
+        }
+
+        AwardRepository.ScoreVisitor visitor = s -> {
+            for (int i = 0; i < heaps.size(); i++) {
+                PriorityQueue<SubmissionScore> heap = heaps.get(i);
+                if (heap.size() == k && BEST_FIRST.compare(s, heap.peek()) >= 0) continue;
+                if (!categories.get(i).eligible.test(s)) continue;
+
+                heap.add(s);
+                if (heap.size() > k) heap.poll();
+            }
+        };
+        if (scoring == Scoring.NORMALIZED) {
+            AwardRepository.scanNormalizedScores(visitor);
+        } else {
+            AwardRepository.scanSubmissionScores(visitor);
+        }
+
+        Map<String, List<AwardResult>> rankings = new LinkedHashMap<>();
+        List<AwardResult> all = new ArrayList<>();
+        for (int i = 0; i < categories.size(); i++) {
+            if (categories.get(i).byVotes) {
+                VoteCounter.flushIfStarted();   // include votes still queued in this process
+                List<AwardResult> ranked = VoteRepository.findTopVoted(k);
+                if (!ranked.isEmpty()) {
+                    rankings.put(categories.get(i).awardType, ranked);
+                    all.addAll(ranked);
+                    continue;
+                }
+                // no votes: ranked by score like the other categories (the heap was kept for this)
+            }
+            List<SubmissionScore> best = new ArrayList<>(heaps.get(i));
+            best.sort(BEST_FIRST);
+
+            List<AwardResult> ranked = new ArrayList<>();
+            for (SubmissionScore s : best) {
+                AwardResult r = toResult(s);
+                r.rank = ranked.size() + 1;
+                ranked.add(r);
+            }
+            rankings.put(categories.get(i).awardType, ranked);
+            all.addAll(ranked);
+        }
+
+        // Names and titles for the ranked submissions only
+        AwardRepository.loadWinnerDetails(all);
+        return rankings;
+    }
+
+    // "Gold", "Silver", "Bronze", then "Honourable Mention"
+    public static String rankLabel(int rank) {
+        return rank >= 1 && rank <= RANK_LABELS.length ? RANK_LABELS[rank - 1] : "Honourable Mention";
+    }
+
+    private static AwardResult toResult(SubmissionScore s) {
+        AwardResult r = new AwardResult();
+        r.submitId = s.submitId;
+        r.studentId = s.studentId;
+        r.type = s.type;
+        r.total = s.average;
+        r.evalCount = s.evalCount;
+        return r;
+    }
+}
@@ -0,0 +1,199 @@
+import java.io.File;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Checks that saving awards is crash-safe and measures how long a save takes.
+//
+//   java -cp ".;sqlite-jdbc-3.51.1.0.jar" AwardPersistenceCheck [kills]
+//
+// Crash test: a child JVM saves award rankings in a loop; every row of one save carries the
+// same generation number. The child is killed (SIGKILL, no shutdown hooks) at random moments,
+// then the awards table must hold exactly one complete generation: every type present with
+// ranks 1..K, all rows from the same save. The old per-type DELETE + INSERT without a
+// transaction is run the same way for comparison.
+//
+// Latency: average time of one save of all award types, old way vs. AwardRepository.saveAll.
+public class AwardPersistenceCheck {
+
+    private static final String[] TYPES = {"BEST_ORAL", "BEST_POSTER", "PEOPLES_CHOICE"};
+    private static final int K = 5;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 3 && args[0].equals("--child")) {
+            runChild(args[1], args[2]);
+            return;
+        }
+        int kills = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+
+        File dir = new File("bench-db");
+        dir.mkdirs();
+        File db = new File(dir, "award-persistence.db");
+        deleteDatabase(db);
+        DatabaseHandler.useDatabase(db.getPath(), DatabaseProfile.INTERACTIVE);
+        DatabaseHandler.createNewTable();
+        seedSubmissions();
+
+        System.out.println("Crash consistency (" + kills + " kills each):");
+        boolean legacyOk = crashTest(db, "legacy", kills);
+        boolean newOk = crashTest(db, "transactional", kills);
+
+        System.out.println();
+        System.out.println("Latency of one save (" + TYPES.length + " types x " + K + " ranks):");
+        latency();
+
+        DatabaseHandler.getPool().shutdown();
+        System.out.println();
+        System.out.println(newOk ? "PASS: transactional save was consistent after every kill"
+                                 : "FAIL: transactional save left an inconsistent awards table");
+        if (!legacyOk) System.out.println("(the old DELETE + INSERT save was not, as expected)");
+        System.exit(newOk ? 0 : 1);
+    }
+
+    // Kills a saving child process repeatedly and checks the table after each kill
+    private static boolean crashTest(File db, String mode, int kills) throws Exception {
+        Random rnd = new Random(7);
+        int bad = 0;
+        String java = ProcessHandle.current().info().command().orElse("java");
+
+        for (int i = 0; i < kills; i++) {
+            DatabaseHandler.getPool().shutdown();   // child is the only writer while it runs
+            Process child = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    AwardPersistenceCheck.class.getName(), "--child", db.getPath(), mode)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            Thread.sleep(1200 + rnd.nextInt(800));  // JVM start + a random number of saves
+            child.destroyForcibly();
+            child.waitFor();
+
+            DatabaseHandler.useDatabase(db.getPath(), DatabaseProfile.INTERACTIVE);
+            String problem = checkConsistent();
+            if (problem != null) {
+                bad++;
+                if (bad <= 3) System.out.println("  " + mode + ": kill " + (i + 1) + ": " + problem);
+            }
+        }
+        System.out.println("  " + mode + ": " + (kills - bad) + "/" + kills + " consistent");
+        return bad == 0;
+    }
+
+    // Child process: saves forever until killed
+    private static void runChild(String dbPath, String mode) throws Exception {
+        DatabaseHandler.useDatabase(dbPath, DatabaseProfile.INTERACTIVE);
+        for (int generation = 1; ; generation++) {
+            Map<String, List<AwardResult>> rankings = rankings(generation);
+            if (mode.equals("legacy")) {
+                for (Map.Entry<String, List<AwardResult>> e : rankings.entrySet()) {
+                    legacySave(e.getKey(), e.getValue());
+                }
+            } else {
+                AwardRepository.saveAll(rankings);
+            }
+        }
+    }
+
+    // null if the table holds one complete save, otherwise what is wrong
+    private static String checkConsistent() throws SQLException {
+        String sql = "SELECT award_type, rank, total FROM awards ORDER BY award_type, rank";
+        Map<String, List<Integer>> ranks = new LinkedHashMap<>();
+        Double generation = null;
+
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                ranks.computeIfAbsent(rs.getString(1), t -> new ArrayList<>()).add(rs.getInt(2));
+                double total = rs.getDouble(3);
+                if (generation == null) generation = total;
+                else if (generation != total) return "rows from different saves (" + generation + " and " + total + ")";
+            }
+        }
+
+        if (ranks.isEmpty()) return null;  // killed before the first commit
+        for (String type : TYPES) {
+            List<Integer> r = ranks.get(type);
+            if (r == null) return type + " missing";
+            if (r.size() != K) return type + " has " + r.size() + " ranks instead of " + K;
+        }
+        return null;
+    }
+
+    private static void latency() throws SQLException {
+        int runs = 200;
+        for (int i = 0; i < 20; i++) AwardRepository.saveAll(rankings(i));   // warm up
+
+        long t = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            for (Map.Entry<String, List<AwardResult>> e : rankings(i).entrySet()) {
+                legacySave(e.getKey(), e.getValue());
+            }
+        }
+        long legacy = System.nanoTime() - t;
+
+        t = System.nanoTime();
+        for (int i = 0; i < runs; i++) AwardRepository.saveAll(rankings(i));
+        long batched = System.nanoTime() - t;
+
+        System.out.printf("  old: one connection + DELETE/INSERT per type, autocommit  %8.3f ms%n", legacy / 1e6 / runs);
+        System.out.printf("  new: AwardRepository.saveAll, one transaction             %8.3f ms%n", batched / 1e6 / runs);
+    }
+
+    // The award save as it was before: per type, DELETE then INSERTs, each statement its own commit
+    private static void legacySave(String awardType, List<AwardResult> ranked) throws SQLException {
+        try (Connection conn = DatabaseHandler.requireConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement("DELETE FROM awards WHERE award_type = ?")) {
+                ps.setString(1, awardType);
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO awards(award_type, rank, submit_id, total) VALUES(?,?,?,?)")) {
+                for (AwardResult r : ranked) {
+                    ps.setString(1, awardType);
+                    ps.setInt(2, r.rank);
+                    ps.setInt(3, r.submitId);
+                    ps.setDouble(4, r.total);
+                    ps.executeUpdate();
+                }
+            }
+        }
+    }
+
+    // K ranked results per type; every total is the generation number so mixed saves show up
+    private static Map<String, List<AwardResult>> rankings(int generation) {
+        Map<String, List<AwardResult>> map = new LinkedHashMap<>();
+        for (String type : TYPES) {
+            List<AwardResult> list = new ArrayList<>();
+            for (int rank = 1; rank <= K; rank++) {
+                AwardResult r = new AwardResult();
+                r.submitId = rank;
+                r.rank = rank;
+                r.total = generation;
+                list.add(r);
+            }
+            map.put(type, list);
+        }
+        return map;
+    }
+
+    private static void seedSubmissions() throws SQLException {
+        List<Submission> subs = new ArrayList<>();
+        for (int i = 1; i <= K; i++) {
+            Submission s = new Submission();
+            s.title = "Submission " + i;
+            s.type = "Oral Presentation";
+            s.studentId = "s001";
+            subs.add(s);
+        }
+        SubmissionRepository.saveAll(subs);
+    }
+
+    private static void deleteDatabase(File db) {
+        for (String suffix : new String[]{"", "-wal", "-shm"}) {
+            new File(db.getPath() + suffix).delete();
+        }
+    }
+}
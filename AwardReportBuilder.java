@@ -1,42 +1,43 @@
-import java.sql.*;
 import java.util.List;
 
-public class AwardReportBuilder implements ReportBuilder {
+public class AwardReportBuilder implements StreamingReportBuilder {
 
-    @Override
-    public ReportData build() {
-        ReportData r = new ReportData();
-        r.title = "Award Agenda";
-        r.columns = List.of("Award Type","Student","Title","Type","Score");
+    // Everything the report reads, directly or through derived tables (see ReportCache)
+    static final String[] TABLES = {"awards", "submissions", "users"};
 
-        String sql =
-            "SELECT a.award_type, stu.username AS student_name, sub.title, sub.type, a.total " +
-            "FROM awards a " +
-            "JOIN submissions sub ON sub.submit_id = a.submit_id " +
-            "JOIN users stu ON stu.user_id = sub.student_id " +
-            "ORDER BY a.award_type";
+    @Override
+    public String[] tables() {
+        return TABLES;
+    }
 
-        try (Connection conn = DatabaseHandler.connect();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
+    @Override
+    public void stream(ReportSink sink) {
+        sink.start("Award Agenda", List.of(
+                ReportColumn.category("Award Type"),
+                ReportColumn.category("Rank"),
+                ReportColumn.text("Student"),
+                ReportColumn.text("Title"),
+                ReportColumn.category("Type"),
+                ReportColumn.decimal("Score")));
 
-            boolean any = false;
-            while (rs.next()) {
-                any = true;
-                r.rows.add(List.of(
-                        safe(rs.getString("award_type")),
-                        safe(rs.getString("student_name")),
-                        safe(rs.getString("title")),
-                        safe(rs.getString("type")),
-                        safe(rs.getString("total"))
-                ));
+        try {
+            List<AwardEntry> rows = AwardRepository.findAll();
+            for (AwardEntry a : rows) {
+                sink.text(safe(a.awardType));
+                sink.text(a.rank + " (" + AwardEngine.rankLabel(a.rank) + ")");
+                sink.text(safe(a.studentName));
+                sink.text(safe(a.title));
+                sink.text(safe(a.type));
+                sink.decimal(a.total);
+                sink.endRow();
             }
-            if (!any) r.warnings.add("No awards found (compute awards first).");
+            boolean any = !rows.isEmpty();
+            if (!any) sink.warning("No awards found (compute awards first).");
         } 
         catch (Exception e) {
-            r.warnings.add("DB error: " + e.getMessage());
+            sink.warning("DB error: " + e.getMessage());
         }
-        return r;
+        sink.finish();
     }
 
     private String safe(String s) {
@@ -0,0 +1,262 @@
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// One line of the Award Agenda
+class AwardEntry {
+    public String awardType;   // BEST_ORAL / BEST_POSTER / PEOPLES_CHOICE
+    public int rank;           // 1 = winner
+    public String studentName;
+    public String title;
+    public String type;
+    public double total;
+}
+
+// Average score of one evaluated submission (input of AwardEngine).
+// Only the columns needed to pick winners; names and titles are loaded for the winners only.
+class SubmissionScore {
+    public int submitId;
+    public String studentId;
+    public String type;
+    public double average;     // AVG(total) over its evaluations (bias-adjusted when normalized)
+    public int evalCount;
+}
+
+// All SQL for the awards table and the award aggregates
+public class AwardRepository {
+
+    // Receives the rows of scanSubmissionScores one at a time
+    public interface ScoreVisitor {
+        void visit(SubmissionScore s);
+    }
+
+    // Average total of every evaluated submission, in submit_id order, in one scan.
+    // Reads the running totals in submission_scores (no GROUP BY); rows are streamed
+    // to the visitor instead of collected into a list.
+    public static void scanSubmissionScores(ScoreVisitor visitor) throws SQLException {
+        String sql =
+            "SELECT sc.submit_id, s.student_id, s.type, sc.sum_total / sc.eval_count AS avg_total, sc.eval_count " +
+            "FROM submission_scores sc " +
+            "JOIN submissions s ON s.submit_id = sc.submit_id " +
+            "WHERE sc.eval_count > 0 " +
+            "ORDER BY sc.submit_id";
+
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                SubmissionScore s = new SubmissionScore();
+                s.submitId = rs.getInt(1);
+                s.studentId = rs.getString(2);
+                s.type = rs.getString(3);
+                s.average = rs.getDouble(4);
+                s.evalCount = rs.getInt(5);
+                visitor.visit(s);
+            }
+        }
+    }
+
+    // One submission's current average (as in scanSubmissionScores), or null if not evaluated
+    public static SubmissionScore findSubmissionScore(int submitId) throws SQLException {
+        String sql =
+            "SELECT sc.submit_id, s.student_id, s.type, sc.sum_total / sc.eval_count AS avg_total, sc.eval_count " +
+            "FROM submission_scores sc " +
+            "JOIN submissions s ON s.submit_id = sc.submit_id " +
+            "WHERE sc.submit_id = ? AND sc.eval_count > 0";
+
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, submitId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return null;
+                SubmissionScore s = new SubmissionScore();
+                s.submitId = rs.getInt(1);
+                s.studentId = rs.getString(2);
+                s.type = rs.getString(3);
+                s.average = rs.getDouble(4);
+                s.evalCount = rs.getInt(5);
+                return s;
+            }
+        }
+    }
+
+    // Like scanSubmissionScores, but every total is first turned into a z-score against its
+    // evaluator's own mean and standard deviation (evaluator_stats), so a harsh or lenient
+    // evaluator no longer moves the submissions they grade. The mean z-score is mapped back
+    // onto the overall score scale (overall mean + z * overall sd) so it reads like an average.
+    // Evaluators with fewer than two totals, or who give everyone the same total, count as z = 0.
+    //
+    // Unlike the raw averages this cannot be kept per submission: every save moves the
+    // evaluator's mean, and with it the z-score of everything they graded. It is one grouped
+    // scan of evaluations joined to the (small) evaluator_stats table.
+    public static void scanNormalizedScores(ScoreVisitor visitor) throws SQLException {
+        EvaluatorStats overall = EvaluatorStatsRepository.overall();
+        String sql =
+            "SELECT e.submit_id, s.student_id, s.type, " +
+            "       AVG(CASE WHEN st.eval_count > 1 AND st.m2_total > 0 " +
+            "                THEN (e.total - st.mean_total) / sqrt(st.m2_total / (st.eval_count - 1)) " +
+            "                ELSE 0 END) AS avg_z, " +
+            "       COUNT(*) " +
+            "FROM evaluations e " +
+            "JOIN submissions s ON s.submit_id = e.submit_id " +
+            "LEFT JOIN evaluator_stats st ON st.evaluator_id = e.evaluator_id " +
+            "GROUP BY e.submit_id " +
+            "ORDER BY e.submit_id";
+
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                SubmissionScore s = new SubmissionScore();
+                s.submitId = rs.getInt(1);
+                s.studentId = rs.getString(2);
+                s.type = rs.getString(3);
+                s.average = overall.mean + rs.getDouble(4) * overall.stdDev();
+                s.evalCount = rs.getInt(5);
+                visitor.visit(s);
+            }
+        }
+    }
+
+    // Fills in student name and submission title of already chosen winners
+    public static void loadWinnerDetails(List<AwardResult> winners) throws SQLException {
+        String sql =
+            "SELECT u.username, s.title FROM submissions s " +
+            "JOIN users u ON u.user_id = s.student_id " +
+            "WHERE s.submit_id = ?";
+
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            for (AwardResult r : winners) {
+                ps.setInt(1, r.submitId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        r.studentName = rs.getString(1);
+                        r.submissionTitle = rs.getString(2);
+                    }
+                }
+            }
+        }
+    }
+
+    // Highest average total among submissions of one type (Best Oral / Best Poster)
+    public static AwardResult findBestByType(String submissionType) throws SQLException {
+        // Average over all evaluators, read from the running totals in submission_scores
+        // If only one evaluator exists, the average = evaluator's total score
+        String sql =
+            "SELECT s.submit_id, u.user_id AS student_id, u.username AS student_name, s.title, s.type, " +
+            "       sc.sum_total / sc.eval_count AS avg_total " +
+            "FROM submission_scores sc " +
+            "JOIN submissions s ON s.submit_id = sc.submit_id " +
+            "JOIN users u ON s.student_id = u.user_id " +
+            "WHERE s.type = ? AND sc.eval_count > 0 " +
+            "ORDER BY avg_total DESC " +
+            "LIMIT 1;";
+
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, submissionType);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? toResult(rs) : null;
+            }
+        }
+    }
+
+    // Highest average total over all submissions
+    public static AwardResult findBestOverall() throws SQLException {
+        String sql =
+            "SELECT s.submit_id, u.user_id AS student_id, u.username AS student_name, s.title, s.type, " +
+            "       sc.sum_total / sc.eval_count AS avg_total " +
+            "FROM submission_scores sc " +
+            "JOIN submissions s ON s.submit_id = sc.submit_id " +
+            "JOIN users u ON s.student_id = u.user_id " +
+            "WHERE sc.eval_count > 0 " +
+            "ORDER BY avg_total DESC " +
+            "LIMIT 1;";
+
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? toResult(rs) : null;
+        }
+    }
+
+    private static AwardResult toResult(ResultSet rs) throws SQLException {
+        AwardResult r = new AwardResult();
+        r.submitId = rs.getInt("submit_id");
+        r.studentId = rs.getString("student_id");
+        r.studentName = rs.getString("student_name");
+        r.submissionTitle = rs.getString("title");
+        r.type = rs.getString("type");
+        r.total = rs.getDouble("avg_total"); // final average score
+        return r;
+    }
+
+    // Stores the rankings of any number of award types in one transaction on one connection.
+    // Every (award_type, rank) row is upserted in place; ranks beyond the new list are removed.
+    // Either all types are saved or, on any error, none are.
+    public static void saveAll(Map<String, List<AwardResult>> rankings) throws SQLException {
+        String upsert = "INSERT INTO awards(award_type, rank, submit_id, total) VALUES(?,?,?,?) " +
+                        "ON CONFLICT(award_type, rank) DO UPDATE SET " +
+                        "submit_id = excluded.submit_id, total = excluded.total";
+        String trim = "DELETE FROM awards WHERE award_type = ? AND rank > ?";
+
+        DatabaseHandler.inTransaction(conn -> {
+            try (PreparedStatement up = conn.prepareStatement(upsert);
+                 PreparedStatement del = conn.prepareStatement(trim)) {
+
+                for (Map.Entry<String, List<AwardResult>> e : rankings.entrySet()) {
+                    List<AwardResult> ranked = e.getValue();
+                    for (int i = 0; i < ranked.size(); i++) {
+                        AwardResult r = ranked.get(i);
+                        up.setString(1, e.getKey());
+                        up.setInt(2, i + 1);
+                        up.setInt(3, r.submitId);
+                        up.setDouble(4, r.total); // store average score
+                        up.addBatch();
+                    }
+                    del.setString(1, e.getKey());
+                    del.setInt(2, ranked.size());
+                    del.addBatch();
+                }
+                up.executeBatch();
+                del.executeBatch();
+            }
+            return null;
+        });
+    }
+
+    // Stored winners with student and submission details (Award Agenda)
+    public static List<AwardEntry> findAll() throws SQLException {
+        String sql =
+            "SELECT a.award_type, a.rank, stu.username AS student_name, sub.title, sub.type, a.total " +
+            "FROM awards a " +
+            "JOIN submissions sub ON sub.submit_id = a.submit_id " +
+            "JOIN users stu ON stu.user_id = sub.student_id " +
+            "ORDER BY a.award_type, a.rank";
+        List<AwardEntry> list = new ArrayList<>();
+
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                AwardEntry a = new AwardEntry();
+                a.awardType = rs.getString("award_type");
+                a.rank = rs.getInt("rank");
+                a.studentName = rs.getString("student_name");
+                a.title = rs.getString("title");
+                a.type = rs.getString("type");
+                a.total = rs.getDouble("total");
+                list.add(a);
+            }
+        }
+        return list;
+    }
+}
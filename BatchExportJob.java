@@ -0,0 +1,141 @@
+import java.io.File;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+// What the batch export did with one report
+class BatchReport {
+    public String name;
+    public ExportResult result;
+    public long millis;          // build + export of this report
+}
+
+// What one batch export did
+class BatchExportResult {
+    public List<BatchReport> reports = new ArrayList<>();   // in the order they were asked for
+    public int parallelism;      // reports built at the same time
+    public long snapshotMillis;  // opening the read snapshot
+    public long totalMillis;
+}
+
+// Exports many reports at once, all from the same committed state of the database, so the
+// schedule, evaluations and awards of a term-end export agree with each other even while
+// evaluators keep saving.
+//
+// One SQLite connection runs one statement at a time, so the reports are not built on one
+// connection: each of `parallelism` pooled connections gets its own read transaction, and
+// they are all opened while another connection holds the write lock (BEGIN IMMEDIATE), so no
+// write can commit in between and every transaction sees the same data. The lock is released
+// as soon as they are open; writers are only held up for that moment, not for the export.
+// The builders then run on a fork-join pool, each on one of those connections (see
+// DatabaseHandler.withConnection), and stream straight into their files.
+public class BatchExportJob {
+
+    // Builds and exports every given report into <outDir>/<name>.csv / .txt. Parallelism is
+    // one report per pooled connection, leaving one for the write lock.
+    public static BatchExportResult run(Map<String, Supplier<ReportBuilder>> builders, File outDir,
+                                        boolean csv, boolean txt, boolean gzip) throws SQLException {
+        long start = System.nanoTime();
+        BatchExportResult job = new BatchExportResult();
+        job.parallelism = Math.max(1, Math.min(builders.size(), DatabaseHandler.getPool().getMaxSize() - 1));
+
+        List<Connection> snapshot = openSnapshot(job.parallelism);
+        job.snapshotMillis = (System.nanoTime() - start) / 1_000_000;
+
+        BlockingQueue<Connection> free = new ArrayBlockingQueue<>(snapshot.size(), false, snapshot);
+        ForkJoinPool pool = new ForkJoinPool(job.parallelism);
+        try {
+            List<Callable<BatchReport>> tasks = new ArrayList<>();
+            for (Map.Entry<String, Supplier<ReportBuilder>> e : builders.entrySet()) {
+                String name = e.getKey();
+                Supplier<ReportBuilder> builder = e.getValue();
+                tasks.add(() -> export(name, builder, free, new File(outDir, name).getPath(), csv, txt, gzip));
+            }
+            for (Future<BatchReport> f : pool.invokeAll(tasks)) {
+                job.reports.add(f.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Batch export interrupted", e);
+        } catch (ExecutionException e) {
+            throw new SQLException("Batch export failed: " + e.getCause(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+            for (Connection c : snapshot) c.close();   // ends the read transaction
+        }
+
+        job.totalMillis = (System.nanoTime() - start) / 1_000_000;
+        return job;
+    }
+
+    // One report on one snapshot connection. A builder reports its own database errors as
+    // warnings; anything else it throws is turned into one too, so one report cannot stop the rest.
+    private static BatchReport export(String name, Supplier<ReportBuilder> builder, BlockingQueue<Connection> free,
+                                      String basePath, boolean csv, boolean txt, boolean gzip) throws Exception {
+        BatchReport report = new BatchReport();
+        report.name = name;
+        long t = System.nanoTime();
+
+        Connection conn = free.take();
+        try {
+            report.result = DatabaseHandler.withConnection(conn, c ->
+                    Exporter.export(StreamingReportBuilder.of(builder.get()), basePath, csv, txt, gzip));
+        } catch (RuntimeException e) {
+            report.result = new ExportResult();
+            report.result.warnings.add("Export failed: " + e);
+        } finally {
+            free.put(conn);
+        }
+
+        report.millis = (System.nanoTime() - t) / 1_000_000;
+        return report;
+    }
+
+    // `count` pooled connections, each in a read transaction, all on the same committed data
+    private static List<Connection> openSnapshot(int count) throws SQLException {
+        List<Connection> readers = new ArrayList<>();
+        Connection lock = null;
+        try {
+            // Borrow everything first, so the write lock is never held while waiting on the pool
+            if (count > 1) lock = DatabaseHandler.requireConnection();
+            for (int i = 0; i < count; i++) readers.add(DatabaseHandler.requireConnection());
+
+            if (lock != null) execute(lock, "BEGIN IMMEDIATE");   // from here on no write can commit
+            try {
+                for (Connection c : readers) {
+                    c.setAutoCommit(false);
+                    // SQLite fixes what a transaction sees at its first read
+                    try (Statement st = c.createStatement();
+                         ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM table_versions")) {
+                        rs.next();
+                    }
+                }
+            } finally {
+                if (lock != null) execute(lock, "ROLLBACK");
+            }
+            return readers;
+        } catch (SQLException | RuntimeException e) {
+            for (Connection c : readers) c.close();
+            throw e;
+        } finally {
+            if (lock != null) lock.close();
+        }
+    }
+
+    private static void execute(Connection conn, String sql) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute(sql);
+        }
+    }
+}
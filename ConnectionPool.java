@@ -0,0 +1,246 @@
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded pool of SQLite connections used by DatabaseHandler.connect()
+// Callers keep using try-with-resources: close() hands the connection back
+// to the pool instead of closing the database file.
+public class ConnectionPool {
+
+    private final String url;
+    private final DatabaseProfile profile;  // PRAGMAs applied to every new connection
+    private final int maxSize;              // max connections borrowed at the same time
+    private final long borrowTimeoutMs;     // how long connect() waits when all are in use
+    private final long leakThresholdMs;     // borrows held longer than this are reported
+    private final int statementCacheSize;   // cached PreparedStatements per connection (0 = off)
+
+    private final BlockingQueue<Physical> idle;
+    private final Semaphore permits;
+    private final Set<Lease> borrowed = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService leakWatcher;
+
+    // Simple counters (shown by PerfBenchmark)
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+
+    private volatile boolean closed = false;
+
+    public ConnectionPool(String url, DatabaseProfile profile, int maxSize, long borrowTimeoutMs,
+                          long leakThresholdMs, int statementCacheSize) {
+        if (maxSize < 1) throw new IllegalArgumentException("Pool size must be at least 1");
+        this.url = url;
+        this.profile = profile;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.leakThresholdMs = leakThresholdMs;
+        this.statementCacheSize = statementCacheSize;
+        this.idle = new ArrayBlockingQueue<>(maxSize);
+        this.permits = new Semaphore(maxSize, true);
+
+        // Background check for connections that were borrowed but never closed
+        this.leakWatcher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-leak-watcher");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, leakThresholdMs / 2);
+        leakWatcher.scheduleAtFixedRate(this::reportLeaks, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    // Borrow a connection; blocks up to borrowTimeoutMs when the pool is exhausted
+    public Connection borrow() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out waiting for a database connection (pool size " + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            Physical physical = takeHealthyIdle();
+            if (physical == null) {
+                physical = openPhysical();
+            }
+
+            Lease lease = new Lease(physical);
+            borrowed.add(lease);
+            borrowCount.incrementAndGet();
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    lease);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // Health check: drop idle connections that were closed or no longer respond
+    private Physical takeHealthyIdle() {
+        Physical p;
+        while ((p = idle.poll()) != null) {
+            try {
+                if (!p.conn.isClosed() && p.conn.isValid(2)) return p;
+            } catch (SQLException ignored) {
+                // treat as broken
+            }
+            p.close();
+        }
+        return null;
+    }
+
+    // Opens a new physical connection to the database file and applies the runtime profile
+    private Physical openPhysical() throws SQLException {
+        Connection c = DriverManager.getConnection(url);
+        try {
+            profile.apply(c);
+        } catch (SQLException e) {
+            closeQuietly(c);
+            throw e;
+        }
+        createdCount.incrementAndGet();
+        return new Physical(c, new StatementCache(c, statementCacheSize));
+    }
+
+    // Called when the caller closes its proxy
+    private void release(Lease lease) {
+        borrowed.remove(lease);
+        Physical p = lease.physical;
+        try {
+            // Reset state a caller may have changed so the next borrower gets a clean connection
+            p.statements.releaseAll();
+            if (!p.conn.getAutoCommit()) {
+                p.conn.rollback();
+                p.conn.setAutoCommit(true);
+            }
+            if (closed || !idle.offer(p)) p.close();
+        } catch (SQLException e) {
+            p.close();
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Called when the caller aborts its proxy: the physical connection is closed, not reused
+    private void discard(Lease lease) {
+        borrowed.remove(lease);
+        try {
+            lease.physical.close();
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Logs the borrow stack of every connection held longer than the leak threshold
+    private void reportLeaks() {
+        long now = System.currentTimeMillis();
+        for (Lease lease : borrowed) {
+            long held = now - lease.borrowedAt;
+            if (held > leakThresholdMs && lease.reported.compareAndSet(false, true)) {
+                leakCount.incrementAndGet();
+                System.out.println("Connection leak: borrowed " + held + " ms ago and never closed. Borrowed at:");
+                lease.borrowStack.printStackTrace(System.out);
+            }
+        }
+    }
+
+    // Closes idle connections; borrowed ones are closed when they are returned
+    public void shutdown() {
+        closed = true;
+        leakWatcher.shutdownNow();
+        Physical p;
+        while ((p = idle.poll()) != null) p.close();
+    }
+
+    public DatabaseProfile getProfile() { return profile; }
+    public int getMaxSize() { return maxSize; }
+    public int getBorrowedCount() { return borrowed.size(); }
+    public int getIdleCount() { return idle.size(); }
+    public long getBorrowCount() { return borrowCount.get(); }
+    public long getCreatedCount() { return createdCount.get(); }
+    public long getLeakCount() { return leakCount.get(); }
+
+    private static void closeQuietly(Connection c) {
+        try {
+            c.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    // A real SQLite connection together with its statement cache
+    private static class Physical {
+        final Connection conn;
+        final StatementCache statements;
+
+        Physical(Connection conn, StatementCache statements) {
+            this.conn = conn;
+            this.statements = statements;
+        }
+
+        void close() {
+            statements.closeAll();
+            closeQuietly(conn);
+        }
+    }
+
+    // One borrow of a physical connection. Acts as the proxy handler so that
+    // close() returns the connection to the pool exactly once.
+    private class Lease implements InvocationHandler {
+        final Physical physical;
+        final long borrowedAt = System.currentTimeMillis();
+        final Throwable borrowStack = new Throwable("Connection borrowed here");
+        final AtomicBoolean returned = new AtomicBoolean(false);
+        final AtomicBoolean reported = new AtomicBoolean(false);
+
+        Lease(Physical physical) {
+            this.physical = physical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (returned.compareAndSet(false, true)) release(this);
+                    return null;
+                case "abort":
+                    // The caller could not bring the connection back to a clean state (e.g. a
+                    // raw BEGIN whose ROLLBACK failed): close it instead of pooling it. Closing
+                    // a SQLite connection rolls back what it left open and frees its locks.
+                    if (returned.compareAndSet(false, true)) discard(this);
+                    return null;
+                case "isClosed":
+                    return returned.get() || physical.conn.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical.conn + "]";
+                default:
+                    if (returned.get()) throw new SQLException("Connection has already been returned to the pool");
+            }
+
+            // Plain prepareStatement(sql) goes through the per-connection statement cache
+            if (method.getName().equals("prepareStatement") && args.length == 1) {
+                return physical.statements.prepare((String) args[0], (Connection) proxy);
+            }
+
+            try {
+                return method.invoke(physical.conn, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
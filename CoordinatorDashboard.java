@@ -1,6 +1,6 @@
 import java.awt.*;
-import java.sql.*;
 import java.util.ArrayList;
+import java.util.List;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 
@@ -12,6 +12,9 @@ public class CoordinatorDashboard extends JFrame {
     private String currentStaffId;
     private String currentStaffName;
 
+    // Runs database work off the EDT and shows progress
+    private final UiTaskRunner tasks = new UiTaskRunner(this);
+
     public CoordinatorDashboard(String staffId, String staffName) {
         super("Coordinator Dashboard - " + staffName);
         this.currentStaffId = staffId;
@@ -54,7 +57,7 @@ public class CoordinatorDashboard extends JFrame {
         add(topContainer, BorderLayout.NORTH);
 
         // --- CENTER: LIST OF STUDENT SUBMISSIONS ---
-        String[] columnNames = {"Student ID", "Name", "Title", "Type", "Status"};
+        String[] columnNames = {"Student ID", "Name", "Title", "Type", "Status", "Avg Score"};
         tableModel = new DefaultTableModel(columnNames, 0) {
             @Override
             public boolean isCellEditable(int row, int column) {
@@ -72,6 +75,7 @@ public class CoordinatorDashboard extends JFrame {
         JButton refreshBtn = new JButton("Refresh List");
         JButton awardBtn = new JButton("Compute Awards");
         JButton reportBtn = new JButton("Generate Reports");
+        JButton rubricBtn = new JButton("Edit Rubrics");
 
 
         btnPanel.add(createSessionBtn);
@@ -80,6 +84,8 @@ public class CoordinatorDashboard extends JFrame {
         btnPanel.add(refreshBtn);
         btnPanel.add(awardBtn);
         btnPanel.add(reportBtn);
+        btnPanel.add(rubricBtn);
+        btnPanel.add(tasks.getProgressBar());
         add(btnPanel, BorderLayout.SOUTH);
 
         // --- BUTTON ACTIONS ---
@@ -105,6 +111,9 @@ public class CoordinatorDashboard extends JFrame {
 
         reportBtn.addActionListener(e -> new ReportsDashboard().setVisible(true));
 
+        // Criteria and weights per session type; saving recomputes the totals
+        rubricBtn.addActionListener(e -> new RubricDialog(this));
+
         // Load data on startup
         loadSubmissions(); 
 
@@ -112,50 +121,19 @@ public class CoordinatorDashboard extends JFrame {
     }
 
     private void loadSubmissions() {
-        tableModel.setRowCount(0); 
-        // Note: This query requires the 'assignments' table to exist
-        String sql = "SELECT u.user_id, u.username, s.title, s.type, " +
-                     "(SELECT count(*) FROM assignments a WHERE a.student_id = u.user_id) as is_assigned " +
-                     "FROM submissions s JOIN users u ON s.student_id = u.user_id";
-
-        try (Connection conn = DatabaseHandler.connect();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                String id = rs.getString("user_id");
-                String name = rs.getString("username");
-                String title = rs.getString("title");
-                String type = rs.getString("type");
-                int assignedCount = rs.getInt("is_assigned");
-                
-                String status = (assignedCount > 0) ? "Assigned" : "Pending";
-                tableModel.addRow(new Object[]{id, name, title, type, status});
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Database Error: " + e.getMessage());
-        }
-    }
-
-    // --- HELPER: CHECK FOR CONFLICTS ---
-    private boolean isSlotBooked(String date, String time, String venue) {
-        String sql = "SELECT count(*) FROM sessions WHERE date = ? AND time = ? AND venue = ?";
-        try (Connection conn = DatabaseHandler.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, date);
-            pstmt.setString(2, time);
-            pstmt.setString(3, venue);
-            
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt(1) > 0; // Returns true if count > 0 (Slot is taken)
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return false;
+        tasks.run(SubmissionRepository::findAllWithAssignmentStatus,
+                rows -> {
+                    tableModel.setRowCount(0); 
+                    for (SubmissionStatusRow r : rows) {
+                        String status = (r.assignedCount > 0) ? "Assigned" : "Pending";
+                        String avg = (r.average == null) ? "-" : String.format("%.2f", r.average);
+                        tableModel.addRow(new Object[]{r.studentId, r.studentName, r.title, r.type, status, avg});
+                    }
+                },
+                e -> {
+                    e.printStackTrace();
+                    JOptionPane.showMessageDialog(this, "Database Error: " + e.getMessage());
+                });
     }
 
     private void openCreateSessionDialog() {
@@ -199,63 +177,77 @@ public class CoordinatorDashboard extends JFrame {
                 return;
             }
 
-            // 4. Check for Conflicts (Same Date + Time + Venue)
-            if (isSlotBooked(date, time, venue)) {
-                JOptionPane.showMessageDialog(this, 
-                    "Conflict Error: The venue '" + venue + "' is already booked at " + time + " on " + date + ".\nPlease choose a different time or venue.", 
-                    "Booking Conflict", 
-                    JOptionPane.ERROR_MESSAGE);
-                return; 
-            }
-
-            // If we pass all checks, THEN save
+            // 4. Conflict check + save happen together in the background
             saveSession(date, time, venue, type);
         }
     }
 
     private void saveSession(String date, String time, String venue, String type) {
-        String sql = "INSERT INTO sessions(date, time, venue, session_type) VALUES(?,?,?,?)";
-        try (Connection conn = DatabaseHandler.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, date);
-            pstmt.setString(2, time); 
-            pstmt.setString(3, venue);
-            pstmt.setString(4, type);
-            pstmt.executeUpdate();
-            JOptionPane.showMessageDialog(this, "Session Created Successfully!");
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Database Error: " + e.getMessage());
-        }
+        Session s = new Session();
+        s.date = date;
+        s.time = time;
+        s.venue = venue;
+        s.sessionType = type;
+
+        tasks.run(() -> {
+                    // Check for Conflicts (Same Date + Time + Venue); only save if the slot is free
+                    if (SessionRepository.isSlotBooked(date, time, venue)) return false;
+                    SessionRepository.insert(s);
+                    return true;
+                },
+                saved -> {
+                    if (saved) {
+                        JOptionPane.showMessageDialog(this, "Session Created Successfully!");
+                    } else {
+                        JOptionPane.showMessageDialog(this, 
+                            "Conflict Error: The venue '" + venue + "' is already booked at " + time + " on " + date + ".\nPlease choose a different time or venue.", 
+                            "Booking Conflict", 
+                            JOptionPane.ERROR_MESSAGE);
+                    }
+                },
+                e -> JOptionPane.showMessageDialog(this, "Database Error: " + e.getMessage()));
+    }
+
+    // Sessions and evaluators loaded together for the assign dialog
+    private static class AssignOptions {
+        List<Session> sessions;
+        List<User> evaluators;
     }
 
     // --- THE ASSIGNMENT LOGIC ---
     private void openAssignDialog(String studentId, String studentName) {
-        // 1. Get List of Sessions
+        tasks.run(() -> {
+                    AssignOptions o = new AssignOptions();
+                    o.sessions = SessionRepository.findAll();
+                    o.evaluators = UserRepository.findByRole("Evaluator");
+                    return o;
+                },
+                o -> showAssignDialog(studentId, studentName, o),
+                e -> {
+                    e.printStackTrace();
+                    JOptionPane.showMessageDialog(this, "Database Error: " + e.getMessage());
+                });
+    }
+
+    private void showAssignDialog(String studentId, String studentName, AssignOptions options) {
+        // 1. List of Sessions
         ArrayList<String> sessionList = new ArrayList<>();
         ArrayList<Integer> sessionIds = new ArrayList<>();
         
-        try (Connection conn = DatabaseHandler.connect();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT * FROM sessions")) {
-            while (rs.next()) {
-                sessionIds.add(rs.getInt("session_id"));
-                sessionList.add(rs.getString("date") + " " + rs.getString("time") + 
-                                " - " + rs.getString("venue") + " (" + rs.getString("session_type") + ")");
-            }
-        } catch (SQLException e) { e.printStackTrace(); }
+        for (Session s : options.sessions) {
+            sessionIds.add(s.sessionId);
+            sessionList.add(s.date + " " + s.time + 
+                            " - " + s.venue + " (" + s.sessionType + ")");
+        }
 
-        // 2. Get List of Evaluators
+        // 2. List of Evaluators
         ArrayList<String> evaluatorList = new ArrayList<>();
         ArrayList<String> evaluatorIds = new ArrayList<>();
         
-        try (Connection conn = DatabaseHandler.connect();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT user_id, username FROM users WHERE role = 'Evaluator'")) {
-            while (rs.next()) {
-                evaluatorIds.add(rs.getString("user_id"));
-                evaluatorList.add(rs.getString("username"));
-            }
-        } catch (SQLException e) { e.printStackTrace(); }
+        for (User u : options.evaluators) {
+            evaluatorIds.add(u.userId);
+            evaluatorList.add(u.username);
+        }
 
         if (sessionList.isEmpty() || evaluatorList.isEmpty()) {
             JOptionPane.showMessageDialog(this, "You need at least one Session and one Evaluator created first!");
@@ -281,39 +273,35 @@ public class CoordinatorDashboard extends JFrame {
     }
 
     private void assignToDatabase(String studentId, int sessionId, String evaluatorId) {
-        String sql = "INSERT INTO assignments(session_id, student_id, evaluator_id) VALUES(?,?,?)";
-        try (Connection conn = DatabaseHandler.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, sessionId);
-            pstmt.setString(2, studentId);
-            pstmt.setString(3, evaluatorId);
-            pstmt.executeUpdate();
-            
-            JOptionPane.showMessageDialog(this, "Assignment Successful!");
-            loadSubmissions(); // Refresh the table to show "Assigned"
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error: " + e.getMessage());
-        }
+        tasks.run(() -> {
+                    AssignmentRepository.assign(sessionId, studentId, evaluatorId);
+                    return null;
+                },
+                done -> {
+                    JOptionPane.showMessageDialog(this, "Assignment Successful!");
+                    loadSubmissions(); // Refresh the table to show "Assigned"
+                },
+                e -> JOptionPane.showMessageDialog(this, "Error: " + e.getMessage()));
     }
 
     private void showAllSessions() {
-        JTextArea sessionText = new JTextArea(10, 50); 
-        sessionText.setEditable(false);
-        
-        try (Connection conn = DatabaseHandler.connect();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT * FROM sessions")) {
-            sessionText.append("ID | Date       | Time  | Venue      | Type\n");
-            sessionText.append("----------------------------------------------------------\n");
-            while (rs.next()) {
-                sessionText.append(rs.getInt("session_id") + " | " + 
-                                   rs.getString("date") + " | " + 
-                                   rs.getString("time") + " | " + 
-                                   rs.getString("venue") + " | " + 
-                                   rs.getString("session_type") + "\n");
-            }
-        } catch (SQLException e) { e.printStackTrace(); }
-        
-        JOptionPane.showMessageDialog(this, new JScrollPane(sessionText), "All Sessions", JOptionPane.INFORMATION_MESSAGE);
+        tasks.run(SessionRepository::findAll,
+                sessions -> {
+                    JTextArea sessionText = new JTextArea(10, 50); 
+                    sessionText.setEditable(false);
+
+                    sessionText.append("ID | Date       | Time  | Venue      | Type\n");
+                    sessionText.append("----------------------------------------------------------\n");
+                    for (Session s : sessions) {
+                        sessionText.append(s.sessionId + " | " + 
+                                           s.date + " | " + 
+                                           s.time + " | " + 
+                                           s.venue + " | " + 
+                                           s.sessionType + "\n");
+                    }
+
+                    JOptionPane.showMessageDialog(this, new JScrollPane(sessionText), "All Sessions", JOptionPane.INFORMATION_MESSAGE);
+                },
+                e -> e.printStackTrace());
     }
 }
\ No newline at end of file
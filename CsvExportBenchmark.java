@@ -0,0 +1,137 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+// CSV export throughput in MB/s of CSV text, on an in-memory report of 1M rows shaped like the
+// final evaluation report (ids, names, titles, session types, scores, comments that sometimes
+// hold commas, quotes and line breaks).
+//
+//   java -cp ".;sqlite-jdbc-3.51.1.0.jar" CsvExportBenchmark [rows]   (default 1000000)
+//
+//   old          the previous exportCSV: FileWriter in the platform charset, no quoting
+//   exportCSV    Exporter.exportCSV, RFC 4180 through CsvWriter
+//   export       Exporter.export, the streaming path ReportRunner uses
+//   ... gzip     the same, gzipped; MB/s is still of the CSV text, the file size is shown too
+//
+// Every mode is run RUNS times after a warm-up and the best time is reported. No database is
+// needed, so only the writing is measured.
+public class CsvExportBenchmark {
+
+    private static final int RUNS = 3;
+
+    private interface Export {
+        String run(ReportData data, String base) throws IOException;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        ReportData data = sample(rows, new Random(7));
+        File base = File.createTempFile("csv-bench", "");
+
+        System.out.printf("%-16s %10s %10s %10s %12s%n", "mode", "rows", "best ms", "MB/s", "file MB");
+        measure("old", data, base, CsvExportBenchmark::legacyExportCSV);
+        measure("exportCSV", data, base, (d, b) -> Exporter.exportCSV(d, b, false));
+        measure("export", data, base, (d, b) -> Exporter.export(d::writeTo, b, true, false, false).paths.get(0));
+        measure("exportCSV gzip", data, base, (d, b) -> Exporter.exportCSV(d, b, true));
+        measure("export gzip", data, base, (d, b) -> Exporter.export(d::writeTo, b, true, false, true).paths.get(0));
+        base.delete();
+    }
+
+    private static void measure(String label, ReportData data, File base, Export export) throws IOException {
+        export.run(data, base.getPath());   // warm-up
+
+        long best = Long.MAX_VALUE;
+        String path = null;
+        for (int i = 0; i < RUNS; i++) {
+            long t = System.nanoTime();
+            path = export.run(data, base.getPath());
+            best = Math.min(best, System.nanoTime() - t);
+        }
+
+        File file = new File(path);
+        long csvBytes = path.endsWith(".gz") ? csvBytes(data) : file.length();
+        System.out.printf("%-16s %10d %10d %10.1f %12.1f%n", label, data.getRowCount(), best / 1_000_000,
+                csvBytes / 1024.0 / 1024.0 / (best / 1e9), file.length() / 1024.0 / 1024.0);
+        file.delete();
+    }
+
+    // Size of the plain CSV, to give gzip runs MB/s of the same text
+    private static long csvBytes(ReportData data) throws IOException {
+        File tmp = File.createTempFile("csv-bench-size", "");
+        String path = Exporter.exportCSV(data, tmp.getPath(), false);
+        long size = new File(path).length();
+        new File(path).delete();
+        tmp.delete();
+        return size;
+    }
+
+    // exportCSV as it was before CsvWriter, for comparison
+    private static String legacyExportCSV(ReportData r, String outPath) throws IOException {
+        outPath = outPath + ".csv";
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(outPath))) {
+            List<String> columns = r.getColumnNames();
+            for (int i = 0; i < columns.size(); i++) {
+                bw.write(columns.get(i));
+                if (i < columns.size() - 1) bw.write(",");
+            }
+            bw.newLine();
+
+            StringBuilder line = new StringBuilder();
+            for (int row = 0; row < r.getRowCount(); row++) {
+                line.setLength(0);
+                for (int i = 0; i < r.getColumnCount(); i++) {
+                    r.appendTo(line, row, i);
+                    if (i < r.getColumnCount() - 1) line.append(',');
+                }
+                bw.append(line);
+                bw.newLine();
+            }
+        }
+        return outPath;
+    }
+
+    private static ReportData sample(int rows, Random random) {
+        String[] first = {"Aisyah", "Wei Jie", "Kumar", "Nurul", "Daniel", "Mei Ling", "Farid", "Priya", "José", "Zoë"};
+        String[] last = {"Tan", "Lim", "Abdullah", "Raj", "Wong", "Ismail", "Lee", "Ng", "Müller", "O'Brien"};
+        String[] words = {"Deep", "Learning", "for", "Crop", "Yield", "Prediction", "Graph", "Networks", "in",
+                          "Traffic", "Forecasting", "Secure", "IoT", "Edge", "Analysis", "of", "Malaysian", "Retail"};
+        String[] comments = {"Clear and well structured.", "Good results, weak methodology.",
+                             "Slides were \"busy\", otherwise fine.", "Needs more data.\nRe-check the baseline.",
+                             "", "Excellent."};
+
+        ReportData data = new ReportData();
+        data.start("Final Evaluation Report", List.of(
+                ReportColumn.integer("Submission ID"),
+                ReportColumn.text("Student"),
+                ReportColumn.text("Title"),
+                ReportColumn.category("Type"),
+                ReportColumn.text("Evaluator"),
+                ReportColumn.integer("Clarity"),
+                ReportColumn.integer("Methodology"),
+                ReportColumn.integer("Results"),
+                ReportColumn.integer("Presentation"),
+                ReportColumn.decimal("Total", 2),
+                ReportColumn.text("Comments")));
+        StringBuilder title = new StringBuilder();
+        for (int row = 0; row < rows; row++) {
+            title.setLength(0);
+            for (int w = 3 + random.nextInt(6); w > 0; w--) {
+                if (title.length() > 0) title.append(random.nextInt(10) == 0 ? ", " : " ");
+                title.append(words[random.nextInt(words.length)]);
+            }
+            data.integer(row + 1);
+            data.text(first[random.nextInt(first.length)] + " " + last[random.nextInt(last.length)]);
+            data.text(title.toString());
+            data.text(random.nextBoolean() ? "Oral Presentation" : "Poster Presentation");
+            data.text("Dr. " + last[random.nextInt(last.length)]);
+            for (int c = 0; c < 4; c++) data.integer(random.nextInt(6));
+            data.decimal(random.nextInt(2001) / 100.0);
+            data.text(comments[random.nextInt(comments.length)]);
+            data.endRow();
+        }
+        return data;
+    }
+}
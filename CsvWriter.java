@@ -0,0 +1,187 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+// RFC 4180 CSV writer: fields separated by commas, every record ended by CRLF, a field quoted
+// when it contains a comma, a quote, CR or LF, and quotes inside a quoted field doubled.
+// Text is encoded to UTF-8 here, straight into one reused byte array that is handed to the
+// FileChannel (or to gzip) whenever it fills up: no Writer, no String or byte[] per field, and
+// the platform charset never matters. gzip runs at the fastest level: about 3x the speed of the
+// default for a quarter more size. Closing flushes; the file is closed even if that fails.
+public class CsvWriter implements Closeable {
+
+    public static final int BUFFER_SIZE = 256 * 1024;
+
+    private final FileChannel channel;
+    private final OutputStream gzip;          // null for a plain file
+    private final byte[] buf = new byte[BUFFER_SIZE];
+    private final ByteBuffer wrapped = ByteBuffer.wrap(buf);
+    private final byte[] digits = new byte[11];
+    private int pos;
+    private boolean firstField = true;
+    private long bytes;                       // before compression
+
+    public CsvWriter(Path path, boolean gzip) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            this.gzip = gzip ? new GZIPOutputStream(Channels.newOutputStream(channel), 64 * 1024) {
+                {
+                    def.setLevel(Deflater.BEST_SPEED);
+                }
+            } : null;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // A text field; null is written as an empty field
+    public void field(CharSequence value) throws IOException {
+        separator();
+        if (value == null) return;
+
+        int n = value.length();
+        long worst = 3L * n + 2;   // every char 3 bytes (a doubled quote is 2, a surrogate pair 4), plus quotes
+        if (worst > buf.length) {
+            writeLarge(value, n);
+            return;
+        }
+        if (pos + worst > buf.length) flushBuffer();
+
+        // Most fields need no quotes: write them as they are and start over quoted only if a
+        // special character turns up (encode leaves pos alone then). Room was made above, so nothing
+        // is flushed meanwhile.
+        if (!encode(value, 0, n, false)) {
+            buf[pos++] = '"';
+            encode(value, 0, n, true);
+            buf[pos++] = '"';
+        }
+    }
+
+    // An int field, digits written directly
+    public void field(int value) throws IOException {
+        separator();
+        if (pos + 11 > buf.length) flushBuffer();
+
+        long v = value;
+        if (v < 0) {
+            buf[pos++] = '-';
+            v = -v;
+        }
+        int n = 0;
+        do {
+            digits[n++] = (byte) ('0' + v % 10);
+            v /= 10;
+        } while (v != 0);
+        while (n > 0) buf[pos++] = digits[--n];
+    }
+
+    public void emptyField() throws IOException {
+        separator();
+    }
+
+    public void endRecord() throws IOException {
+        put((byte) '\r');
+        put((byte) '\n');
+        firstField = true;
+    }
+
+    // Bytes of CSV written so far (before compression)
+    public long getBytesWritten() {
+        return bytes + pos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+            if (gzip != null) gzip.close();
+        } finally {
+            channel.close();
+        }
+    }
+
+    // Encodes value into buf, which has room for it. Unquoted, it stops and returns false at the
+    // first character that needs quoting; quoted, it doubles quotes.
+    private boolean encode(CharSequence value, int from, int to, boolean quoted) {
+        byte[] b = buf;
+        int p = pos;
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                    if (!quoted) return false;
+                    if (c == '"') b[p++] = '"';
+                }
+                b[p++] = (byte) c;
+            } else if (Character.isHighSurrogate(c) && i + 1 < to && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                b[p++] = (byte) (0xF0 | (cp >> 18));
+                b[p++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                b[p++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                b[p++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                b[p++] = '?';   // unpaired surrogate, as String.getBytes does
+            } else if (c < 0x800) {
+                b[p++] = (byte) (0xC0 | (c >> 6));
+                b[p++] = (byte) (0x80 | (c & 0x3F));
+            } else {
+                b[p++] = (byte) (0xE0 | (c >> 12));
+                b[p++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                b[p++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        pos = p;
+        return true;
+    }
+
+    // A field too long for the buffer: decide on quotes first, then encode it a piece at a time
+    private void writeLarge(CharSequence value, int n) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < n && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+
+        if (quote) put((byte) '"');
+        int piece = (buf.length - 2) / 3;
+        for (int from = 0; from < n; ) {
+            int to = Math.min(n, from + piece);
+            if (to < n && Character.isHighSurrogate(value.charAt(to - 1))) to--;   // keep pairs together
+            if (pos + 3 * (to - from) > buf.length) flushBuffer();
+            encode(value, from, to, quote);
+            from = to;
+        }
+        if (quote) put((byte) '"');
+    }
+
+    private void separator() throws IOException {
+        if (firstField) firstField = false;
+        else put((byte) ',');
+    }
+
+    private void put(byte b) throws IOException {
+        if (pos == buf.length) flushBuffer();
+        buf[pos++] = b;
+    }
+
+    private void flushBuffer() throws IOException {
+        if (pos == 0) return;
+        if (gzip != null) {
+            gzip.write(buf, 0, pos);
+        } else {
+            wrapped.clear().limit(pos);
+            while (wrapped.hasRemaining()) channel.write(wrapped);
+        }
+        bytes += pos;
+        pos = 0;
+    }
+}
@@ -0,0 +1,307 @@
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// Deterministic synthetic data for seminar_system.db at production scale.
+// The same seed always produces exactly the same rows. Run again on a database that already
+// holds generated data, it adds a new batch of students and evaluators numbered after the last.
+//
+//   java -cp ".;sqlite-jdbc-3.51.1.0.jar" DataGenerator <db file> [students] [evaluators] [seed]
+//
+// Shape of the data (roughly what a real term looks like):
+// - every student has at least one Oral and one Poster submission, some resubmit (up to 3 each)
+// - sessions spread over venues, dates and hourly slots
+// - each student is assigned to one Oral and one Poster session with 2-3 evaluators
+// - evaluator workload is skewed (a few evaluators get most assignments)
+// - ~85% of assignments are evaluated; scores depend on the student's ability
+//   and on how harsh the evaluator is
+public class DataGenerator {
+
+    private static final String[] TYPES = {"Oral Presentation", "Poster Presentation"};
+    private static final String[] VENUES = {
+        "Room 101", "Room 102", "Room 201", "Room 202", "Lecture Hall A",
+        "Lecture Hall B", "Lab 1", "Lab 2", "Auditorium", "Seminar Room"
+    };
+    private static final String[] FIRST = {
+        "Aiman", "Wei", "Siti", "Raj", "Mei", "Daniel", "Nur", "Arjun", "Hui", "Farah",
+        "Kelvin", "Anna", "Hafiz", "Priya", "Jun", "Sarah", "Imran", "Ling", "Ahmad", "Grace"
+    };
+    private static final String[] LAST = {
+        "Tan", "Lim", "Abdullah", "Kumar", "Wong", "Lee", "Rahman", "Ng", "Chong", "Ismail"
+    };
+    private static final String[] TOPICS = {
+        "Face Recognition", "Smart Parking", "Crop Disease Detection", "Chatbot Tutoring",
+        "Blockchain Voting", "Traffic Prediction", "Sign Language Translation", "Energy Forecasting",
+        "Fake News Detection", "Indoor Navigation", "Medical Image Segmentation", "Music Recommendation"
+    };
+
+    private static final int CHUNK = 20000;  // rows per batch transaction
+
+    // Generator settings
+    public static class Config {
+        public int students = 1000;
+        public int evaluators = 50;
+        public long seed = 42L;
+    }
+
+    // Counts of the rows that were written
+    public static class Summary {
+        public int users;
+        public int sessions;
+        public int submissions;
+        public int assignments;
+        public int evaluations;
+
+        public int totalRows() {
+            return users + sessions + submissions + assignments + evaluations;
+        }
+    }
+
+    public static String studentId(int n) {
+        return String.format("s%06d", n);
+    }
+
+    public static String evaluatorId(int n) {
+        return String.format("ev%04d", n);
+    }
+
+    // Settings that give about the requested number of submissions
+    public static Config forSubmissions(int submissions, long seed) {
+        Config c = new Config();
+        c.students = Math.max(1, (int) Math.round(submissions / 2.4));  // ~2.4 submissions per student
+        c.evaluators = Math.max(5, c.students / 40);
+        c.seed = seed;
+        return c;
+    }
+
+    // Writes the data into the database DatabaseHandler currently points at
+    public static Summary generate(Config cfg) throws SQLException {
+        DatabaseHandler.createNewTable();
+        Random rnd = new Random(cfg.seed);
+        Summary sum = new Summary();
+
+        // --- users (numbered after any generated by an earlier run) ---
+        int firstStudent = lastNumber("s", 6);
+        int firstEvaluator = lastNumber("ev", 4);
+        List<User> users = new ArrayList<>();
+        for (int i = 1; i <= cfg.students; i++) {
+            String id = studentId(firstStudent + i);
+            users.add(user(id, name(rnd) + " " + id, "Student"));
+        }
+        for (int i = 1; i <= cfg.evaluators; i++) {
+            String id = evaluatorId(firstEvaluator + i);
+            users.add(user(id, "Dr. " + name(rnd) + " " + id, "Evaluator"));
+        }
+        saveInChunks(users, UserRepository::saveAll);
+        sum.users = users.size();
+
+        // Evaluator harshness (added to every score they give) and a skewed workload:
+        // evaluator e is picked with weight 1 / e^0.8, stored as running totals for binary search
+        String[] evaluatorIds = new String[cfg.evaluators + 1];
+        double[] harshness = new double[cfg.evaluators + 1];
+        double[] cumulative = new double[cfg.evaluators];
+        double running = 0;
+        for (int e = 1; e <= cfg.evaluators; e++) {
+            evaluatorIds[e] = evaluatorId(firstEvaluator + e);
+            harshness[e] = rnd.nextGaussian() * 0.6;
+            running += 1.0 / Math.pow(e, 0.8);
+            cumulative[e - 1] = running;
+        }
+
+        // --- sessions: about 10 students per session, each slot (date, time, venue) used once ---
+        int sessionCount = Math.max(2, (cfg.students + 9) / 10);
+        List<Session> sessions = new ArrayList<>();
+        for (int i = 0; i < sessionCount; i++) {
+            int slot = i / VENUES.length;
+            Session s = new Session();
+            s.venue = VENUES[i % VENUES.length];
+            s.time = String.format("%02d:00", 9 + slot % 8);
+            s.date = dateAfter(slot / 8);
+            s.sessionType = TYPES[i % 2];
+            sessions.add(s);
+        }
+        int firstSession = nextId("sessions", "session_id");
+        saveInChunks(sessions, SessionRepository::saveAll);
+        sum.sessions = sessions.size();
+
+        // --- submissions, assignments, evaluations (streamed per chunk of students) ---
+        int nextSubmitId = nextId("submissions", "submit_id");
+        List<Submission> subs = new ArrayList<>();
+        List<Assignment> assigns = new ArrayList<>();
+        List<Evaluation> evals = new ArrayList<>();
+
+        for (int i = 1; i <= cfg.students; i++) {
+            String student = studentId(firstStudent + i);
+            double ability = 2.8 + rnd.nextGaussian() * 0.8;   // average rubric score 0-5
+            String topic = TOPICS[rnd.nextInt(TOPICS.length)];
+
+            for (int t = 0; t < 2; t++) {
+                String type = TYPES[t];
+
+                // 1 submission, sometimes a resubmission or two (only the latest is evaluated)
+                int count = 1 + (rnd.nextDouble() < 0.3 ? 1 : 0) + (rnd.nextDouble() < 0.1 ? 1 : 0);
+                int latestId = 0;
+                for (int k = 1; k <= count; k++) {
+                    Submission s = new Submission();
+                    s.title = topic + " " + (t == 0 ? "Study" : "Poster") + (k > 1 ? " v" + k : "") + " (" + student + ")";
+                    s.abstractText = "This project investigates " + topic.toLowerCase() + " using data collected during the term.";
+                    s.supervisor = "Dr. " + LAST[rnd.nextInt(LAST.length)];
+                    s.type = type;
+                    s.filepath = "";
+                    s.studentId = student;
+                    subs.add(s);
+                    latestId = nextSubmitId++;
+                }
+
+                // Session of the right type, then 2 or 3 distinct evaluators
+                int session = firstSession + 2 * rnd.nextInt(Math.max(1, sessionCount / 2)) + t;
+                if (session >= firstSession + sessionCount) session -= 2;
+                int evaluatorsHere = rnd.nextDouble() < 0.2 ? 3 : 2;
+                List<Integer> chosen = new ArrayList<>();
+                while (chosen.size() < Math.min(evaluatorsHere, cfg.evaluators)) {
+                    int e = pickWeighted(rnd, cumulative);
+                    if (!chosen.contains(e)) chosen.add(e);
+                }
+
+                for (int e : chosen) {
+                    assigns.add(new Assignment(session, student, evaluatorIds[e]));
+
+                    if (rnd.nextDouble() < 0.85) {
+                        Evaluation ev = new Evaluation();
+                        ev.evaluatorId = evaluatorIds[e];
+                        ev.submitId = latestId;
+                        ev.clarity = score(rnd, ability, harshness[e]);
+                        ev.methodology = score(rnd, ability, harshness[e]);
+                        ev.results = score(rnd, ability, harshness[e]);
+                        ev.presentation = score(rnd, ability, harshness[e]);
+                        ev.total = ev.clarity + ev.methodology + ev.results + ev.presentation;
+                        ev.comments = ev.total >= 15 ? "Excellent work" : ev.total >= 10 ? "Good effort" : "Needs improvement";
+                        evals.add(ev);
+                    }
+                }
+            }
+
+            // Submissions go first so evaluation foreign keys always point at existing rows
+            if (subs.size() >= CHUNK || i == cfg.students) {
+                SubmissionRepository.saveAll(subs);
+                AssignmentRepository.assignMany(assigns);
+                EvaluationRepository.saveAll(evals);
+                sum.submissions += subs.size();
+                sum.assignments += assigns.size();
+                sum.evaluations += evals.size();
+                subs.clear();
+                assigns.clear();
+                evals.clear();
+            }
+        }
+        return sum;
+    }
+
+    // One rubric score: student ability, minus evaluator harshness, plus noise, clamped to 0-5
+    private static int score(Random rnd, double ability, double harshness) {
+        long v = Math.round(ability - harshness + rnd.nextGaussian() * 0.7);
+        return (int) Math.max(0, Math.min(5, v));
+    }
+
+    // Evaluator number (1-based) drawn according to the running weight totals
+    private static int pickWeighted(Random rnd, double[] cumulative) {
+        double r = rnd.nextDouble() * cumulative[cumulative.length - 1];
+        int i = Arrays.binarySearch(cumulative, r);
+        if (i < 0) i = -i - 1;
+        return Math.min(i, cumulative.length - 1) + 1;
+    }
+
+    private static String name(Random rnd) {
+        return FIRST[rnd.nextInt(FIRST.length)] + " " + LAST[rnd.nextInt(LAST.length)];
+    }
+
+    // Seminar days start on 2026-03-02; the date advances one day per 8 hourly slots
+    private static String dateAfter(int days) {
+        return java.time.LocalDate.of(2026, 3, 2).plusDays(days).toString();
+    }
+
+    private static User user(String id, String username, String role) {
+        User u = new User();
+        u.userId = id;
+        u.username = username;
+        u.password = "123";
+        u.role = role;
+        return u;
+    }
+
+    // Highest number among the generated user ids with this prefix (studentId / evaluatorId), 0 if none.
+    // Only ids of at least `digits` digits count, so the default users (s001, e001) are left out.
+    private static int lastNumber(String prefix, int digits) throws SQLException {
+        String sql = "SELECT COALESCE(MAX(CAST(substr(user_id, ?) AS integer)), 0) FROM users "
+                   + "WHERE substr(user_id, 1, ?) = ? AND length(user_id) >= ? AND substr(user_id, ?) NOT GLOB '*[^0-9]*'";
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, prefix.length() + 1);
+            ps.setInt(2, prefix.length());
+            ps.setString(3, prefix);
+            ps.setInt(4, prefix.length() + digits);
+            ps.setInt(5, prefix.length() + 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    // ID the next AUTOINCREMENT insert will get, so references line up in a non-empty database.
+    // AUTOINCREMENT never reuses an id, even of deleted rows: the next one follows the table's
+    // sqlite_sequence row, which can be past MAX(id). That row is missing until the first insert.
+    private static int nextId(String table, String idColumn) throws SQLException {
+        String sql = "SELECT MAX(COALESCE((SELECT seq FROM sqlite_sequence WHERE name = ?), 0), "
+                   + "COALESCE((SELECT MAX(" + idColumn + ") FROM " + table + "), 0)) + 1";
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 1;
+            }
+        }
+    }
+
+    interface BatchSaver<T> {
+        void saveAll(List<T> rows) throws SQLException;
+    }
+
+    private static <T> void saveInChunks(List<T> rows, BatchSaver<T> saver) throws SQLException {
+        for (int from = 0; from < rows.size(); from += CHUNK) {
+            saver.saveAll(rows.subList(from, Math.min(from + CHUNK, rows.size())));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("Usage: java DataGenerator <db file> [students] [evaluators] [seed]");
+            return;
+        }
+
+        Config cfg = new Config();
+        if (args.length > 1) cfg.students = Integer.parseInt(args[1]);
+        if (args.length > 2) cfg.evaluators = Integer.parseInt(args[2]);
+        if (args.length > 3) cfg.seed = Long.parseLong(args[3]);
+
+        if (new File(args[0]).exists()) {
+            System.out.println("Note: " + args[0] + " already exists, rows will be added to it "
+                    + "(new students and evaluators are numbered after the existing ones).");
+        }
+
+        DatabaseHandler.useDatabase(args[0], DatabaseProfile.BULK_LOAD);
+        long start = System.currentTimeMillis();
+        Summary s = generate(cfg);
+        long ms = System.currentTimeMillis() - start;
+        DatabaseHandler.getPool().shutdown();
+
+        System.out.println("Generated " + s.totalRows() + " rows in " + ms + " ms (seed " + cfg.seed + "):");
+        System.out.println("  users=" + s.users + " sessions=" + s.sessions + " submissions=" + s.submissions
+                + " assignments=" + s.assignments + " evaluations=" + s.evaluations);
+    }
+}
@@ -0,0 +1,41 @@
+import java.sql.*;
+import java.util.Collections;
+
+// Write counters of the tables in table_versions (see migration 9). Every INSERT, UPDATE and
+// DELETE bumps its table's counter through a trigger, inside the writer's own transaction, so
+// a counter moves for writes from this process, another copy of the application or the
+// sqlite3 shell alike, and only once the write is committed.
+//
+// PRAGMA data_version was not used: it is per connection and ignores the connection's own
+// writes, so with a connection pool two readings from different connections cannot be compared.
+public class DataVersion {
+
+    // One number for a set of tables that changes whenever any of them is written.
+    // (Each counter only grows, so their sum grows whenever one does.)
+    public static long of(String... tables) throws SQLException {
+        try (Connection conn = DatabaseHandler.requireConnection()) {
+            return of(conn, tables);
+        }
+    }
+
+    static long of(Connection conn, String... tables) throws SQLException {
+        String marks = String.join(",", Collections.nCopies(tables.length, "?"));
+        String sql = "SELECT COALESCE(SUM(version), 0) FROM table_versions WHERE table_name IN (" + marks + ")";
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < tables.length; i++) ps.setString(i + 1, tables[i]);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    // For writes the triggers cannot see, e.g. rebuilding a table derived from this one
+    static void bump(Connection conn, String table) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "UPDATE table_versions SET version = version + 1 WHERE table_name = ?")) {
+            ps.setString(1, table);
+            ps.executeUpdate();
+        }
+    }
+}
@@ -1,107 +1,183 @@
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.*;
 
 public class DatabaseHandler {
-    // Ensure this matches your file location
-    private static final String URL = "jdbc:sqlite:seminar_system.db";
+    // Ensure this matches your file location (can be switched with useDatabase)
+    private static volatile String url = "jdbc:sqlite:seminar_system.db";
 
+    // Pool settings can be changed with -D system properties, e.g. -Dseminar.db.poolSize=8
+    private static final int POOL_SIZE = Integer.getInteger("seminar.db.poolSize", 4);
+    private static final long BORROW_TIMEOUT_MS = Long.getLong("seminar.db.borrowTimeoutMs", 10000L);
+    private static final long LEAK_THRESHOLD_MS = Long.getLong("seminar.db.leakThresholdMs", 30000L);
+    private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("seminar.db.statementCacheSize", 32);
+
+    // SQLite runtime profile (WAL, synchronous, cache...), e.g. -Dseminar.db.profile=bulk-load
+    private static DatabaseProfile profile = DatabaseProfile.fromSystemProperty();
+
+    private static ConnectionPool pool;
+
+    // What connect() / requireConnection() return on this thread instead of a pooled connection
+    // (see withConnection)
+    private static final ThreadLocal<Connection> pinned = new ThreadLocal<>();
+
+    // Shared pool, created on first use
+    public static synchronized ConnectionPool getPool() {
+        if (pool == null) {
+            pool = new ConnectionPool(url, profile, POOL_SIZE, BORROW_TIMEOUT_MS, LEAK_THRESHOLD_MS,
+                    STATEMENT_CACHE_SIZE);
+        }
+        return pool;
+    }
+
+    // Points the application at another database file (benchmarks, headless runs).
+    // The current pool is shut down; the next connect() opens the new file.
+    public static synchronized void useDatabase(String path, DatabaseProfile newProfile) {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+        url = "jdbc:sqlite:" + path;
+        profile = newProfile;
+    }
+
+    public static void useDatabase(String path) {
+        useDatabase(path, profile);
+    }
+
+    // Returns a pooled connection. Closing it gives it back to the pool.
     public static Connection connect() {
         Connection conn = null;
         try {
-            conn = DriverManager.getConnection(URL);
+            conn = borrow();
         } catch (SQLException e) {
             System.out.println("Connection Error: " + e.getMessage());
         }
         return conn;
     }
 
+    // Same as connect() but reports failure as an exception (used by the repositories)
+    public static Connection requireConnection() throws SQLException {
+        return borrow();
+    }
+
+    // Borrows from the pool; with instrumentation on (default) the acquire time is recorded
+    // and the connection reports every statement to QueryStats
+    private static Connection borrow() throws SQLException {
+        Connection own = pinned.get();
+        if (own != null) return own;
+        if (!QueryStats.ENABLED) return getPool().borrow();
+
+        long start = System.nanoTime();
+        Connection conn = getPool().borrow();
+        QueryStats.recordAcquire(System.nanoTime() - start);
+        return InstrumentedConnection.wrap(conn);
+    }
+
+    // A unit of database work that may throw SQLException
+    public interface SqlWork<T> {
+        T run(Connection conn) throws SQLException;
+    }
+
+    // Runs the work in one transaction on one connection: commit on success, rollback on error
+    public static <T> T inTransaction(SqlWork<T> work) throws SQLException {
+        try (Connection conn = requireConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                T result = work.run(conn);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    // Like inTransaction, for work that reads before it writes (check then insert or update).
+    // inTransaction starts DEFERRED: the transaction reads from a snapshot and only asks for the
+    // write lock at its first write, and under WAL that fails with SQLITE_BUSY_SNAPSHOT whenever
+    // another connection committed in between - an error busy_timeout does not wait out.
+    // BEGIN IMMEDIATE takes the write lock up front (waiting up to busy_timeout for it), so what
+    // the work reads cannot change before it writes.
+    // The JDBC connection stays in autocommit mode, so the pool cannot tell a transaction is
+    // open: whatever ends the work (an Error too, or a failed COMMIT) rolls back here, and a
+    // connection whose ROLLBACK fails is aborted rather than returned holding the write lock.
+    public static <T> T inWriteTransaction(SqlWork<T> work) throws SQLException {
+        try (Connection conn = requireConnection()) {
+            execute(conn, "BEGIN IMMEDIATE");
+            try {
+                T result = work.run(conn);
+                execute(conn, "COMMIT");
+                return result;
+            } catch (Throwable e) {
+                try {
+                    execute(conn, "ROLLBACK");
+                } catch (Throwable rollbackFailed) {
+                    e.addSuppressed(rollbackFailed);
+                    conn.abort(Runnable::run);
+                }
+                throw e;
+            }
+        }
+    }
+
+    private static void execute(Connection conn, String sql) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute(sql);
+        }
+    }
+
+    // Runs the work with every connect() / requireConnection() on this thread answered by conn,
+    // so code that opens its own connections (repositories, report builders) runs inside the
+    // caller's transaction. close(), abort(), commit(), rollback() and setAutoCommit() on what they
+    // get do nothing: conn and its transaction stay the caller's. Used by BatchExportJob to build
+    // reports on a read snapshot.
+    public static <T> T withConnection(Connection conn, SqlWork<T> work) throws SQLException {
+        Connection previous = pinned.get();
+        pinned.set((Connection) Proxy.newProxyInstance(
+                DatabaseHandler.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                        case "abort":
+                        case "commit":
+                        case "rollback":
+                        case "setAutoCommit":
+                            return null;
+                        default:
+                            try {
+                                return method.invoke(conn, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                    }
+                }));
+        try {
+            return work.run(conn);
+        } finally {
+            if (previous == null) pinned.remove();
+            else pinned.set(previous);
+        }
+    }
+
+    // Opens a fresh connection that bypasses the pool (used by PerfBenchmark for comparison)
+    public static Connection connectUnpooled() throws SQLException {
+        return DriverManager.getConnection(url);
+    }
+
+    // Brings the schema up to date (see SchemaMigrator) and seeds the default users
     public static void createNewTable() {
-        // 1. USERS TABLE
-        String sqlUsers = "CREATE TABLE IF NOT EXISTS users (\n"
-                + " user_id text PRIMARY KEY,\n"
-                + " username text NOT NULL UNIQUE,\n"
-                + " password text NOT NULL,\n"
-                + " role text NOT NULL\n"
-                + ");";
-
-        // 2. SUBMISSIONS TABLE (Existing)
-        String sqlStudents = "CREATE TABLE IF NOT EXISTS submissions (\n"
-                + " submit_id integer PRIMARY KEY AUTOINCREMENT,\n"
-                + " title text,\n"
-                + " abstract text,\n"
-                + " supervisor text,\n"
-                + " type text,\n"
-                + " filepath text,\n"
-                + " student_id text,\n"
-                + " FOREIGN KEY (student_id) REFERENCES users(user_id)\n"
-                + ");";
-
-        // --- NEW TABLES FOR MEMBER 2 (COORDINATOR) ---
-        
-        // 3. SESSIONS TABLE (Stores Date, Venue, Type)
-        String sqlSessions = "CREATE TABLE IF NOT EXISTS sessions (\n"
-                + " session_id integer PRIMARY KEY AUTOINCREMENT,\n"
-                + " date text,\n"
-                + " time text,\n"
-                + " venue text,\n"
-                + " session_type text\n" // Oral or Poster
-                + ");";
-
-        // 4. ASSIGNMENTS TABLE (Links Session, Student, and Evaluator)
-        String sqlAssignments = "CREATE TABLE IF NOT EXISTS assignments (\n"
-                + " assign_id integer PRIMARY KEY AUTOINCREMENT,\n"
-                + " session_id integer,\n"
-                + " student_id text,\n"
-                + " evaluator_id text,\n"
-                + " FOREIGN KEY (session_id) REFERENCES sessions(session_id),\n"
-                + " FOREIGN KEY (student_id) REFERENCES users(user_id),\n"
-                + " FOREIGN KEY (evaluator_id) REFERENCES users(user_id)\n"
-                + ");";
-
-        // 5. EVALUATIONS TABLE (Member 3)
-        String sqlEvaluations = "CREATE TABLE IF NOT EXISTS evaluations (\n"
-                + " eval_id integer PRIMARY KEY AUTOINCREMENT,\n"
-                + " evaluator_id text,\n"
-                + " submit_id integer,\n"
-                + " clarity integer,\n"
-                + " methodology integer,\n"
-                + " results integer,\n"
-                + " presentation integer,\n"
-                + " total real,\n"
-                + " comments text,\n"
-                + " FOREIGN KEY (evaluator_id) REFERENCES users(user_id),\n"
-                + " FOREIGN KEY (submit_id) REFERENCES submissions(submit_id)\n"
-                + ");";
-
-        // 6. AWARDS TABLE (Member 3)
-        String sqlAwards = "CREATE TABLE IF NOT EXISTS awards (\n"
-                + " award_id integer PRIMARY KEY AUTOINCREMENT,\n"
-                + " award_type text,\n"
-                + " submit_id integer,\n"
-                + " total real,\n"
-                + " FOREIGN KEY (submit_id) REFERENCES submissions(submit_id)\n"
-                + ");";
-
-        try (Connection conn = connect();
-             Statement stmt = conn.createStatement()) {
+        try (Connection conn = connect()) {
             if (conn != null) {
-                // Execute existing tables
-                stmt.execute(sqlUsers);
-                stmt.execute(sqlStudents);
-                
-                // Execute NEW tables
-                stmt.execute(sqlSessions);
-                stmt.execute(sqlAssignments);
-                stmt.execute(sqlEvaluations);
-                stmt.execute(sqlAwards);
-                
-                // Ensure each evaluator can only be assigned once per student per session
-                stmt.execute(
-                    "CREATE UNIQUE INDEX IF NOT EXISTS uq_assign_multi_eval " +
-                    "ON assignments(session_id, student_id, evaluator_id)"
-                );
-
-                System.out.println("Tables checked/created successfully.");
-                
+                int applied = SchemaMigrator.migrate(conn);
+                if (applied > 0) {
+                    System.out.println("Tables checked/created successfully.");
+                }
+
                 insertDefaultUser(conn);
             }
         } catch (SQLException e) {
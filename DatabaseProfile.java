@@ -0,0 +1,70 @@
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Named SQLite runtime settings applied to every connection DatabaseHandler opens.
+// Select one with -Dseminar.db.profile=interactive | bulk-load | read-only-reporting
+public enum DatabaseProfile {
+
+    // Default for the Swing app: WAL lets readers and the writer work at the same time,
+    // NORMAL sync is safe in WAL mode and much cheaper than FULL
+    INTERACTIVE("interactive", "WAL", "NORMAL", -8000, 64L * 1024 * 1024, "MEMORY", 5000),
+
+    // Loading lots of rows (e.g. test data); durability is traded for speed
+    BULK_LOAD("bulk-load", "WAL", "OFF", -64000, 256L * 1024 * 1024, "MEMORY", 30000),
+
+    // Long report queries: bigger cache and memory map, patient busy timeout
+    READ_ONLY_REPORTING("read-only-reporting", "WAL", "NORMAL", -32000, 256L * 1024 * 1024, "MEMORY", 15000);
+
+    private final String name;
+    private final String journalMode;
+    private final String synchronous;
+    private final int cacheSize;       // negative = size in KiB, positive = pages
+    private final long mmapSize;       // bytes
+    private final String tempStore;
+    private final int busyTimeoutMs;
+
+    DatabaseProfile(String name, String journalMode, String synchronous, int cacheSize,
+                    long mmapSize, String tempStore, int busyTimeoutMs) {
+        this.name = name;
+        this.journalMode = journalMode;
+        this.synchronous = synchronous;
+        this.cacheSize = cacheSize;
+        this.mmapSize = mmapSize;
+        this.tempStore = tempStore;
+        this.busyTimeoutMs = busyTimeoutMs;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Applies every PRAGMA of this profile to a freshly opened connection
+    public void apply(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            // busy_timeout first so the journal_mode switch waits instead of failing
+            st.execute("PRAGMA busy_timeout = " + busyTimeoutMs);
+            st.execute("PRAGMA journal_mode = " + journalMode);
+            st.execute("PRAGMA synchronous = " + synchronous);
+            st.execute("PRAGMA cache_size = " + cacheSize);
+            st.execute("PRAGMA mmap_size = " + mmapSize);
+            st.execute("PRAGMA temp_store = " + tempStore);
+        }
+    }
+
+    // Looks up a profile by its name; unknown names fall back to INTERACTIVE
+    public static DatabaseProfile fromName(String name) {
+        if (name != null) {
+            for (DatabaseProfile p : values()) {
+                if (p.name.equalsIgnoreCase(name.trim())) return p;
+            }
+            System.out.println("Unknown database profile '" + name + "', using interactive.");
+        }
+        return INTERACTIVE;
+    }
+
+    // Profile chosen with -Dseminar.db.profile
+    public static DatabaseProfile fromSystemProperty() {
+        return fromName(System.getProperty("seminar.db.profile"));
+    }
+}
@@ -0,0 +1,111 @@
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+
+// Hidden diagnostics window with the QueryStats numbers.
+// Not on any menu: press Ctrl+Shift+D in any window of the application to open it.
+public class DiagnosticsWindow extends JFrame {
+
+    private static DiagnosticsWindow instance;
+    private static boolean hotkeyInstalled = false;
+
+    private final DefaultTableModel model = new DefaultTableModel(
+            new String[]{"Calls", "Rows", "Errors", "Total ms", "p50 ms", "p95 ms", "p99 ms", "Max ms", "SQL"}, 0) {
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            return false;
+        }
+    };
+    private final JLabel acquireLabel = new JLabel();
+
+    private DiagnosticsWindow() {
+        super("Diagnostics - Query Statistics");
+
+        setDefaultCloseOperation(HIDE_ON_CLOSE);
+        setSize(1100, 500);
+        setLocationRelativeTo(null);
+        setLayout(new BorderLayout());
+
+        acquireLabel.setBorder(BorderFactory.createEmptyBorder(8, 10, 8, 10));
+        add(acquireLabel, BorderLayout.NORTH);
+
+        JTable table = new JTable(model);
+        table.setAutoResizeMode(JTable.AUTO_RESIZE_LAST_COLUMN);
+        table.getColumnModel().getColumn(8).setPreferredWidth(500);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+
+        JPanel btnPanel = new JPanel();
+        JButton refreshBtn = new JButton("Refresh");
+        JButton dumpBtn = new JButton("Dump to File...");
+        JButton resetBtn = new JButton("Reset");
+        btnPanel.add(refreshBtn);
+        btnPanel.add(dumpBtn);
+        btnPanel.add(resetBtn);
+        add(btnPanel, BorderLayout.SOUTH);
+
+        refreshBtn.addActionListener(e -> refresh());
+        dumpBtn.addActionListener(e -> dump());
+        resetBtn.addActionListener(e -> {
+            QueryStats.reset();
+            refresh();
+        });
+    }
+
+    // Opens (or brings to front) the single diagnostics window
+    public static void open() {
+        if (instance == null) instance = new DiagnosticsWindow();
+        instance.refresh();
+        instance.setVisible(true);
+        instance.toFront();
+    }
+
+    // Registers Ctrl+Shift+D for the whole application (call once from main)
+    public static void installHotkey() {
+        if (hotkeyInstalled) return;
+        hotkeyInstalled = true;
+
+        KeyboardFocusManager.getCurrentKeyboardFocusManager().addKeyEventDispatcher(e -> {
+            if (e.getID() == KeyEvent.KEY_PRESSED && e.getKeyCode() == KeyEvent.VK_D
+                    && e.isControlDown() && e.isShiftDown()) {
+                open();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private void refresh() {
+        acquireLabel.setText(QueryStats.ENABLED
+                ? QueryStats.acquireSummary()
+                : "Instrumentation is off (-Dseminar.db.instrument=false)");
+
+        model.setRowCount(0);
+        for (QueryStatsRow r : QueryStats.snapshot()) {
+            model.addRow(new Object[]{
+                    r.calls, r.rows, r.errors,
+                    String.format("%.1f", r.totalMs),
+                    String.format("%.3f", r.p50Ms),
+                    String.format("%.3f", r.p95Ms),
+                    String.format("%.3f", r.p99Ms),
+                    String.format("%.3f", r.maxMs),
+                    r.sql});
+        }
+    }
+
+    private void dump() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new java.io.File("query-stats.txt"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+        String path = chooser.getSelectedFile().getPath();
+        try {
+            QueryStats.dump(path);
+            JOptionPane.showMessageDialog(this, "Saved to " + path);
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Could not save: " + ex.getMessage(),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
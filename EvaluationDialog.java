@@ -1,5 +1,7 @@
 import java.awt.*;
-import java.sql.*;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import javax.swing.*;
 
 // EvaluationDialog allows an evaluator to score an assigned submission
@@ -9,14 +11,18 @@ public class EvaluationDialog extends JDialog {
     private String evaluatorId; // logged-in evaluator ID
     private int submitId;       // submission being evaluated
 
-    // Rubric score inputs
-    private JSpinner clarity;
-    private JSpinner methodology;
-    private JSpinner results;
-    private JSpinner presentation;
+    // Rubric of the submission's type and one score input per criterion (code -> spinner),
+    // both filled in once the rubric is loaded
+    private Rubric rubric;
+    private final Map<String, JSpinner> scoreInputs = new LinkedHashMap<>();
+    private final JPanel form = new JPanel(new GridBagLayout());
+    private JButton saveBtn;
 
     private JTextArea comments; // qualitative feedback
 
+    // Runs database work off the EDT and shows progress
+    private final UiTaskRunner tasks = new UiTaskRunner(this);
+
     public EvaluationDialog(Frame owner, String evaluatorId, int submitId, String studentName, String title) {
         super(owner, "Evaluate: " + studentName, true);
         this.evaluatorId = evaluatorId;
@@ -31,179 +37,132 @@ public class EvaluationDialog extends JDialog {
         header.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
         add(header, BorderLayout.NORTH);
 
-        // Form layout for evaluation rubric
-        JPanel form = new JPanel(new GridLayout(6, 2, 10, 10));
+        // Form layout for evaluation rubric; the criteria rows are added when the rubric is loaded
         form.setBorder(BorderFactory.createEmptyBorder(10, 15, 10, 15));
-
-        // Score spinners (0–5 scale)
-        clarity = spinner0to5();
-        methodology = spinner0to5();
-        results = spinner0to5();
-        presentation = spinner0to5();
-
-        form.add(new JLabel("Problem Clarity (0-5):"));
-        form.add(clarity);
-
-        form.add(new JLabel("Methodology (0-5):"));
-        form.add(methodology);
-
-        form.add(new JLabel("Results (0-5):"));
-        form.add(results);
-
-        form.add(new JLabel("Presentation (0-5):"));
-        form.add(presentation);
-
-        form.add(new JLabel("Comments:"));
         comments = new JTextArea(5, 20);
         comments.setLineWrap(true);
         comments.setWrapStyleWord(true);
-        form.add(new JScrollPane(comments));
-
-        add(form, BorderLayout.CENTER);
+        add(new JScrollPane(form), BorderLayout.CENTER);
 
         // Action buttons
         JPanel btn = new JPanel();
-        JButton saveBtn = new JButton("Save / Update");
+        saveBtn = new JButton("Save / Update");
+        saveBtn.setEnabled(false);
         JButton cancelBtn = new JButton("Cancel");
         btn.add(saveBtn);
         btn.add(cancelBtn);
+        btn.add(tasks.getProgressBar());
         add(btn, BorderLayout.SOUTH);
 
         cancelBtn.addActionListener(e -> dispose());
         saveBtn.addActionListener(e -> saveOrUpdate());
 
-        // Load existing evaluation if evaluator has already evaluated this submission
-        loadExistingIfAny();
+        // Load the rubric, then the existing evaluation if evaluator has already evaluated this submission
+        loadRubric();
     }
 
-    // Spinner model with values from 0 to 5 (inclusive)
-    private JSpinner spinner0to5() {
-        return new JSpinner(new SpinnerNumberModel(0, 0, 5, 1));
+    private void loadRubric() {
+        tasks.run(() -> RubricRepository.findForSubmission(submitId),
+                loaded -> {
+                    rubric = loaded;
+                    buildForm();
+                    saveBtn.setEnabled(!rubric.isEmpty());
+                    loadExistingIfAny();
+                },
+                ex -> JOptionPane.showMessageDialog(this, "Database Error: " + ex.getMessage()));
     }
 
     // Load previous evaluation to support update instead of duplicate insert
     private void loadExistingIfAny() {
-        String sql = "SELECT clarity, methodology, results, presentation, comments " +
-                     "FROM evaluations WHERE evaluator_id = ? AND submit_id = ?";
-
-        try (Connection conn = DatabaseHandler.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, evaluatorId);
-            ps.setInt(2, submitId);
-            ResultSet rs = ps.executeQuery();
+        tasks.run(() -> EvaluationRepository.find(evaluatorId, submitId),
+                existing -> {
+                    if (existing != null) {
+                        for (Map.Entry<String, Integer> s : existing.scores.entrySet()) {
+                            JSpinner input = scoreInputs.get(s.getKey());
+                            if (input != null) input.setValue(s.getValue());
+                        }
+                        comments.setText(existing.comments);
+                    }
+                },
+                ex -> JOptionPane.showMessageDialog(this, "Database Error: " + ex.getMessage()));
+    }
 
-            if (rs.next()) {
-                clarity.setValue(rs.getInt("clarity"));
-                methodology.setValue(rs.getInt("methodology"));
-                results.setValue(rs.getInt("results"));
-                presentation.setValue(rs.getInt("presentation"));
-                comments.setText(rs.getString("comments"));
-            }
+    // One row per criterion: "Label (min-max, weight w):" and a spinner over its range
+    private void buildForm() {
+        GridBagConstraints gc = new GridBagConstraints();
+        gc.insets = new Insets(5, 5, 5, 5);
+        gc.anchor = GridBagConstraints.WEST;
+        gc.gridy = 0;
 
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Database Error: " + ex.getMessage());
+        if (rubric.isEmpty()) {
+            form.add(new JLabel("No rubric is defined for this submission type."), gc);
         }
-    }
-
-    // Save a new evaluation or update existing one
-    private void saveOrUpdate() {
-        int c = (int) clarity.getValue();
-        int m = (int) methodology.getValue();
-        int r = (int) results.getValue();
-        int p = (int) presentation.getValue();
-        String com = comments.getText();
-
-        // Total score is calculated as simple sum (0–20)
-        double total = c + m + r + p;
-
-        // Authorization check: evaluator must be assigned to this submission
-        if (!isAuthorized()) {
-            JOptionPane.showMessageDialog(this, "Not authorized to evaluate this submission.", "Error",
-                    JOptionPane.ERROR_MESSAGE);
-            return;
+        for (RubricCriterion c : rubric.getCriteria()) {
+            JSpinner input = new JSpinner(new SpinnerNumberModel(c.minScore, c.minScore, c.maxScore, 1));
+            scoreInputs.put(c.code, input);
+
+            gc.gridx = 0;
+            gc.fill = GridBagConstraints.NONE;
+            form.add(new JLabel(c.label + " (" + c.minScore + "-" + c.maxScore
+                    + (c.weight == 1 ? "" : ", weight " + c.weight) + "):"), gc);
+            gc.gridx = 1;
+            gc.fill = GridBagConstraints.HORIZONTAL;
+            form.add(input, gc);
+            gc.gridy++;
         }
 
-        // Update existing evaluation if present
-        if (existsEvaluation()) {
-            String sql = "UPDATE evaluations SET clarity=?, methodology=?, results=?, presentation=?, total=?, comments=? " +
-                         "WHERE evaluator_id=? AND submit_id=?";
-
-            try (Connection conn = DatabaseHandler.connect();
-                 PreparedStatement ps = conn.prepareStatement(sql)) {
-
-                ps.setInt(1, c);
-                ps.setInt(2, m);
-                ps.setInt(3, r);
-                ps.setInt(4, p);
-                ps.setDouble(5, total);
-                ps.setString(6, com);
-                ps.setString(7, evaluatorId);
-                ps.setInt(8, submitId);
-
-                ps.executeUpdate();
-                JOptionPane.showMessageDialog(this, "Evaluation updated! Total = " + total);
-                dispose();
-
-            } catch (SQLException ex) {
-                JOptionPane.showMessageDialog(this, "Database Error: " + ex.getMessage());
-            }
-
-        } else {
-            // Insert new evaluation record
-            String sql = "INSERT INTO evaluations(evaluator_id, submit_id, clarity, methodology, results, presentation, total, comments) " +
-                         "VALUES(?,?,?,?,?,?,?,?)";
-
-            try (Connection conn = DatabaseHandler.connect();
-                 PreparedStatement ps = conn.prepareStatement(sql)) {
-
-                ps.setString(1, evaluatorId);
-                ps.setInt(2, submitId);
-                ps.setInt(3, c);
-                ps.setInt(4, m);
-                ps.setInt(5, r);
-                ps.setInt(6, p);
-                ps.setDouble(7, total);
-                ps.setString(8, com);
-
-                ps.executeUpdate();
-                JOptionPane.showMessageDialog(this, "Evaluation saved! Total = " + total);
-                dispose();
-
-            } catch (SQLException ex) {
-                JOptionPane.showMessageDialog(this, "Database Error: " + ex.getMessage());
-            }
-        }
+        gc.gridx = 0;
+        gc.fill = GridBagConstraints.NONE;
+        gc.anchor = GridBagConstraints.NORTHWEST;
+        form.add(new JLabel("Comments:"), gc);
+        gc.gridx = 1;
+        gc.fill = GridBagConstraints.BOTH;
+        gc.weightx = 1;
+        form.add(new JScrollPane(comments), gc);
+
+        form.revalidate();
+        form.repaint();
     }
 
-    // Check if evaluation already exists for this evaluator and submission
-    private boolean existsEvaluation() {
-        String sql = "SELECT count(*) FROM evaluations WHERE evaluator_id=? AND submit_id=?";
-        try (Connection conn = DatabaseHandler.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, evaluatorId);
-            ps.setInt(2, submitId);
-            ResultSet rs = ps.executeQuery();
-            return rs.next() && rs.getInt(1) > 0;
-        } catch (SQLException ex) {
-            return false;
+    // Save a new evaluation or update existing one
+    private void saveOrUpdate() {
+        Evaluation ev = new Evaluation();
+        ev.evaluatorId = evaluatorId;
+        ev.submitId = submitId;
+        for (Map.Entry<String, JSpinner> s : scoreInputs.entrySet()) {
+            ev.scores.put(s.getKey(), (Integer) s.getValue().getValue());
         }
+        ev.comments = comments.getText();
+
+        // Weighted total on the 0-20 scale; the repository computes the same when saving
+        double total = rubric.total(ev.scores);
+
+        // Checks and the write run in the background; the answer says what happened
+        tasks.run(() -> {
+                    // Authorization check: evaluator must be assigned to this submission
+                    if (!isAuthorized()) return "unauthorized";
+
+                    // Update existing evaluation if present, otherwise insert a new record.
+                    // Runs as one transaction together with the submission's score totals.
+                    return EvaluationRepository.saveOrUpdate(ev) ? "updated" : "saved";
+                },
+                outcome -> {
+                    if ("unauthorized".equals(outcome)) {
+                        JOptionPane.showMessageDialog(this, "Not authorized to evaluate this submission.", "Error",
+                                JOptionPane.ERROR_MESSAGE);
+                        return;
+                    }
+                    JOptionPane.showMessageDialog(this, ("updated".equals(outcome) ? "Evaluation updated!" : "Evaluation saved!")
+                            + " Total = " + total);
+                    dispose();
+                },
+                ex -> JOptionPane.showMessageDialog(this, "Database Error: " + ex.getMessage()));
     }
 
     // Ensure evaluator is assigned to the student owning this submission
     private boolean isAuthorized() {
-        String sql =
-            "SELECT count(*) " +
-            "FROM assignments a " +
-            "JOIN submissions s ON s.student_id = a.student_id " +
-            "WHERE a.evaluator_id = ? AND s.submit_id = ?";
-
-        try (Connection conn = DatabaseHandler.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, evaluatorId);
-            ps.setInt(2, submitId);
-            ResultSet rs = ps.executeQuery();
-            return rs.next() && rs.getInt(1) > 0;
+        try {
+            return AssignmentRepository.isEvaluatorAssigned(evaluatorId, submitId);
         } catch (SQLException ex) {
             return false;
         }
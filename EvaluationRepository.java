@@ -0,0 +1,332 @@
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Simple data holder for a row of the evaluations table
+class Evaluation {
+    public int evalId;
+    public String evaluatorId;
+    public int submitId;
+    public int clarity;        // the four original criteria, kept filled from scores
+    public int methodology;
+    public int results;
+    public int presentation;
+    public double total;       // weighted total under the submission type's Rubric, set on save
+    public String comments;
+    public Map<String, Integer> scores = new LinkedHashMap<>();   // criterion code -> score
+}
+
+// One line of the Final Evaluation Report
+class EvaluationDetail {
+    public int evalId;
+    public int submitId;
+    public String studentName;
+    public String title;
+    public Map<String, Integer> scores = Map.of();   // criterion code -> score
+    public double total;
+    public String comments;
+    public double average;     // the submission's average over all its evaluations
+}
+
+// All SQL for the evaluations table
+public class EvaluationRepository {
+
+    // SQLite limits the number of ? in one statement, so large ID lists are split
+    private static final int IN_CHUNK = 500;
+
+    // The evaluation one evaluator gave one submission, or null if none yet
+    public static Evaluation find(String evaluatorId, int submitId) throws SQLException {
+        String sql = "SELECT eval_id, evaluator_id, submit_id, clarity, methodology, results, presentation, total, comments " +
+                     "FROM evaluations WHERE evaluator_id = ? AND submit_id = ?";
+
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, evaluatorId);
+            ps.setInt(2, submitId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    Evaluation e = new Evaluation();
+                    e.evalId = rs.getInt("eval_id");
+                    e.evaluatorId = rs.getString("evaluator_id");
+                    e.submitId = rs.getInt("submit_id");
+                    e.clarity = rs.getInt("clarity");
+                    e.methodology = rs.getInt("methodology");
+                    e.results = rs.getInt("results");
+                    e.presentation = rs.getInt("presentation");
+                    e.total = rs.getDouble("total");
+                    e.comments = rs.getString("comments");
+                    e.scores = findScores(conn, e.evalId);
+                    return e;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Scores of one evaluation by criterion code, in rubric order
+    private static Map<String, Integer> findScores(Connection conn, int evalId) throws SQLException {
+        String sql = "SELECT c.code, es.score FROM evaluation_scores es " +
+                     "JOIN rubric_criteria c ON c.criterion_id = es.criterion_id " +
+                     "WHERE es.eval_id = ? ORDER BY c.position";
+        Map<String, Integer> scores = new LinkedHashMap<>();
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, evalId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) scores.put(rs.getString(1), rs.getInt(2));
+            }
+        }
+        return scores;
+    }
+
+    public static boolean exists(String evaluatorId, int submitId) throws SQLException {
+        String sql = "SELECT count(*) FROM evaluations WHERE evaluator_id=? AND submit_id=?";
+
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, evaluatorId);
+            ps.setInt(2, submitId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    // Every write below also updates submission_scores and evaluator_stats in the same transaction.
+    // The total is computed here from the scores with the submission type's Rubric (callers that
+    // only fill clarity..presentation get those as scores), and the scores go to evaluation_scores.
+
+    // The public saves below also report the change to the Leaderboard after committing. They
+    // read (rubric, current total) before writing, so they run in DatabaseHandler.inWriteTransaction.
+
+    public static void insert(Evaluation e) throws SQLException {
+        long version = DatabaseHandler.inWriteTransaction(conn -> {
+            insert(conn, e);
+            return Leaderboard.versionForSave(conn);
+        });
+        Leaderboard.evaluationSaved(e.submitId, version);
+    }
+
+    // Insert on a caller's connection (so it can be part of a larger transaction)
+    static void insert(Connection conn, Evaluation e) throws SQLException {
+        Rubric rubric = RubricRepository.findForSubmission(conn, e.submitId);
+        rubric.prepare(e);
+
+        String sql = "INSERT INTO evaluations(evaluator_id, submit_id, clarity, methodology, results, presentation, total, comments) " +
+                     "VALUES(?,?,?,?,?,?,?,?)";
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            bindInsert(ps, e);
+            ps.executeUpdate();
+        }
+        e.evalId = SubmissionRepository.lastInsertId(conn);
+        RubricRepository.saveScores(conn, List.of(e), List.of(rubric));
+        ScoreRepository.addEvaluation(conn, e.submitId, e.total);
+        EvaluatorStatsRepository.addEvaluation(conn, e.evaluatorId, e.total);
+    }
+
+    public static void update(Evaluation e) throws SQLException {
+        long version = DatabaseHandler.inWriteTransaction(conn ->
+                update(conn, e) ? Leaderboard.versionForSave(conn) : -1L);
+        Leaderboard.evaluationSaved(e.submitId, version);
+    }
+
+    // Update on a caller's connection (matched by evaluator + submission).
+    // Returns false when there was no evaluation to update.
+    static boolean update(Connection conn, Evaluation e) throws SQLException {
+        Evaluation old = findIdAndTotal(conn, e.evaluatorId, e.submitId);
+        if (old == null) return false;
+        double oldTotal = old.total;
+
+        Rubric rubric = RubricRepository.findForSubmission(conn, e.submitId);
+        rubric.prepare(e);
+
+        String sql = "UPDATE evaluations SET clarity=?, methodology=?, results=?, presentation=?, total=?, comments=? " +
+                     "WHERE evaluator_id=? AND submit_id=?";
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, e.clarity);
+            ps.setInt(2, e.methodology);
+            ps.setInt(3, e.results);
+            ps.setInt(4, e.presentation);
+            ps.setDouble(5, e.total);
+            ps.setString(6, e.comments);
+            ps.setString(7, e.evaluatorId);
+            ps.setInt(8, e.submitId);
+            ps.executeUpdate();
+        }
+        e.evalId = old.evalId;
+        RubricRepository.saveScores(conn, List.of(e), List.of(rubric));
+        ScoreRepository.regrade(conn, e.submitId, oldTotal, e.total);
+        EvaluatorStatsRepository.regrade(conn, e.evaluatorId, oldTotal, e.total);
+        return true;
+    }
+
+    // Re-grade if this evaluator already evaluated the submission, otherwise insert.
+    // One transaction that holds the write lock from the start, so no other save can commit
+    // between the check and the write. Returns true for a re-grade.
+    public static boolean saveOrUpdate(Evaluation e) throws SQLException {
+        long[] version = new long[1];
+        boolean regraded = DatabaseHandler.inWriteTransaction(conn -> {
+            boolean updated = update(conn, e);
+            if (!updated) insert(conn, e);
+            version[0] = Leaderboard.versionForSave(conn);
+            return updated;
+        });
+        Leaderboard.evaluationSaved(e.submitId, version[0]);
+        return regraded;
+    }
+
+    // Id and current total of one evaluation on the caller's connection, or null if none
+    private static Evaluation findIdAndTotal(Connection conn, String evaluatorId, int submitId) throws SQLException {
+        String sql = "SELECT eval_id, total FROM evaluations WHERE evaluator_id = ? AND submit_id = ?";
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, evaluatorId);
+            ps.setInt(2, submitId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return null;
+                Evaluation e = new Evaluation();
+                e.evalId = rs.getInt(1);
+                e.total = rs.getDouble(2);
+                return e;
+            }
+        }
+    }
+
+    // Batch insert in one transaction, holding the write lock while the rubrics are read
+    public static void saveAll(List<Evaluation> evaluations) throws SQLException {
+        String sql = "INSERT INTO evaluations(evaluator_id, submit_id, clarity, methodology, results, presentation, total, comments) " +
+                     "VALUES(?,?,?,?,?,?,?,?)";
+
+        DatabaseHandler.inWriteTransaction(conn -> {
+            Map<String, Rubric> byType = RubricRepository.findAll(conn);
+            Map<Integer, String> types = findSubmissionTypes(conn, evaluations);
+            Rubric none = new Rubric(null, List.of());
+            List<Rubric> rubrics = new ArrayList<>(evaluations.size());
+            for (Evaluation e : evaluations) {
+                Rubric rubric = byType.getOrDefault(types.get(e.submitId), none);
+                rubric.prepare(e);
+                rubrics.add(rubric);
+            }
+
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (Evaluation e : evaluations) {
+                    bindInsert(ps, e);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            // This transaction holds the write lock, so the batch got consecutive ids ending at the last one
+            int firstId = SubmissionRepository.lastInsertId(conn) - evaluations.size() + 1;
+            for (int i = 0; i < evaluations.size(); i++) evaluations.get(i).evalId = firstId + i;
+            RubricRepository.saveScores(conn, evaluations, rubrics);
+            ScoreRepository.addEvaluations(conn, evaluations);
+            EvaluatorStatsRepository.addEvaluations(conn, evaluations);
+            return null;
+        });
+    }
+
+    // Type of each submission the evaluations are for, looked up by primary key (chunked like
+    // SubmissionRepository.findByIds), so a small batch does not read the whole table
+    private static Map<Integer, String> findSubmissionTypes(Connection conn, List<Evaluation> evaluations)
+            throws SQLException {
+        Set<Integer> distinct = new LinkedHashSet<>();
+        for (Evaluation e : evaluations) distinct.add(e.submitId);
+        List<Integer> ids = new ArrayList<>(distinct);
+
+        Map<Integer, String> types = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += IN_CHUNK) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + IN_CHUNK, ids.size()));
+            String marks = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            String sql = "SELECT submit_id, type FROM submissions WHERE submit_id IN (" + marks + ")";
+
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) ps.setInt(i + 1, chunk.get(i));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) types.put(rs.getInt(1), rs.getString(2));
+                }
+            }
+        }
+        return types;
+    }
+
+    private static void bindInsert(PreparedStatement ps, Evaluation e) throws SQLException {
+        ps.setString(1, e.evaluatorId);
+        ps.setInt(2, e.submitId);
+        ps.setInt(3, e.clarity);
+        ps.setInt(4, e.methodology);
+        ps.setInt(5, e.results);
+        ps.setInt(6, e.presentation);
+        ps.setDouble(7, e.total);
+        ps.setString(8, e.comments);
+    }
+
+    // Receives the rows of scanDetails one at a time
+    public interface DetailVisitor {
+        void visit(EvaluationDetail d);
+    }
+
+    // Every evaluation with student, title and criterion scores, best total first (Final Evaluation Report)
+    public static List<EvaluationDetail> findAllDetails() throws SQLException {
+        List<EvaluationDetail> list = new ArrayList<>();
+        scanDetails(list::add);
+        return list;
+    }
+
+    // Same rows as findAllDetails, streamed to the visitor instead of collected into a list.
+    // The scores come with each row as "criterionId:score,..." so nothing is held per evaluation.
+    public static void scanDetails(DetailVisitor visitor) throws SQLException {
+        String sql =
+            "SELECT e.eval_id, e.submit_id, stu.username AS student_name, sub.title, e.total, e.comments, " +
+            "sc.sum_total / sc.eval_count AS avg_total, " +
+            "(SELECT group_concat(es.criterion_id || ':' || es.score) FROM evaluation_scores es " +
+            " WHERE es.eval_id = e.eval_id) AS scores " +
+            "FROM evaluations e " +
+            "JOIN submissions sub ON sub.submit_id = e.submit_id " +
+            "JOIN users stu ON stu.user_id = sub.student_id " +
+            "LEFT JOIN submission_scores sc ON sc.submit_id = e.submit_id " +
+            "ORDER BY e.total DESC";
+
+        try (Connection conn = DatabaseHandler.requireConnection()) {
+            Map<Integer, String> codes = new HashMap<>();   // criterion_id -> code
+            for (Rubric rubric : RubricRepository.findAll(conn).values()) {
+                for (RubricCriterion c : rubric.getCriteria()) codes.put(c.criterionId, c.code);
+            }
+
+            try (PreparedStatement ps = conn.prepareStatement(sql);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    EvaluationDetail d = new EvaluationDetail();
+                    d.evalId = rs.getInt("eval_id");
+                    d.submitId = rs.getInt("submit_id");
+                    d.studentName = rs.getString("student_name");
+                    d.title = rs.getString("title");
+                    d.scores = parseScores(rs.getString("scores"), codes);
+                    d.total = rs.getDouble("total");
+                    d.comments = rs.getString("comments");
+                    d.average = rs.getDouble("avg_total");
+                    visitor.visit(d);
+                }
+            }
+        }
+    }
+
+    private static Map<String, Integer> parseScores(String packed, Map<Integer, String> codes) {
+        if (packed == null) return Map.of();
+        Map<String, Integer> scores = new HashMap<>();
+        for (String pair : packed.split(",")) {
+            int colon = pair.indexOf(':');
+            String code = codes.get(Integer.parseInt(pair.substring(0, colon)));
+            if (code != null) scores.put(code, Integer.parseInt(pair.substring(colon + 1)));
+        }
+        return scores;
+    }
+}
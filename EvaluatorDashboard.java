@@ -1,7 +1,9 @@
 import java.awt.*;
 import java.awt.event.*;
 import java.io.File;
-import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;    // Used for displaying tabular data in JTable
 
@@ -21,6 +23,9 @@ public class EvaluatorDashboard extends JFrame {
     // Table model backing the JTable
     private DefaultTableModel model;
 
+    // Runs database work off the EDT and shows progress
+    private final UiTaskRunner tasks = new UiTaskRunner(this);
+
     // Constructor initializes the evaluator dashboard UI
     public EvaluatorDashboard(String evaluatorId, String evaluatorName) {
         super("Evaluator Dashboard - " + evaluatorName);
@@ -69,7 +74,7 @@ public class EvaluatorDashboard extends JFrame {
         // Define table columns for assigned submissions (KEEP ORIGINAL)
         String[] cols = {
             "Submit ID", "Student ID", "Student Name",
-            "Title", "Research Abstract", "Type", "Status", "My Score", "File Path"
+            "Title", "Research Abstract", "Type", "Status", "My Score", "Rank in Type", "File Path"
         };
 
         // Initialize table model with non-editable cells (KEEP ORIGINAL)
@@ -105,6 +110,7 @@ public class EvaluatorDashboard extends JFrame {
         btnPanel.add(viewFileBtn);
         btnPanel.add(evaluateBtn);
         btnPanel.add(refreshBtn);
+        btnPanel.add(tasks.getProgressBar());
         add(btnPanel, BorderLayout.SOUTH);
 
         // Reload assigned submissions from database
@@ -123,55 +129,30 @@ public class EvaluatorDashboard extends JFrame {
 
     // Loads all submissions assigned to the current evaluator
     private void loadAssigned() {
-        model.setRowCount(0); // Clear existing table rows
-
-        // SQL query retrieves assigned submissions along with evaluation status and score (KEEP ORIGINAL)
-        String sql =
-            "SELECT s.submit_id, u.user_id AS student_id, u.username AS student_name, " +
-            "       s.title, s.abstract, s.type, s.filepath, " +
-            "       CASE WHEN e.eval_id IS NULL THEN 'Not Evaluated' ELSE 'Evaluated' END AS status, " +
-            "       COALESCE(e.total, '-') AS my_total " +
-            "FROM assignments a " +
-            "JOIN sessions sess ON sess.session_id = a.session_id " +
-            "JOIN users u ON a.student_id = u.user_id " +
-            // Only pick the latest submission for that student + session type
-            "JOIN submissions s ON s.submit_id = ( " +
-            "    SELECT MAX(s2.submit_id) " +
-            "    FROM submissions s2 " +
-            "    WHERE s2.student_id = u.user_id " +
-            "      AND s2.type = sess.session_type " +
-            ") "  +
-            "LEFT JOIN evaluations e ON e.submit_id = s.submit_id AND e.evaluator_id = a.evaluator_id " +
-            "WHERE a.evaluator_id = ? " +
-            "ORDER BY s.submit_id DESC;";
-
-        try (Connection conn = DatabaseHandler.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, evaluatorId);
-            ResultSet rs = ps.executeQuery();
-
-            // Populate table with query results
-            while (rs.next()) {
-                int submitId = rs.getInt("submit_id");
-                String studentId = rs.getString("student_id");
-                String studentName = rs.getString("student_name");
-                String title = rs.getString("title");
-                String abstractText = rs.getString("abstract");
-                String type = rs.getString("type");
-                String status = rs.getString("status");
-                String myTotal = String.valueOf(rs.getObject("my_total"));
-                String filepath = rs.getString("filepath");
-
-                model.addRow(new Object[]{
-                    submitId, studentId, studentName,
-                    title, abstractText, type, status, myTotal, filepath
-                });
-            }
-
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Database Error: " + ex.getMessage());
-        }
+        // Assigned submissions along with evaluation status and score (see AssignmentRepository),
+        // and where each stands among submissions of its type (see Leaderboard)
+        tasks.run(() -> {
+                    List<AssignedSubmission> rows = AssignmentRepository.findAssignedToEvaluator(evaluatorId);
+                    List<Integer> ids = new ArrayList<>();
+                    for (AssignedSubmission a : rows) ids.add(a.submitId);
+                    Map<Integer, LeaderboardPosition> ranks = Leaderboard.get().positions(ids);
+
+                    List<Object[]> tableRows = new ArrayList<>();
+                    for (AssignedSubmission a : rows) {
+                        LeaderboardPosition p = ranks.get(a.submitId);
+                        tableRows.add(new Object[]{
+                            a.submitId, a.studentId, a.studentName,
+                            a.title, a.abstractText, a.type, a.status, a.myTotal,
+                            p == null ? "-" : p.describeTypeRank(), a.filepath
+                        });
+                    }
+                    return tableRows;
+                },
+                tableRows -> {
+                    model.setRowCount(0); // Clear existing table rows
+                    for (Object[] row : tableRows) model.addRow(row);
+                },
+                ex -> JOptionPane.showMessageDialog(this, "Database Error: " + ex.getMessage()));
     }
 
     // Opens the evaluation dialog for the selected submission
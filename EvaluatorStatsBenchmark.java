@@ -0,0 +1,121 @@
+import java.io.File;
+import java.sql.*;
+import java.util.Random;
+
+// Shows that keeping evaluator_stats up to date costs the same per save no matter how many
+// evaluations exist, and checks the incremental numbers against a full recomputation.
+//
+//   java -cp ".;sqlite-jdbc-3.51.1.0.jar" EvaluatorStatsBenchmark [submissions...]
+//
+// For each test database (bench-db/synthetic-<n>.db, generated if missing) it times, for the
+// busiest evaluator:
+//   incremental  EvaluatorStatsRepository.addEvaluation: one Welford / Chan upsert
+//   rescan       recomputing that evaluator's mean and variance from all their evaluations
+// Both run on one connection inside a transaction that is rolled back, so the database is
+// left as it was.
+public class EvaluatorStatsBenchmark {
+
+    private static final int SAVES = 2000;
+    private static final int RESCANS = 50;
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = {1000, 10000, 100000};
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) sizes[i] = Integer.parseInt(args[i]);
+        }
+
+        checkWelford();
+
+        File dir = new File("bench-db");
+        dir.mkdirs();
+        System.out.printf("%11s %12s %12s %16s %16s%n",
+                "submissions", "evaluations", "by evaluator", "incremental us", "rescan us");
+
+        boolean consistent = true;
+        for (int size : sizes) {
+            File db = new File(dir, "synthetic-" + size + ".db");
+            if (!db.exists()) {
+                DatabaseHandler.useDatabase(db.getPath(), DatabaseProfile.BULK_LOAD);
+                DataGenerator.generate(DataGenerator.forSubmissions(size, 42L));
+            }
+            DatabaseHandler.useDatabase(db.getPath(), DatabaseProfile.INTERACTIVE);
+            DatabaseHandler.createNewTable();   // fills evaluator_stats on older databases
+            consistent &= EvaluatorStatsRepository.findMismatches().isEmpty();
+            run(size);
+        }
+        DatabaseHandler.getPool().shutdown();
+
+        System.out.println(consistent ? "evaluator_stats matched a full recomputation on every database"
+                                      : "FAIL: evaluator_stats differs from a full recomputation");
+        System.exit(consistent ? 0 : 1);
+    }
+
+    private static void run(int size) throws SQLException {
+        try (Connection conn = DatabaseHandler.requireConnection()) {
+            String evaluatorId;
+            long total;
+            long mine;
+            try (Statement st = conn.createStatement()) {
+                try (ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM evaluations")) {
+                    rs.next();
+                    total = rs.getLong(1);
+                }
+                try (ResultSet rs = st.executeQuery(
+                        "SELECT evaluator_id, eval_count FROM evaluator_stats ORDER BY eval_count DESC LIMIT 1")) {
+                    rs.next();
+                    evaluatorId = rs.getString(1);
+                    mine = rs.getLong(2);
+                }
+            }
+
+            Random rnd = new Random(1);
+            conn.setAutoCommit(false);
+            try {
+                for (int i = 0; i < 200; i++) EvaluatorStatsRepository.addEvaluation(conn, evaluatorId, 50);  // warm up
+
+                long t = System.nanoTime();
+                for (int i = 0; i < SAVES; i++) {
+                    EvaluatorStatsRepository.addEvaluation(conn, evaluatorId, 40 + rnd.nextInt(60));
+                }
+                long incremental = System.nanoTime() - t;
+
+                t = System.nanoTime();
+                for (int i = 0; i < RESCANS; i++) EvaluatorStatsRepository.refresh(conn, evaluatorId);
+                long rescan = System.nanoTime() - t;
+
+                System.out.printf("%11d %12d %12d %16.1f %16.1f%n", size, total, mine,
+                        incremental / 1e3 / SAVES, rescan / 1e3 / RESCANS);
+            } finally {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    // In memory: Welford / Chan against the two-pass formula on a million random totals
+    private static void checkWelford() {
+        Random rnd = new Random(7);
+        int n = 1_000_000;
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++) x[i] = 60 + rnd.nextGaussian() * 12;
+
+        EvaluatorStats single = new EvaluatorStats();
+        EvaluatorStats left = new EvaluatorStats();
+        EvaluatorStats right = new EvaluatorStats();
+        long t = System.nanoTime();
+        for (int i = 0; i < n; i++) single.add(x[i]);
+        long perAdd = (System.nanoTime() - t) / n;
+        for (int i = 0; i < n; i++) (i < n / 3 ? left : right).add(x[i]);
+        left.merge(right);
+
+        double mean = 0;
+        for (double v : x) mean += v;
+        mean /= n;
+        double m2 = 0;
+        for (double v : x) m2 += (v - mean) * (v - mean);
+
+        System.out.printf("Welford add: %d ns; mean %.9f vs %.9f, sd %.9f vs %.9f, merged sd %.9f%n%n",
+                perAdd, single.mean, mean, single.stdDev(), Math.sqrt(m2 / (n - 1)), left.stdDev());
+    }
+}
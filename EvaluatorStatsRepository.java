@@ -0,0 +1,223 @@
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// One row of evaluator_stats: count, mean and sum of squared deviations (Welford's M2)
+// of all totals one evaluator has given
+class EvaluatorStats {
+    public String evaluatorId;
+    public long count;
+    public double mean;
+    public double m2;
+
+    // Sample standard deviation; 0 while there are fewer than two totals
+    public double stdDev() {
+        return count < 2 ? 0 : Math.sqrt(Math.max(0, m2) / (count - 1));
+    }
+
+    // How many standard deviations a total is above this evaluator's mean (0 when unknown)
+    public double zScore(double total) {
+        double sd = stdDev();
+        return sd == 0 ? 0 : (total - mean) / sd;
+    }
+
+    // Welford: add one value in O(1) without keeping the values
+    public void add(double x) {
+        count++;
+        double delta = x - mean;
+        mean += delta / count;
+        m2 += delta * (x - mean);
+    }
+
+    // Chan et al.: combine with the statistics of another, disjoint set of values
+    public void merge(EvaluatorStats other) {
+        if (other.count == 0) return;
+        long n = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / n;
+        m2 += other.m2 + delta * delta * count * other.count / n;
+        count = n;
+    }
+}
+
+// SQL for evaluator_stats, the running mean / variance of each evaluator's totals used to
+// normalize away evaluator bias. Like ScoreRepository the writes take the caller's connection
+// and run inside the evaluation save's transaction; each is a single-row upsert, so the cost
+// does not depend on how many evaluations exist.
+public class EvaluatorStatsRepository {
+
+    // Merges a batch (count, mean, M2) into the stored row with Chan's parallel formula;
+    // a single new total is the batch (1, total, 0), which reduces to Welford's update.
+    // SQLite evaluates every SET expression against the old row values.
+    private static final String MERGE_SQL =
+        "INSERT INTO evaluator_stats(evaluator_id, eval_count, mean_total, m2_total, last_updated) " +
+        "VALUES(?, ?, ?, ?, CURRENT_TIMESTAMP) " +
+        "ON CONFLICT(evaluator_id) DO UPDATE SET " +
+        "  eval_count = eval_count + excluded.eval_count, " +
+        "  mean_total = mean_total + (excluded.mean_total - mean_total) * excluded.eval_count " +
+        "               / (eval_count + excluded.eval_count), " +
+        "  m2_total = m2_total + excluded.m2_total " +
+        "             + (excluded.mean_total - mean_total) * (excluded.mean_total - mean_total) " +
+        "               * eval_count * excluded.eval_count / (eval_count + excluded.eval_count), " +
+        "  last_updated = CURRENT_TIMESTAMP";
+
+    // Statistics as they should be, from the evaluations table (two passes: mean, then deviations)
+    private static final String EXPECTED_SQL =
+        "SELECT e.evaluator_id, a.n, a.mean, SUM((e.total - a.mean) * (e.total - a.mean)) AS m2 " +
+        "FROM evaluations e " +
+        "JOIN (SELECT evaluator_id, COUNT(*) AS n, AVG(total) AS mean FROM evaluations " +
+        "      WHERE evaluator_id IS NOT NULL GROUP BY evaluator_id) a ON a.evaluator_id = e.evaluator_id " +
+        "GROUP BY e.evaluator_id";
+
+    // A new evaluation by this evaluator
+    static void addEvaluation(Connection conn, String evaluatorId, double total) throws SQLException {
+        if (evaluatorId == null) return;
+        try (PreparedStatement ps = conn.prepareStatement(MERGE_SQL)) {
+            bindMerge(ps, evaluatorId, 1, total, 0);
+            ps.executeUpdate();
+        }
+    }
+
+    // Many new evaluations (batch insert): summarized per evaluator in memory, one upsert each
+    static void addEvaluations(Connection conn, List<Evaluation> evaluations) throws SQLException {
+        Map<String, EvaluatorStats> byEvaluator = new LinkedHashMap<>();
+        for (Evaluation e : evaluations) {
+            if (e.evaluatorId == null) continue;
+            byEvaluator.computeIfAbsent(e.evaluatorId, id -> new EvaluatorStats()).add(e.total);
+        }
+
+        try (PreparedStatement ps = conn.prepareStatement(MERGE_SQL)) {
+            for (Map.Entry<String, EvaluatorStats> en : byEvaluator.entrySet()) {
+                EvaluatorStats s = en.getValue();
+                bindMerge(ps, en.getKey(), s.count, s.mean, s.m2);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    // A re-grade replaces one total, the count stays the same:
+    //   mean' = mean + d/n,  M2' = M2 + d * (old + new - mean - mean')   with d = new - old
+    static void regrade(Connection conn, String evaluatorId, double oldTotal, double newTotal) throws SQLException {
+        if (evaluatorId == null) return;
+        String sql =
+            "UPDATE evaluator_stats SET " +
+            "  mean_total = mean_total + ? / eval_count, " +
+            "  m2_total = m2_total + ? * (? - 2 * mean_total - ? / eval_count), " +
+            "  last_updated = CURRENT_TIMESTAMP " +
+            "WHERE evaluator_id = ? AND eval_count > 0";
+
+        double d = newTotal - oldTotal;
+        int updated;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setDouble(1, d);
+            ps.setDouble(2, d);
+            ps.setDouble(3, oldTotal + newTotal);
+            ps.setDouble(4, d);
+            ps.setString(5, evaluatorId);
+            updated = ps.executeUpdate();
+        }
+
+        // No running row (data written by an older version): compute it from scratch
+        if (updated == 0) refresh(conn, evaluatorId);
+    }
+
+    // Recomputes one evaluator's row from the evaluations table (one pass over their totals)
+    static void refresh(Connection conn, String evaluatorId) throws SQLException {
+        EvaluatorStats s = new EvaluatorStats();
+        try (PreparedStatement ps = conn.prepareStatement("SELECT total FROM evaluations WHERE evaluator_id = ?")) {
+            ps.setString(1, evaluatorId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) s.add(rs.getDouble(1));
+            }
+        }
+
+        try (PreparedStatement ps = conn.prepareStatement("DELETE FROM evaluator_stats WHERE evaluator_id = ?")) {
+            ps.setString(1, evaluatorId);
+            ps.executeUpdate();
+        }
+        if (s.count == 0) return;
+        try (PreparedStatement ps = conn.prepareStatement(MERGE_SQL)) {
+            bindMerge(ps, evaluatorId, s.count, s.mean, s.m2);
+            ps.executeUpdate();
+        }
+    }
+
+    // All evaluators' statistics, keyed by evaluator id
+    public static Map<String, EvaluatorStats> findAll() throws SQLException {
+        String sql = "SELECT evaluator_id, eval_count, mean_total, m2_total FROM evaluator_stats ORDER BY evaluator_id";
+        Map<String, EvaluatorStats> map = new LinkedHashMap<>();
+
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                EvaluatorStats s = toStats(rs);
+                map.put(s.evaluatorId, s);
+            }
+        }
+        return map;
+    }
+
+    // Statistics of all totals from all evaluators, combined from the per-evaluator rows
+    public static EvaluatorStats overall() throws SQLException {
+        EvaluatorStats all = new EvaluatorStats();
+        for (EvaluatorStats s : findAll().values()) all.merge(s);
+        return all;
+    }
+
+    // Evaluators whose stored statistics differ from a fresh computation over the evaluations
+    public static List<String> findMismatches() throws SQLException {
+        String sql =
+            "SELECT COALESCE(r.evaluator_id, s.evaluator_id) " +
+            "FROM (" + EXPECTED_SQL + ") r " +
+            "FULL OUTER JOIN evaluator_stats s ON s.evaluator_id = r.evaluator_id " +
+            "WHERE r.evaluator_id IS NULL OR s.evaluator_id IS NULL OR r.n <> s.eval_count " +
+            "   OR ABS(r.mean - s.mean_total) > 1e-6 OR ABS(r.m2 - s.m2_total) > 1e-6 * (1 + r.m2) " +
+            "ORDER BY 1";
+        List<String> list = new ArrayList<>();
+
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) list.add(rs.getString(1));
+        }
+        return list;
+    }
+
+    // Throws the table away and rebuilds it from the evaluations (one transaction)
+    public static int rebuild() throws SQLException {
+        return DatabaseHandler.inTransaction(EvaluatorStatsRepository::rebuild);
+    }
+
+    // Rebuild on a caller's connection (e.g. after totals were recomputed in the same transaction)
+    static int rebuild(Connection conn) throws SQLException {
+        DataVersion.bump(conn, "evaluations");   // normalized scores change although no evaluation did
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("DELETE FROM evaluator_stats");
+            return st.executeUpdate(
+                "INSERT INTO evaluator_stats(evaluator_id, eval_count, mean_total, m2_total) " + EXPECTED_SQL);
+        }
+    }
+
+    private static void bindMerge(PreparedStatement ps, String evaluatorId, long count, double mean, double m2)
+            throws SQLException {
+        ps.setString(1, evaluatorId);
+        ps.setLong(2, count);
+        ps.setDouble(3, mean);
+        ps.setDouble(4, m2);
+    }
+
+    private static EvaluatorStats toStats(ResultSet rs) throws SQLException {
+        EvaluatorStats s = new EvaluatorStats();
+        s.evaluatorId = rs.getString("evaluator_id");
+        s.count = rs.getLong("eval_count");
+        s.mean = rs.getDouble("mean_total");
+        s.m2 = rs.getDouble("m2_total");
+        return s;
+    }
+}
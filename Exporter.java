@@ -1,42 +1,346 @@
 import java.io.BufferedWriter;
-import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
+// What Exporter.export wrote for one report
+class ExportResult {
+    public String title;
+    public long rows;
+    public List<String> paths = new ArrayList<>();      // one per requested format, csv first; null if it failed
+    public List<String> warnings = new ArrayList<>();
+}
+
+// CSV files are RFC 4180 (quoted where needed, CRLF records, see CsvWriter), optionally gzipped.
+// CSV and TXT files are always UTF-8, and are closed whether or not the export fails.
 public class Exporter {
 
+    public static ExportResult export(StreamingReportBuilder builder, String basePath, boolean csv, boolean txt) {
+        return export(builder, basePath, csv, txt, false);
+    }
+
+    // Streams a report straight into <basePath>.csv (.csv.gz with gzip) and/or <basePath>.txt
+    // in one pass over its rows, without holding them in memory. The files look like exportCSV /
+    // exportTXT, except that the TXT warnings come after the rows (they are only known at the end).
+    public static ExportResult export(StreamingReportBuilder builder, String basePath, boolean csv, boolean txt,
+                                      boolean gzip) {
+        ExportResult result = new ExportResult();
+        List<FileSink> files = new ArrayList<>();
+        if (csv) files.add(new CsvFileSink(basePath + (gzip ? ".csv.gz" : ".csv"), gzip));
+        if (txt) files.add(new TxtFileSink(basePath + ".txt"));
+
+        try {
+            builder.stream(new ReportSink() {
+                @Override
+                public void start(String title, List<ReportColumn> columns) {
+                    result.title = title;
+                    for (FileSink f : files) f.start(title, columns);
+                }
+
+                @Override
+                public void text(String value) {
+                    for (FileSink f : files) f.text(value);
+                }
+
+                @Override
+                public void integer(int value) {
+                    for (FileSink f : files) f.integer(value);
+                }
+
+                @Override
+                public void decimal(double value) {
+                    for (FileSink f : files) f.decimal(value);
+                }
+
+                @Override
+                public void empty() {
+                    for (FileSink f : files) f.empty();
+                }
+
+                @Override
+                public void endRow() {
+                    result.rows++;
+                    for (FileSink f : files) f.endRow();
+                }
+
+                @Override
+                public void warning(String message) {
+                    result.warnings.add(message);
+                    for (FileSink f : files) f.warning(message);
+                }
+            });
+        } finally {
+            for (FileSink f : files) result.paths.add(f.close());
+        }
+        return result;
+    }
+
+    // One export file. After the first write error it ignores the rest and close() returns null.
+    private abstract static class FileSink implements ReportSink {
+        final String path;
+        boolean failed;
+        List<ReportColumn> columns;
+        int cell;
+
+        FileSink(String path) {
+            this.path = path;
+        }
+
+        // The path, or null if anything failed
+        abstract String close();
+
+        void fail(IOException e) {
+            if (!failed) System.out.println("Export to " + path + " failed: " + e.getMessage());
+            failed = true;
+        }
+    }
+
+    // Cells go straight into the CsvWriter buffer
+    private static class CsvFileSink extends FileSink {
+        private CsvWriter out;
+        private final StringBuilder number = new StringBuilder();
+
+        CsvFileSink(String path, boolean gzip) {
+            super(path);
+            try {
+                out = new CsvWriter(Path.of(path), gzip);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        @Override
+        public void start(String title, List<ReportColumn> columns) {
+            this.columns = columns;
+            for (ReportColumn c : columns) text(c.name);
+            endRow();
+        }
+
+        @Override
+        public void text(String value) {
+            field(value);
+        }
+
+        @Override
+        public void integer(int value) {
+            cell++;
+            if (failed) return;
+            try {
+                out.field(value);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        @Override
+        public void decimal(double value) {
+            number.setLength(0);
+            columns.get(cell).appendDecimal(number, value);
+            field(number);
+        }
+
+        @Override
+        public void empty() {
+            field(null);
+        }
+
+        @Override
+        public void endRow() {
+            cell = 0;
+            if (failed) return;
+            try {
+                out.endRecord();
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        @Override
+        public void warning(String message) {
+            // CSV has no place for them; they are in the TXT file and in ExportResult
+        }
+
+        private void field(CharSequence value) {
+            cell++;
+            if (failed) return;
+            try {
+                out.field(value);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        @Override
+        String close() {
+            if (out == null) return null;
+            try {
+                out.close();
+            } catch (IOException e) {
+                fail(e);
+            }
+            return failed ? null : path;
+        }
+    }
+
+    // Cells are collected in one reused line and written at endRow();
+    // numbers are appended as numbers, not first turned into Strings
+    private static class TxtFileSink extends FileSink {
+        private BufferedWriter bw;
+        private final List<String> warnings = new ArrayList<>();
+        private final StringBuilder line = new StringBuilder();
+
+        TxtFileSink(String path) {
+            super(path);
+            try {
+                bw = Files.newBufferedWriter(Path.of(path), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        @Override
+        public void start(String title, List<ReportColumn> columns) {
+            this.columns = columns;
+            if (!failed) {
+                try {
+                    bw.write(title);
+                    bw.newLine();
+                    bw.newLine();
+                    bw.newLine();
+                } catch (IOException e) {
+                    fail(e);
+                }
+            }
+            for (ReportColumn c : columns) {
+                line.append(c.name);
+                endCell();
+            }
+            endRow();
+        }
+
+        @Override
+        public void text(String value) {
+            if (value != null) line.append(value);
+            endCell();
+        }
+
+        @Override
+        public void integer(int value) {
+            line.append(value);
+            endCell();
+        }
+
+        @Override
+        public void decimal(double value) {
+            columns.get(cell).appendDecimal(line, value);
+            endCell();
+        }
+
+        @Override
+        public void empty() {
+            endCell();
+        }
+
+        @Override
+        public void endRow() {
+            if (!failed) {
+                try {
+                    bw.append(line);
+                    bw.newLine();
+                } catch (IOException e) {
+                    fail(e);
+                }
+            }
+            line.setLength(0);
+            cell = 0;
+        }
+
+        @Override
+        public void warning(String message) {
+            warnings.add(message);
+        }
+
+        private void endCell() {
+            line.append(" | ");
+            cell++;
+        }
+
+        @Override
+        String close() {
+            if (bw == null) return null;
+            try {
+                if (!failed && !warnings.isEmpty()) {
+                    bw.newLine();
+                    for (String w : warnings) {
+                        bw.write("WARNING: " + w);
+                        bw.newLine();
+                    }
+                }
+            } catch (IOException e) {
+                fail(e);
+            } finally {
+                try {
+                    bw.close();
+                } catch (IOException e) {
+                    fail(e);
+                }
+            }
+            return failed ? null : path;
+        }
+    }
+
     public static String exportCSV(ReportData r, String outPath) {
+        return exportCSV(r, outPath, false);
+    }
+
+    // Writes <outPath>.csv, or <outPath>.csv.gz with gzip
+    public static String exportCSV(ReportData r, String outPath, boolean gzip) {
 
+        if (outPath.endsWith(".gz")) {
+            outPath = outPath.substring(0, outPath.length() - 3);
+        }
         if (!outPath.endsWith(".csv")) {
             outPath = outPath + ".csv";
         }
+        if (gzip) {
+            outPath = outPath + ".gz";
+        }
 
-        try {
-            BufferedWriter bw = new BufferedWriter(new FileWriter(outPath));
+        try (CsvWriter out = new CsvWriter(Path.of(outPath), gzip)) {
 
-            // Write column headers
-            for (int i = 0; i < r.columns.size(); i++) {
-                bw.write(r.columns.get(i));
-                if (i < r.columns.size() - 1) bw.write(",");
+            // Column headers
+            for (String c : r.getColumnNames()) {
+                out.field(c);
             }
-            bw.newLine();
+            out.endRecord();
 
-            // Write rows
-            for (List<String> row : r.rows) {
-                for (int i = 0; i < row.size(); i++) {
-                    bw.write(row.get(i));
-                    if (i < row.size() - 1) bw.write(",");
+            // Rows; numbers are written straight from the column arrays
+            StringBuilder number = new StringBuilder();
+            for (int row = 0; row < r.getRowCount(); row++) {
+                for (int i = 0; i < r.getColumnCount(); i++) {
+                    ReportColumn.Type type = r.getColumn(i).type;
+                    if (type == ReportColumn.Type.INT) {
+                        int v = r.getInt(row, i);
+                        if (v == ReportData.NO_INT) out.emptyField();
+                        else out.field(v);
+                    } else if (type == ReportColumn.Type.DECIMAL) {
+                        number.setLength(0);
+                        r.appendTo(number, row, i);
+                        out.field(number);
+                    } else {
+                        out.field(r.getText(row, i));
+                    }
                 }
-                bw.newLine();
+                out.endRecord();
             }
-
-            bw.close();
             return outPath;
 
-        } 
-        catch (Exception e) {
-            System.out.println("Export CSV failed");
+        }
+        catch (IOException e) {
+            System.out.println("Export CSV failed: " + e.getMessage());
             return null;
         }
     }
@@ -48,8 +352,7 @@ public class Exporter {
             outPath = outPath + ".txt";
         }
 
-        try {
-            BufferedWriter bw = new BufferedWriter(new FileWriter(outPath));
+        try (BufferedWriter bw = Files.newBufferedWriter(Path.of(outPath), StandardCharsets.UTF_8)) {
 
             bw.write(r.title);
             bw.newLine();
@@ -64,27 +367,28 @@ public class Exporter {
             bw.newLine();
 
             // Column headers
-            for (String c : r.columns) {
+            for (String c : r.getColumnNames()) {
                 bw.write(c + " | ");
             }
             bw.newLine();
 
             // Rows
-            for (List<String> row : r.rows) {
-                for (String v : row) {
-                    bw.write(v + " | ");
+            StringBuilder line = new StringBuilder();
+            for (int row = 0; row < r.getRowCount(); row++) {
+                line.setLength(0);
+                for (int i = 0; i < r.getColumnCount(); i++) {
+                    r.appendTo(line, row, i);
+                    line.append(" | ");
                 }
+                bw.append(line);
                 bw.newLine();
             }
-
-            bw.close();
             return outPath;
 
-        } 
-        catch (Exception e) {
-            System.out.println("Export TXT failed");
+        }
+        catch (IOException e) {
+            System.out.println("Export TXT failed: " + e.getMessage());
             return null;
         }
     }
 }
-
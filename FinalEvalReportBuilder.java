@@ -1,46 +1,69 @@
-import java.sql.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
-public class FinalEvalReportBuilder implements ReportBuilder {
+public class FinalEvalReportBuilder implements StreamingReportBuilder {
 
-    @Override
-    public ReportData build() {
-        ReportData r = new ReportData();
-        r.title = "Final Evaluation Report";
-        r.columns = List.of("Submit ID","Student","Title","Clarity","Methodology","Results","Presentation","Total","Comments");
+    // Everything the report reads, directly or through derived tables (see ReportCache)
+    static final String[] TABLES = {"evaluations", "submissions", "users", "rubric_criteria"};
 
-        String sql =
-            "SELECT e.submit_id, stu.username AS student_name, sub.title, " +
-            "e.clarity, e.methodology, e.results, e.presentation, e.total, e.comments " +
-            "FROM evaluations e " +
-            "JOIN submissions sub ON sub.submit_id = e.submit_id " +
-            "JOIN users stu ON stu.user_id = sub.student_id " +
-            "ORDER BY e.total DESC";
+    @Override
+    public String[] tables() {
+        return TABLES;
+    }
 
-        try (Connection conn = DatabaseHandler.connect();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
+    @Override
+    public void stream(ReportSink sink) {
+        List<ReportColumn> columns = new ArrayList<>(List.of(
+                ReportColumn.integer("Submit ID"),
+                ReportColumn.category("Student"),
+                ReportColumn.category("Title")));
+        List<ReportColumn> tail = List.of(
+                ReportColumn.decimal("Total"),
+                ReportColumn.decimal("Average"),
+                ReportColumn.text("Comments"));
+        boolean started = false;
 
-            boolean any = false;
-            while (rs.next()) {
-                any = true;
-                r.rows.add(List.of(
-                        safe(rs.getString("submit_id")),
-                        safe(rs.getString("student_name")),
-                        safe(rs.getString("title")),
-                        safe(rs.getString("clarity")),
-                        safe(rs.getString("methodology")),
-                        safe(rs.getString("results")),
-                        safe(rs.getString("presentation")),
-                        safe(rs.getString("total")),
-                        safe(rs.getString("comments"))
-                ));
+        try {
+            // One column per criterion of any rubric (by code, in rubric order); a cell is empty
+            // when the evaluation's type has no such criterion
+            Map<String, String> criteria = new LinkedHashMap<>();   // code -> label
+            for (Rubric rubric : RubricRepository.findAll().values()) {
+                for (RubricCriterion c : rubric.getCriteria()) criteria.putIfAbsent(c.code, c.label);
             }
-            if (!any) r.warnings.add("No evaluation data found.");
+            for (String label : criteria.values()) columns.add(ReportColumn.integer(label));
+            columns.addAll(tail);
+            sink.start("Final Evaluation Report", columns);
+            started = true;
+
+            String[] codes = criteria.keySet().toArray(new String[0]);
+            long[] count = {0};
+            EvaluationRepository.scanDetails(d -> {
+                sink.integer(d.submitId);
+                sink.text(safe(d.studentName));
+                sink.text(safe(d.title));
+                for (String code : codes) {
+                    Integer score = d.scores.get(code);
+                    if (score == null) sink.empty();
+                    else sink.integer(score);
+                }
+                sink.decimal(d.total);
+                sink.decimal(d.average);
+                sink.text(safe(d.comments));
+                sink.endRow();
+                count[0]++;
+            });
+            boolean any = count[0] > 0;
+            if (!any) sink.warning("No evaluation data found.");
         } catch (Exception e) {
-            r.warnings.add("DB error: " + e.getMessage());
+            if (!started) {
+                columns.addAll(tail);
+                sink.start("Final Evaluation Report", columns);
+            }
+            sink.warning("DB error: " + e.getMessage());
         }
-        return r;
+        sink.finish();
     }
 
     private String safe(String s) {
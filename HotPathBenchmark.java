@@ -0,0 +1,116 @@
+import java.io.File;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Regression baseline for every SQL hot path the screens use.
+// Each path is timed against synthetic databases of 1k, 10k and 100k submissions.
+// Run from the project folder (sizes are optional):
+//   java -cp ".;sqlite-jdbc-3.51.1.0.jar" HotPathBenchmark 1000 10000 100000
+// Generated databases are kept in bench-db/ and reused on the next run.
+public class HotPathBenchmark {
+
+    private static final int WARMUP = 2;
+    private static final int MAX_ITERATIONS = 20;
+    private static final long TIME_BUDGET_MS = 3000;   // per path and size
+    private static final long SEED = 42L;
+
+    // One benchmarked operation
+    interface HotPath {
+        void run() throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = {1000, 10000, 100000};
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) sizes[i] = Integer.parseInt(args[i]);
+        }
+
+        File dir = new File("bench-db");
+        dir.mkdirs();
+
+        System.out.printf("%-44s %10s %10s %10s %6s%n", "hot path", "submissions", "avg ms", "min ms", "runs");
+        for (int size : sizes) {
+            File db = new File(dir, "synthetic-" + size + ".db");
+            if (!db.exists()) {
+                DatabaseHandler.useDatabase(db.getPath(), DatabaseProfile.BULK_LOAD);
+                long t = System.currentTimeMillis();
+                seed(size);
+                System.out.println("(seeded " + db.getPath() + " in " + (System.currentTimeMillis() - t) + " ms)");
+            }
+            DatabaseHandler.useDatabase(db.getPath(), DatabaseProfile.INTERACTIVE);
+            DatabaseHandler.createNewTable();   // databases from older runs may need new migrations
+            runAll(size);
+        }
+        DatabaseHandler.getPool().shutdown();
+    }
+
+    private static void runAll(int size) throws Exception {
+        File out = File.createTempFile("hotpath-export", "");
+        ReportData finalReport = new FinalEvalReportBuilder().build();
+
+        measure("LoginScreen credential query", size,
+                () -> UserRepository.findByCredentials(DataGenerator.studentId(1), "123", "Student"));
+        measure("EvaluatorDashboard.loadAssigned", size,
+                () -> AssignmentRepository.findAssignedToEvaluator(DataGenerator.evaluatorId(1)));
+        measure("StudentRegistration.loadHistoryData", size,
+                () -> SubmissionRepository.findHistoryByStudent(DataGenerator.studentId(1)));
+        measure("CoordinatorDashboard.loadSubmissions", size,
+                SubmissionRepository::findAllWithAssignmentStatus);
+        measure("AwardCalculator.computeBestByType(Oral)", size,
+                () -> AwardCalculator.computeBestByType("Oral Presentation"));
+        measure("AwardCalculator.computePeoplesChoice", size,
+                AwardCalculator::computePeoplesChoice);
+        measure("Awards: 3 per-category queries", size, () -> {
+            AwardCalculator.computeBestByType("Oral Presentation");
+            AwardCalculator.computeBestByType("Poster Presentation");
+            AwardCalculator.computePeoplesChoice();
+        });
+        AwardEngine engine = new AwardEngine();
+        measure("Awards: AwardEngine single pass", size, engine::compute);
+        measure("ScheduleReportBuilder.build", size,
+                () -> new ScheduleReportBuilder().build());
+        measure("FinalEvalReportBuilder.build", size,
+                () -> new FinalEvalReportBuilder().build());
+        measure("AwardReportBuilder.build", size,
+                () -> new AwardReportBuilder().build());
+        measure("Exporter.exportCSV (final eval report)", size,
+                () -> Exporter.exportCSV(finalReport, out.getPath()));
+        measure("Exporter.exportTXT (final eval report)", size,
+                () -> Exporter.exportTXT(finalReport, out.getPath()));
+
+        out.delete();
+        new File(out.getPath() + ".csv").delete();
+        new File(out.getPath() + ".txt").delete();
+    }
+
+    // Warm up, then repeat until MAX_ITERATIONS or the time budget is used
+    static void measure(String label, int size, HotPath path) throws Exception {
+        for (int i = 0; i < WARMUP; i++) path.run();
+
+        List<Long> times = new ArrayList<>();
+        long started = System.currentTimeMillis();
+        while (times.size() < MAX_ITERATIONS
+                && (times.isEmpty() || System.currentTimeMillis() - started < TIME_BUDGET_MS)) {
+            long t = System.nanoTime();
+            path.run();
+            times.add(System.nanoTime() - t);
+        }
+
+        long sum = 0, min = Long.MAX_VALUE;
+        for (long t : times) {
+            sum += t;
+            min = Math.min(min, t);
+        }
+        System.out.printf("%-44s %10d %10.3f %10.3f %6d%n",
+                label, size, sum / 1e6 / times.size(), min / 1e6, times.size());
+    }
+
+    // Realistic data from DataGenerator (fixed seed, so every machine benchmarks the same rows),
+    // plus stored awards so the Award Agenda has rows
+    private static void seed(int submissions) throws SQLException {
+        DataGenerator.generate(DataGenerator.forSubmissions(submissions, SEED));
+        AwardCalculator.saveAwards(AwardCalculator.computeAll(new AwardEngine()));
+    }
+}
@@ -0,0 +1,214 @@
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Wraps a (pooled) connection so every statement it creates reports to QueryStats:
+// calls, rows, errors and latency per normalized SQL.
+// A query's latency runs from executeQuery() until its ResultSet is closed, counting only
+// time spent inside JDBC (executeQuery and next()), not the caller's own work between rows.
+public class InstrumentedConnection {
+
+    public static Connection wrap(Connection conn) {
+        return (Connection) Proxy.newProxyInstance(
+                InstrumentedConnection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConnectionHandler(conn));
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static class ConnectionHandler implements InvocationHandler {
+        final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Instrumented[" + target + "]";
+                case "prepareStatement": {
+                    PreparedStatement ps = (PreparedStatement) call(target, method, args);
+                    return wrapStatement(ps, PreparedStatement.class, QueryStats.entryFor((String) args[0]), (Connection) proxy);
+                }
+                case "createStatement": {
+                    Statement st = (Statement) call(target, method, args);
+                    return wrapStatement(st, Statement.class, null, (Connection) proxy);
+                }
+                default:
+                    return call(target, method, args);
+            }
+        }
+    }
+
+    private static Object wrapStatement(Statement st, Class<?> type, QueryStats.Entry entry, Connection owner) {
+        return Proxy.newProxyInstance(
+                InstrumentedConnection.class.getClassLoader(),
+                new Class<?>[]{type},
+                new StatementHandler(st, entry, owner));
+    }
+
+    private static class StatementHandler implements InvocationHandler {
+        final Statement target;
+        final QueryStats.Entry prepared;   // null for plain Statements (SQL comes with each execute)
+        final Connection owner;
+        String lastBatchSql;               // Statement.addBatch(sql)
+        ResultSetHandler open;             // result of the last executeQuery, until closed
+
+        StatementHandler(Statement target, QueryStats.Entry prepared, Connection owner) {
+            this.target = target;
+            this.prepared = prepared;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Instrumented[" + target + "]";
+                case "getConnection":
+                    return owner;
+                case "addBatch":
+                    if (args != null && args.length == 1) lastBatchSql = (String) args[0];
+                    return call(target, method, args);
+                case "close":
+                    finishOpenResult();
+                    return call(target, method, args);
+                case "executeQuery":
+                case "executeUpdate":
+                case "executeLargeUpdate":
+                case "execute":
+                case "executeBatch":
+                case "executeLargeBatch":
+                    return execute(proxy, method, args);
+                default:
+                    return call(target, method, args);
+            }
+        }
+
+        private Object execute(Object proxy, Method method, Object[] args) throws Throwable {
+            finishOpenResult();
+
+            QueryStats.Entry entry = prepared;
+            if (args != null && args.length > 0 && args[0] instanceof String) {
+                entry = QueryStats.entryFor((String) args[0]);
+            } else if (entry == null) {
+                entry = QueryStats.entryFor(lastBatchSql != null ? lastBatchSql : "(statement batch)");
+            }
+            entry.calls.increment();
+
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = call(target, method, args);
+            } catch (Throwable t) {
+                entry.errors.increment();
+                entry.latency.record(System.nanoTime() - start);
+                throw t;
+            }
+            long elapsed = System.nanoTime() - start;
+
+            if (result instanceof ResultSet) {
+                // Latency is recorded when the rows have been read
+                open = new ResultSetHandler((ResultSet) result, entry, elapsed, (Statement) proxy);
+                return Proxy.newProxyInstance(
+                        InstrumentedConnection.class.getClassLoader(),
+                        new Class<?>[]{ResultSet.class},
+                        open);
+            }
+
+            entry.latency.record(elapsed);
+            entry.rows.add(affectedRows(result));
+            return result;
+        }
+
+        private void finishOpenResult() {
+            if (open != null) {
+                open.finish();
+                open = null;
+            }
+        }
+
+        private static long affectedRows(Object result) {
+            long n = 0;
+            if (result instanceof Integer || result instanceof Long) {
+                n = ((Number) result).longValue();
+            } else if (result instanceof int[]) {
+                for (int c : (int[]) result) if (c > 0) n += c;
+            } else if (result instanceof long[]) {
+                for (long c : (long[]) result) if (c > 0) n += c;
+            }
+            return Math.max(0, n);
+        }
+    }
+
+    private static class ResultSetHandler implements InvocationHandler {
+        final ResultSet target;
+        final QueryStats.Entry entry;
+        final Statement statement;
+        long nanos;
+        long rows;
+        boolean finished;
+
+        ResultSetHandler(ResultSet target, QueryStats.Entry entry, long executeNanos, Statement statement) {
+            this.target = target;
+            this.entry = entry;
+            this.nanos = executeNanos;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next": {
+                    long start = System.nanoTime();
+                    boolean more = (Boolean) call(target, method, args);
+                    nanos += System.nanoTime() - start;
+                    if (more) rows++;
+                    return more;
+                }
+                case "close":
+                    finish();
+                    return call(target, method, args);
+                case "getStatement":
+                    return statement;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return call(target, method, args);
+            }
+        }
+
+        void finish() {
+            if (finished) return;
+            finished = true;
+            entry.rows.add(rows);
+            entry.latency.record(nanos);
+        }
+    }
+}
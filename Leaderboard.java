@@ -0,0 +1,177 @@
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Where one submission stands, overall and among submissions of its type
+class LeaderboardPosition {
+    public int submitId;
+    public String studentId;
+    public String type;
+    public double average;
+    public int evalCount;
+    public int rank;          // 1 = best of all evaluated submissions
+    public int size;          // evaluated submissions
+    public int typeRank;      // 1 = best of its type
+    public int typeSize;
+
+    // Share of the ranked submissions this one is in the top of, e.g. 5.0 = top 5%
+    public double topPercent() {
+        return 100.0 * rank / size;
+    }
+
+    public double typeTopPercent() {
+        return 100.0 * typeRank / typeSize;
+    }
+
+    // e.g. "3 of 120 (top 3%)"
+    public String describeTypeRank() {
+        return typeRank + " of " + typeSize + String.format(" (top %.0f%%)", Math.max(1, Math.ceil(typeTopPercent())));
+    }
+}
+
+// All evaluated submissions ordered by average score (same order as the awards, see
+// AwardEngine.BEST_FIRST), kept in memory in order-statistic trees so the rank and percentile
+// of any submission, overall and within its type, are O(log n) lookups instead of a sorted
+// query.
+//
+// Evaluation saves in this process update it incrementally (evaluationSaved, one submission at
+// a time). Anything else - a save by another process, a batch import, a rebuild - shows up as
+// a DataVersion the trees were not built at, and the next lookup reloads everything.
+public class Leaderboard {
+
+    // Tables the averages and types come from
+    static final String[] TABLES = {"submissions", "evaluations"};
+
+    private static Leaderboard instance;
+
+    private final OrderStatisticTree<SubmissionScore> overall = new OrderStatisticTree<>(AwardEngine.BEST_FIRST);
+    private final Map<String, OrderStatisticTree<SubmissionScore>> byType = new HashMap<>();
+    private final Map<Integer, SubmissionScore> entries = new HashMap<>();
+    private long version = -1;   // DataVersion the trees match; -1 = not loaded
+    private long reloads;
+
+    // The shared leaderboard (loaded on first lookup)
+    public static synchronized Leaderboard get() {
+        if (instance == null) instance = new Leaderboard();
+        return instance;
+    }
+
+    // Called inside an evaluation save's transaction after its one evaluation write. Returns
+    // the version that write produced, or -1 if no leaderboard is in use (no query then).
+    static long versionForSave(Connection conn) throws SQLException {
+        synchronized (Leaderboard.class) {
+            if (instance == null) return -1;
+        }
+        return DataVersion.of(conn, TABLES);
+    }
+
+    // Called after the save committed. When that save is the only write since the trees were
+    // last brought up to date, only its submission is moved; otherwise the next lookup reloads.
+    static void evaluationSaved(int submitId, long versionAfter) {
+        Leaderboard board;
+        synchronized (Leaderboard.class) {
+            board = instance;
+        }
+        if (board == null || versionAfter < 0) return;
+        try {
+            board.apply(submitId, versionAfter);
+        } catch (SQLException e) {
+            board.invalidate();
+        }
+    }
+
+    // Position of one submission, or null if it has no evaluations yet
+    public synchronized LeaderboardPosition position(int submitId) throws SQLException {
+        refreshIfStale();
+        return toPosition(entries.get(submitId));
+    }
+
+    // Positions of many submissions with one freshness check; unranked ones are left out
+    public synchronized Map<Integer, LeaderboardPosition> positions(Collection<Integer> submitIds) throws SQLException {
+        refreshIfStale();
+        Map<Integer, LeaderboardPosition> map = new LinkedHashMap<>();
+        for (Integer id : submitIds) {
+            LeaderboardPosition p = toPosition(entries.get(id));
+            if (p != null) map.put(id, p);
+        }
+        return map;
+    }
+
+    // Every ranked submission, best first
+    public synchronized List<LeaderboardPosition> all() throws SQLException {
+        refreshIfStale();
+        List<LeaderboardPosition> list = new ArrayList<>(overall.size());
+        overall.forEach(s -> list.add(toPosition(s)));
+        return list;
+    }
+
+    public synchronized int size() throws SQLException {
+        refreshIfStale();
+        return overall.size();
+    }
+
+    // Full reloads so far (the first load included)
+    public synchronized long getReloads() {
+        return reloads;
+    }
+
+    synchronized void invalidate() {
+        version = -1;
+    }
+
+    private synchronized void apply(int submitId, long versionAfter) throws SQLException {
+        if (version < 0 || versionAfter != version + 1) {
+            version = -1;   // something else was written too
+            return;
+        }
+        SubmissionScore old = entries.remove(submitId);
+        if (old != null) {
+            overall.remove(old);
+            byType.get(String.valueOf(old.type)).remove(old);
+        }
+        SubmissionScore now = AwardRepository.findSubmissionScore(submitId);
+        if (now != null) put(now);
+        version = versionAfter;
+    }
+
+    // The version is read before the scan, so a write during the scan only causes another reload
+    private void refreshIfStale() throws SQLException {
+        long current = DataVersion.of(TABLES);
+        if (current == version) return;
+
+        overall.clear();
+        byType.clear();
+        entries.clear();
+        AwardRepository.scanSubmissionScores(this::put);
+        version = current;
+        reloads++;
+    }
+
+    private void put(SubmissionScore s) {
+        entries.put(s.submitId, s);
+        overall.add(s);
+        byType.computeIfAbsent(String.valueOf(s.type), t -> new OrderStatisticTree<>(AwardEngine.BEST_FIRST)).add(s);
+    }
+
+    private LeaderboardPosition toPosition(SubmissionScore s) {
+        if (s == null) return null;
+        OrderStatisticTree<SubmissionScore> sameType = byType.get(String.valueOf(s.type));
+
+        LeaderboardPosition p = new LeaderboardPosition();
+        p.submitId = s.submitId;
+        p.studentId = s.studentId;
+        p.type = s.type;
+        p.average = s.average;
+        p.evalCount = s.evalCount;
+        p.rank = overall.indexOf(s) + 1;
+        p.size = overall.size();
+        p.typeRank = sameType.indexOf(s) + 1;
+        p.typeSize = sameType.size();
+        return p;
+    }
+}
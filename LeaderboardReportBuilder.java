@@ -0,0 +1,59 @@
+import java.util.List;
+import java.util.Map;
+
+public class LeaderboardReportBuilder implements StreamingReportBuilder {
+
+    // Everything the report reads, directly or through derived tables (see ReportCache)
+    static final String[] TABLES = {"evaluations", "submissions", "users"};
+
+    @Override
+    public String[] tables() {
+        return TABLES;
+    }
+
+    @Override
+    public void stream(ReportSink sink) {
+        sink.start("Leaderboard", List.of(
+                ReportColumn.integer("Rank"),
+                ReportColumn.decimal("Top %", 1),
+                ReportColumn.integer("Type Rank"),
+                ReportColumn.category("Type"),
+                ReportColumn.integer("Submit ID"),
+                ReportColumn.text("Student"),
+                ReportColumn.text("Title"),
+                ReportColumn.decimal("Average", 2),
+                ReportColumn.integer("Evaluations")));
+
+        try {
+            List<LeaderboardPosition> rows = Leaderboard.get().all();
+            Map<Integer, SubmissionStatusRow> names = SubmissionRepository.findAllById();
+            for (LeaderboardPosition p : rows) {
+                SubmissionStatusRow s = names.get(p.submitId);
+                sink.integer(p.rank);
+                sink.decimal(p.topPercent());
+                sink.integer(p.typeRank);
+                sink.text(safe(p.type));
+                sink.integer(p.submitId);
+                sink.text(s == null ? "" : safe(s.studentName));
+                sink.text(s == null ? "" : safe(s.title));
+                sink.decimal(p.average);
+                sink.integer(p.evalCount);
+                sink.endRow();
+            }
+            boolean any = !rows.isEmpty();
+            if (!any) sink.warning("No evaluated submissions yet.");
+        } catch (Exception e) {
+            sink.warning("DB error: " + e.getMessage());
+        }
+        sink.finish();
+    }
+
+    private String safe(String s) {
+    if (s == null) {
+        return "";
+    } 
+    else {
+        return s;
+    }
+    }
+}
@@ -1,10 +1,6 @@
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import javax.swing.*;
 
 public class LoginScreen extends JFrame {
@@ -14,12 +10,12 @@ public class LoginScreen extends JFrame {
     private JComboBox<String> roleComboBox;
     private JButton loginButton;
 
+    // Runs database work off the EDT and shows progress
+    private final UiTaskRunner tasks = new UiTaskRunner(this);
+
     public LoginScreen() {
         super("FCI Seminar Management System");
 
-        // Initialize DB table on startup
-        DatabaseHandler.createNewTable();
-
         setDefaultCloseOperation(EXIT_ON_CLOSE);
         setSize(600, 500); // Increased height slightly to fit the logo
         setLocationRelativeTo(null);
@@ -80,9 +76,19 @@ public class LoginScreen extends JFrame {
         loginButton = new JButton("Login");
         JPanel btnPanel = new JPanel();
         btnPanel.add(loginButton);
+        btnPanel.add(tasks.getProgressBar());
         btnPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 20, 10));
         add(btnPanel, BorderLayout.SOUTH);
 
+        // Initialize DB table on startup (in the background; login waits for it)
+        loginButton.setEnabled(false);
+        tasks.run(() -> {
+                    DatabaseHandler.createNewTable();
+                    return null;
+                },
+                done -> loginButton.setEnabled(true),
+                ex -> JOptionPane.showMessageDialog(this, "Database Error: " + ex.getMessage()));
+
         // --- AUTHENTICATION LOGIC ---
         loginButton.addActionListener(new ActionListener() {
             @Override
@@ -99,57 +105,60 @@ public class LoginScreen extends JFrame {
                     return;
                 }
 
-                String sql = "SELECT user_id, username, role FROM users WHERE user_id = ? AND password = ? AND role = ?";
-
-                try (Connection conn = DatabaseHandler.connect();
-                     PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-                    pstmt.setString(1, userID);
-                    pstmt.setString(2, password);
-                    pstmt.setString(3, selectedRole);
-
-                    ResultSet rs = pstmt.executeQuery();
-
-                    if (rs.next()) {
-                        String dbUserId = rs.getString("user_id");
-                        String dbUsername = rs.getString("username");
-
-                        if ("Student".equals(selectedRole)) {
-                            JOptionPane.showMessageDialog(LoginScreen.this, "Login Successful! Redirecting...");
-                            LoginScreen.this.dispose();
-                            new StudentRegistration(dbUserId, dbUsername);
-                        } else if ("Coordinator".equals(selectedRole)) {
-                            JOptionPane.showMessageDialog(LoginScreen.this, "Login Successful! Opening Coordinator Dashboard...");
-                            LoginScreen.this.dispose();
-                            new CoordinatorDashboard(dbUserId, dbUsername);
-                        } else if ("Evaluator".equals(selectedRole)) {
-                            JOptionPane.showMessageDialog(LoginScreen.this, "Login Successful! Opening Evaluator Dashboard...");
-                            LoginScreen.this.dispose();
-                            // Assuming you have this class ready
-                            new EvaluatorDashboard(dbUserId, dbUsername);
-                        } else {
-                            JOptionPane.showMessageDialog(LoginScreen.this,
-                                    "Login Successful as " + selectedRole + ".",
-                                    "Success",
-                                    JOptionPane.INFORMATION_MESSAGE);
-                        }
-                    } else {
-                        JOptionPane.showMessageDialog(LoginScreen.this,
-                                "Invalid User ID, Password, or Role.\n",
-                                "Login Failed",
-                                JOptionPane.ERROR_MESSAGE);
-                    }
-
-                } catch (SQLException ex) {
-                    JOptionPane.showMessageDialog(LoginScreen.this, "Database Error: " + ex.getMessage());
-                }
+                // Query runs in the background; the button is disabled until it answers
+                loginButton.setEnabled(false);
+                tasks.run(() -> UserRepository.findByCredentials(userID, password, selectedRole),
+                        user -> {
+                            loginButton.setEnabled(true);
+                            onLoginResult(user, selectedRole);
+                        },
+                        ex -> {
+                            loginButton.setEnabled(true);
+                            JOptionPane.showMessageDialog(LoginScreen.this, "Database Error: " + ex.getMessage());
+                        });
             }
         });
 
         setVisible(true);
     }
 
+    // Opens the dashboard for the role, or reports a failed login (runs on the EDT)
+    private void onLoginResult(User user, String selectedRole) {
+        if (user != null) {
+            String dbUserId = user.userId;
+            String dbUsername = user.username;
+
+            if ("Student".equals(selectedRole)) {
+                JOptionPane.showMessageDialog(this, "Login Successful! Redirecting...");
+                this.dispose();
+                new StudentRegistration(dbUserId, dbUsername);
+            } else if ("Coordinator".equals(selectedRole)) {
+                JOptionPane.showMessageDialog(this, "Login Successful! Opening Coordinator Dashboard...");
+                this.dispose();
+                new CoordinatorDashboard(dbUserId, dbUsername);
+            } else if ("Evaluator".equals(selectedRole)) {
+                JOptionPane.showMessageDialog(this, "Login Successful! Opening Evaluator Dashboard...");
+                this.dispose();
+                // Assuming you have this class ready
+                new EvaluatorDashboard(dbUserId, dbUsername);
+            } else {
+                JOptionPane.showMessageDialog(this,
+                        "Login Successful as " + selectedRole + ".",
+                        "Success",
+                        JOptionPane.INFORMATION_MESSAGE);
+            }
+        } else {
+            JOptionPane.showMessageDialog(this,
+                    "Invalid User ID, Password, or Role.\n",
+                    "Login Failed",
+                    JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> new LoginScreen());
+        SwingUtilities.invokeLater(() -> {
+            DiagnosticsWindow.installHotkey(); // Ctrl+Shift+D opens the query statistics
+            new LoginScreen();
+        });
     }
 }
\ No newline at end of file
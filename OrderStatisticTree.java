@@ -0,0 +1,174 @@
+import java.util.Comparator;
+import java.util.Random;
+import java.util.function.Consumer;
+
+// Sorted set that also answers "what position is this element at?" and "which element is at
+// position i?" in O(log n) (expected). It is a treap: a binary search tree ordered by the
+// comparator, kept balanced by random heap priorities, where every node also stores the size
+// of its subtree. The position of an element is the number of elements before it, found by
+// adding up left-subtree sizes on the way down.
+//
+// Elements the comparator considers equal are the same element (like TreeSet).
+// Not thread-safe.
+public class OrderStatisticTree<T> {
+
+    private static final class Node<T> {
+        final T value;
+        final int priority;
+        int size = 1;
+        Node<T> left;
+        Node<T> right;
+
+        Node(T value, int priority) {
+            this.value = value;
+            this.priority = priority;
+        }
+    }
+
+    private final Comparator<? super T> order;
+    private final Random random = new Random(0x5eed);
+    private Node<T> root;
+
+    public OrderStatisticTree(Comparator<? super T> order) {
+        this.order = order;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    // Adds the element; returns false if an equal element is already present
+    public boolean add(T value) {
+        if (contains(value)) return false;
+        root = insert(root, new Node<>(value, random.nextInt()));
+        return true;
+    }
+
+    // Removes the element equal to value; returns false if there was none
+    public boolean remove(T value) {
+        if (!contains(value)) return false;
+        root = delete(root, value);
+        return true;
+    }
+
+    public boolean contains(T value) {
+        Node<T> n = root;
+        while (n != null) {
+            int c = order.compare(value, n.value);
+            if (c == 0) return true;
+            n = c < 0 ? n.left : n.right;
+        }
+        return false;
+    }
+
+    // Number of elements that come before value (its 0-based position if present)
+    public int indexOf(T value) {
+        int before = 0;
+        Node<T> n = root;
+        while (n != null) {
+            int c = order.compare(value, n.value);
+            if (c <= 0) {
+                if (c == 0) return before + size(n.left);
+                n = n.left;
+            } else {
+                before += size(n.left) + 1;
+                n = n.right;
+            }
+        }
+        return before;
+    }
+
+    // Element at 0-based position index
+    public T get(int index) {
+        if (index < 0 || index >= size()) throw new IndexOutOfBoundsException(index);
+        Node<T> n = root;
+        while (true) {
+            int leftSize = size(n.left);
+            if (index < leftSize) {
+                n = n.left;
+            } else if (index == leftSize) {
+                return n.value;
+            } else {
+                index -= leftSize + 1;
+                n = n.right;
+            }
+        }
+    }
+
+    // Visits every element in order (recursion depth is the tree height, O(log n) expected)
+    public void forEach(Consumer<? super T> action) {
+        visit(root, action);
+    }
+
+    public void clear() {
+        root = null;
+    }
+
+    private void visit(Node<T> n, Consumer<? super T> action) {
+        if (n == null) return;
+        visit(n.left, action);
+        action.accept(n.value);
+        visit(n.right, action);
+    }
+
+    private Node<T> insert(Node<T> n, Node<T> added) {
+        if (n == null) return added;
+        if (order.compare(added.value, n.value) < 0) {
+            n.left = insert(n.left, added);
+            if (n.left.priority > n.priority) n = rotateRight(n);
+        } else {
+            n.right = insert(n.right, added);
+            if (n.right.priority > n.priority) n = rotateLeft(n);
+        }
+        update(n);
+        return n;
+    }
+
+    private Node<T> delete(Node<T> n, T value) {
+        int c = order.compare(value, n.value);
+        if (c < 0) {
+            n.left = delete(n.left, value);
+        } else if (c > 0) {
+            n.right = delete(n.right, value);
+        } else {
+            // Rotate the node down until it has at most one child, then unlink it
+            if (n.left == null) return n.right;
+            if (n.right == null) return n.left;
+            if (n.left.priority > n.right.priority) {
+                n = rotateRight(n);
+                n.right = delete(n.right, value);
+            } else {
+                n = rotateLeft(n);
+                n.left = delete(n.left, value);
+            }
+        }
+        update(n);
+        return n;
+    }
+
+    private Node<T> rotateRight(Node<T> n) {
+        Node<T> l = n.left;
+        n.left = l.right;
+        l.right = n;
+        update(n);
+        update(l);
+        return l;
+    }
+
+    private Node<T> rotateLeft(Node<T> n) {
+        Node<T> r = n.right;
+        n.right = r.left;
+        r.left = n;
+        update(n);
+        update(r);
+        return r;
+    }
+
+    private static <T> void update(Node<T> n) {
+        n.size = 1 + size(n.left) + size(n.right);
+    }
+
+    private static <T> int size(Node<T> n) {
+        return n == null ? 0 : n.size;
+    }
+}
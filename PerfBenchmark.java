@@ -0,0 +1,194 @@
+import java.io.File;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Small stand-alone timing harness for the database layer.
+// Run from the project folder:
+//   java -cp ".;sqlite-jdbc-3.51.1.0.jar" PerfBenchmark
+public class PerfBenchmark {
+
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 2000;
+
+    // Same lookup LoginScreen runs on every login click
+    private static final String LOGIN_SQL =
+        "SELECT user_id, username, role FROM users WHERE user_id = ? AND password = ? AND role = ?";
+
+    public static void main(String[] args) throws Exception {
+        DatabaseHandler.createNewTable();
+
+        System.out.println("=== Connection cost per query (" + ITERATIONS + " iterations) ===");
+        benchConnections();
+
+        System.out.println();
+        System.out.println("=== Evaluator save path checks, statement cache off vs on ===");
+        benchStatementCache();
+
+        System.out.println();
+        System.out.println("=== Concurrent read/write throughput per SQLite profile ===");
+        benchProfiles();
+
+        DatabaseHandler.getPool().shutdown();
+    }
+
+    // Per-query cost with a fresh DriverManager connection vs a pooled one
+    private static void benchConnections() throws SQLException {
+        for (int i = 0; i < WARMUP; i++) {
+            try (Connection c = DatabaseHandler.connectUnpooled()) { runLogin(c); }
+            try (Connection c = DatabaseHandler.connect()) { runLogin(c); }
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            try (Connection c = DatabaseHandler.connectUnpooled()) { runLogin(c); }
+        }
+        long unpooled = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            try (Connection c = DatabaseHandler.connect()) { runLogin(c); }
+        }
+        long pooled = System.nanoTime() - start;
+
+        report("Unpooled (DriverManager)", unpooled, ITERATIONS);
+        report("Pooled (DatabaseHandler)", pooled, ITERATIONS);
+
+        ConnectionPool pool = DatabaseHandler.getPool();
+        System.out.println("  pool: size=" + pool.getMaxSize()
+                + " borrows=" + pool.getBorrowCount()
+                + " physical opened=" + pool.getCreatedCount());
+    }
+
+    // The two lookups EvaluationDialog runs before every save
+    private static final String IS_AUTHORIZED_SQL =
+        "SELECT count(*) FROM assignments a JOIN submissions s ON s.student_id = a.student_id " +
+        "WHERE a.evaluator_id = ? AND s.submit_id = ?";
+    private static final String EXISTS_EVALUATION_SQL =
+        "SELECT count(*) FROM evaluations WHERE evaluator_id=? AND submit_id=?";
+
+    private static void benchStatementCache() throws SQLException {
+        String url = "jdbc:sqlite:seminar_system.db";
+        ConnectionPool uncached = new ConnectionPool(url, DatabaseProfile.INTERACTIVE, 1, 10000, 60000, 0);
+        ConnectionPool cached = new ConnectionPool(url, DatabaseProfile.INTERACTIVE, 1, 10000, 60000, 32);
+
+        for (int i = 0; i < WARMUP; i++) {
+            runSaveChecks(uncached);
+            runSaveChecks(cached);
+        }
+        StatementCache.resetCounters();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) runSaveChecks(uncached);
+        long off = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) runSaveChecks(cached);
+        long on = System.nanoTime() - start;
+
+        report("Statement cache off", off, ITERATIONS);
+        report("Statement cache on", on, ITERATIONS);
+        System.out.println("  cache: hits=" + StatementCache.getHits()
+                + " misses=" + StatementCache.getMisses()
+                + String.format(" hit rate=%.1f%%", StatementCache.getHitRate() * 100));
+
+        uncached.shutdown();
+        cached.shutdown();
+    }
+
+    private static void runSaveChecks(ConnectionPool pool) throws SQLException {
+        try (Connection c = pool.borrow()) {
+            for (String sql : new String[]{IS_AUTHORIZED_SQL, EXISTS_EVALUATION_SQL}) {
+                try (PreparedStatement ps = c.prepareStatement(sql)) {
+                    ps.setString(1, "e001");
+                    ps.setInt(2, 1);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        rs.next();
+                    }
+                }
+            }
+        }
+    }
+
+    // 3 reader threads + 1 writer thread for a fixed time on a scratch database.
+    // "default" is SQLite's rollback journal without any PRAGMAs (the old behaviour).
+    private static void benchProfiles() throws Exception {
+        runProfile("default", null);
+        for (DatabaseProfile p : DatabaseProfile.values()) {
+            runProfile(p.getName(), p);
+        }
+    }
+
+    private static void runProfile(String label, DatabaseProfile profile) throws Exception {
+        File dbFile = File.createTempFile("profile-bench", ".db");
+        String url = "jdbc:sqlite:" + dbFile.getAbsolutePath();
+
+        try (Connection c = DriverManager.getConnection(url);
+             Statement st = c.createStatement()) {
+            st.execute("CREATE TABLE evaluations(eval_id integer PRIMARY KEY AUTOINCREMENT, submit_id integer, total real)");
+            st.execute("INSERT INTO evaluations(submit_id, total) VALUES(1, 10)");
+        }
+
+        final long durationMs = 2000;
+        final long end = System.currentTimeMillis() + durationMs;
+        AtomicLong reads = new AtomicLong();
+        AtomicLong writes = new AtomicLong();
+        AtomicLong lockErrors = new AtomicLong();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            final boolean writer = (i == 0);
+            threads.add(new Thread(() -> {
+                try (Connection c = DriverManager.getConnection(url)) {
+                    if (profile != null) profile.apply(c);
+                    PreparedStatement read = c.prepareStatement("SELECT count(*), AVG(total) FROM evaluations");
+                    PreparedStatement write = c.prepareStatement("INSERT INTO evaluations(submit_id, total) VALUES(?, ?)");
+                    int n = 0;
+                    while (System.currentTimeMillis() < end) {
+                        try {
+                            if (writer) {
+                                write.setInt(1, n % 100);
+                                write.setDouble(2, n % 20);
+                                write.executeUpdate();
+                                writes.incrementAndGet();
+                            } else {
+                                try (ResultSet rs = read.executeQuery()) { rs.next(); }
+                                reads.incrementAndGet();
+                            }
+                        } catch (SQLException e) {
+                            lockErrors.incrementAndGet();
+                        }
+                        n++;
+                    }
+                } catch (SQLException e) {
+                    lockErrors.incrementAndGet();
+                }
+            }));
+        }
+        for (Thread t : threads) t.start();
+        for (Thread t : threads) t.join();
+
+        System.out.printf("  %-22s reads/s=%8d  writes/s=%7d  errors=%d%n",
+                label, reads.get() * 1000 / durationMs, writes.get() * 1000 / durationMs, lockErrors.get());
+
+        dbFile.delete();
+        new File(dbFile.getAbsolutePath() + "-wal").delete();
+        new File(dbFile.getAbsolutePath() + "-shm").delete();
+    }
+
+    private static void runLogin(Connection c) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(LOGIN_SQL)) {
+            ps.setString(1, "s001");
+            ps.setString(2, "123");
+            ps.setString(3, "Student");
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+            }
+        }
+    }
+
+    static void report(String label, long nanos, int ops) {
+        System.out.printf("  %-32s %10.1f us/op%n", label, nanos / 1000.0 / ops);
+    }
+}
@@ -0,0 +1,145 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+// One line of the query statistics (times in milliseconds)
+class QueryStatsRow {
+    public String sql;
+    public long calls;
+    public long rows;
+    public long errors;
+    public double totalMs;
+    public double p50Ms;
+    public double p95Ms;
+    public double p99Ms;
+    public double maxMs;
+}
+
+// Per-query timing collected by InstrumentedConnection.
+// Queries are grouped by normalized SQL (literals replaced by ?, whitespace collapsed),
+// so every call of the same repository method lands in the same line.
+// Switch off with -Dseminar.db.instrument=false; dump at exit with -Dseminar.db.statsFile=<file>.
+public class QueryStats {
+
+    public static final boolean ENABLED =
+            !"false".equalsIgnoreCase(System.getProperty("seminar.db.instrument", "true"));
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern PARAM_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int MAX_CACHED_SQL = 2000;
+
+    // Counters for one normalized statement
+    static class Entry {
+        final String sql;
+        final LongAdder calls = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LatencyHistogram latency = new LatencyHistogram();
+
+        Entry(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    private static final ConcurrentHashMap<String, Entry> ENTRIES = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, Entry> BY_RAW_SQL = new ConcurrentHashMap<>();
+    private static final LatencyHistogram ACQUIRE = new LatencyHistogram();
+
+    static {
+        String file = System.getProperty("seminar.db.statsFile");
+        if (ENABLED && file != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    dump(file);
+                } catch (IOException e) {
+                    System.out.println("Could not write query stats: " + e.getMessage());
+                }
+            }, "query-stats-dump"));
+        }
+    }
+
+    // Counters for a statement; normalizing is done once per distinct SQL text
+    static Entry entryFor(String rawSql) {
+        Entry e = BY_RAW_SQL.get(rawSql);
+        if (e != null) return e;
+
+        e = ENTRIES.computeIfAbsent(normalize(rawSql), Entry::new);
+        if (BY_RAW_SQL.size() < MAX_CACHED_SQL) BY_RAW_SQL.put(rawSql, e);
+        return e;
+    }
+
+    // Time spent waiting for a pooled connection
+    static void recordAcquire(long nanos) {
+        ACQUIRE.record(nanos);
+    }
+
+    // "SELECT * FROM t WHERE id IN (?, ?, ?) AND name = 'x'" -> "SELECT * FROM t WHERE id IN (?...) AND name = ?"
+    public static String normalize(String sql) {
+        String s = STRING_LITERAL.matcher(sql).replaceAll("?");
+        s = NUMBER_LITERAL.matcher(s).replaceAll("?");
+        s = PARAM_LIST.matcher(s).replaceAll("?...");
+        s = WHITESPACE.matcher(s).replaceAll(" ").trim();
+        if (s.endsWith(";")) s = s.substring(0, s.length() - 1).trim();
+        return s;
+    }
+
+    // Current numbers, slowest total time first
+    public static List<QueryStatsRow> snapshot() {
+        List<QueryStatsRow> list = new ArrayList<>();
+        for (Entry e : ENTRIES.values()) {
+            QueryStatsRow r = new QueryStatsRow();
+            r.sql = e.sql;
+            r.calls = e.calls.sum();
+            r.rows = e.rows.sum();
+            r.errors = e.errors.sum();
+            r.totalMs = e.latency.getTotalNanos() / 1e6;
+            r.p50Ms = e.latency.percentileNanos(50) / 1e6;
+            r.p95Ms = e.latency.percentileNanos(95) / 1e6;
+            r.p99Ms = e.latency.percentileNanos(99) / 1e6;
+            r.maxMs = e.latency.getMaxNanos() / 1e6;
+            list.add(r);
+        }
+        list.sort((a, b) -> Double.compare(b.totalMs, a.totalMs));
+        return list;
+    }
+
+    // One-line summary of connection acquire time
+    public static String acquireSummary() {
+        return String.format("Connection acquire: %d borrows, p50 %.3f ms, p95 %.3f ms, p99 %.3f ms, max %.3f ms",
+                ACQUIRE.getCount(),
+                ACQUIRE.percentileNanos(50) / 1e6,
+                ACQUIRE.percentileNanos(95) / 1e6,
+                ACQUIRE.percentileNanos(99) / 1e6,
+                ACQUIRE.getMaxNanos() / 1e6);
+    }
+
+    public static void reset() {
+        ENTRIES.clear();
+        BY_RAW_SQL.clear();
+        ACQUIRE.reset();
+    }
+
+    // Writes the statistics as a plain-text table
+    public static void dump(String path) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(path), StandardCharsets.UTF_8))) {
+            out.println("Query statistics, " + java.time.LocalDateTime.now().withNano(0));
+            out.println(acquireSummary());
+            out.println();
+            out.printf("%8s %10s %6s %11s %9s %9s %9s %9s  %s%n",
+                    "calls", "rows", "errors", "total ms", "p50 ms", "p95 ms", "p99 ms", "max ms", "sql");
+            for (QueryStatsRow r : snapshot()) {
+                out.printf("%8d %10d %6d %11.1f %9.3f %9.3f %9.3f %9.3f  %s%n",
+                        r.calls, r.rows, r.errors, r.totalMs, r.p50Ms, r.p95Ms, r.p99Ms, r.maxMs, r.sql);
+            }
+        }
+    }
+}
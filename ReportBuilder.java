@@ -1,3 +1,9 @@
 public interface ReportBuilder {
     ReportData build();
+
+    // Tables the report is built from, so a built report can be reused while none of them
+    // has been written (see ReportCache, DataVersion). null = not known, always rebuilt.
+    default String[] tables() {
+        return null;
+    }
 }
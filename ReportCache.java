@@ -0,0 +1,148 @@
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+// A report returned by ReportCache
+class CachedReport {
+    public ReportData data;       // shared with the cache: read it, do not add to it
+    public long dataVersion;      // DataVersion of the builder's tables the report was built at
+    public boolean hit;           // true = nothing changed, no query was run
+    public long millis;           // time get() took, version check included
+}
+
+// Keeps the last ReportData of each report builder and returns it again while none of the
+// tables the builder reads (ReportBuilder.tables) has been written. Checking costs one small
+// query, against the full report query for a rebuild.
+//
+// Reports can be big, so the cache is bounded by their estimated size (ReportData.estimateBytes)
+// rather than by count: when a new report does not fit, the least recently used ones are
+// dropped. A report larger than the whole budget, or one with warnings (e.g. a database
+// error), is returned but not kept.
+public class ReportCache {
+
+    // Total size of the cached reports, e.g. -Dseminar.reportCache.maxMb=128
+    private static final long MAX_BYTES = Long.getLong("seminar.reportCache.maxMb", 64L) * 1024 * 1024;
+
+    // Shared by every reports window
+    public static final ReportCache DEFAULT = new ReportCache(MAX_BYTES);
+
+    private static class Entry {
+        final ReportData data;
+        final long dataVersion;
+        final long bytes;
+
+        Entry(ReportData data, long dataVersion) {
+            this.data = data;
+            this.dataVersion = dataVersion;
+            this.bytes = data.estimateBytes();
+        }
+    }
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);   // LRU order
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public ReportCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    // The builder's report, from memory if its tables have not changed since it was last built
+    public CachedReport get(ReportBuilder builder) throws SQLException {
+        long start = System.nanoTime();
+        String[] tables = builder.tables();
+        CachedReport result = new CachedReport();
+        if (tables == null) {   // unknown inputs: always build, never keep
+            synchronized (this) {
+                misses++;
+            }
+            result.data = builder.build();
+            result.dataVersion = -1;
+            result.millis = (System.nanoTime() - start) / 1_000_000;
+            return result;
+        }
+
+        // Read the version BEFORE building: a write that lands during the build moves the
+        // version past the one stored, so the next call rebuilds instead of trusting it
+        long version = DataVersion.of(tables);
+        String key = builder.getClass().getName();
+        synchronized (this) {
+            Entry cached = entries.get(key);
+            if (cached != null && cached.dataVersion == version) {
+                hits++;
+                result.data = cached.data;
+                result.dataVersion = version;
+                result.hit = true;
+                result.millis = (System.nanoTime() - start) / 1_000_000;
+                return result;
+            }
+            misses++;
+        }
+
+        // Built outside the lock, so one slow report does not hold up the others
+        ReportData data = builder.build();
+        store(key, data, version);
+        result.data = data;
+        result.dataVersion = version;
+        result.millis = (System.nanoTime() - start) / 1_000_000;
+        return result;
+    }
+
+    // Replaces the builder's stale entry, if the new report is worth keeping
+    private synchronized void store(String key, ReportData data, long version) {
+        Entry old = entries.remove(key);
+        if (old != null) bytes -= old.bytes;
+        if (!data.warnings.isEmpty()) return;
+        Entry entry = new Entry(data, version);
+        if (entry.bytes > maxBytes) return;
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (bytes + entry.bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().bytes;
+            eldest.remove();
+            evictions++;
+        }
+        entries.put(key, entry);
+        bytes += entry.bytes;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    // Estimated size of the reports held now
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // Share of get() calls answered from memory, 0..1
+    public synchronized double hitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    // e.g. "5 hits, 3 misses (62% hit rate), 2 reports held, 14.2 of 64.0 MB, 0 evicted"
+    public synchronized String summary() {
+        return String.format("%d hits, %d misses (%.0f%% hit rate), %d reports held, %.1f of %.1f MB, %d evicted",
+                hits, misses, hitRate() * 100, entries.size(), bytes / 1048576.0, maxBytes / 1048576.0, evictions);
+    }
+}
@@ -0,0 +1,64 @@
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+// One column of a report: its header and the kind of values it holds (see ReportData)
+public class ReportColumn {
+
+    public enum Type {
+        INT,        // int per row
+        DECIMAL,    // double per row
+        TEXT,       // String per row (titles, comments: mostly distinct)
+        CATEGORY    // dictionary-encoded String (names, venues, types: few distinct values)
+    }
+
+    public final String name;
+    public final Type type;
+    public final int decimals;   // DECIMAL: digits after the point, or -1 for the shortest form
+
+    private ReportColumn(String name, Type type, int decimals) {
+        this.name = name;
+        this.type = type;
+        this.decimals = decimals;
+    }
+
+    public static ReportColumn integer(String name) {
+        return new ReportColumn(name, Type.INT, 0);
+    }
+
+    // Printed like String.valueOf(double)
+    public static ReportColumn decimal(String name) {
+        return new ReportColumn(name, Type.DECIMAL, -1);
+    }
+
+    // Printed like String.format("%.<decimals>f")
+    public static ReportColumn decimal(String name, int decimals) {
+        return new ReportColumn(name, Type.DECIMAL, decimals);
+    }
+
+    public static ReportColumn text(String name) {
+        return new ReportColumn(name, Type.TEXT, 0);
+    }
+
+    public static ReportColumn category(String name) {
+        return new ReportColumn(name, Type.CATEGORY, 0);
+    }
+
+    // Appends a DECIMAL value; nothing for NaN (an empty cell)
+    void appendDecimal(StringBuilder sb, double value) {
+        if (Double.isNaN(value)) return;
+        if (decimals < 0) {
+            sb.append(value);
+        } else {
+            // Formatter rounds the shortest decimal form half-up; BigDecimal.valueOf starts from the same digits
+            sb.append(BigDecimal.valueOf(value).setScale(decimals, RoundingMode.HALF_UP).toPlainString());
+        }
+    }
+
+    static List<String> names(List<ReportColumn> columns) {
+        List<String> names = new ArrayList<>(columns.size());
+        for (ReportColumn c : columns) names.add(c.name);
+        return names;
+    }
+}
@@ -1,9 +1,352 @@
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+
+// A built report, kept by column: ints and decimals in primitive arrays, names / venues / types
+// dictionary-encoded (every distinct value once plus an int code per row), titles and comments
+// as plain Strings. A number cell costs 4 or 8 bytes instead of a String plus its share of a
+// List, and nothing is boxed on the way in or out.
+// It is the ReportSink StreamingReportBuilder.build() streams into.
+public class ReportData implements ReportSink {
+
+    public static final int NO_INT = Integer.MIN_VALUE;   // an empty INT cell
 
-public class ReportData {
     public String title;
-    public List<String> columns = new ArrayList<>();
-    public List<List<String>> rows = new ArrayList<>();
     public List<String> warnings = new ArrayList<>();
+
+    private final List<ReportColumn> columns = new ArrayList<>();
+    private final List<ColumnBuffer> buffers = new ArrayList<>();
+    private int rows;
+    private int cell;   // next column of the row being added
+
+    @Override
+    public void start(String title, List<ReportColumn> columns) {
+        this.title = title;
+        this.columns.clear();
+        this.columns.addAll(columns);
+        buffers.clear();
+        for (ReportColumn c : columns) buffers.add(ColumnBuffer.of(c));
+        rows = 0;
+        cell = 0;
+    }
+
+    @Override
+    public void text(String value) {
+        buffers.get(cell++).addText(value);
+    }
+
+    @Override
+    public void integer(int value) {
+        buffers.get(cell++).addInt(value);
+    }
+
+    @Override
+    public void decimal(double value) {
+        buffers.get(cell++).addDecimal(value);
+    }
+
+    @Override
+    public void empty() {
+        buffers.get(cell++).addEmpty();
+    }
+
+    @Override
+    public void endRow() {
+        if (cell != columns.size()) {
+            throw new IllegalStateException("Row " + rows + " has " + cell + " cells, expected " + columns.size());
+        }
+        rows++;
+        cell = 0;
+    }
+
+    @Override
+    public void warning(String message) {
+        warnings.add(message);
+    }
+
+    public int getRowCount() {
+        return rows;
+    }
+
+    public int getColumnCount() {
+        return columns.size();
+    }
+
+    public ReportColumn getColumn(int column) {
+        return columns.get(column);
+    }
+
+    public List<String> getColumnNames() {
+        return ReportColumn.names(columns);
+    }
+
+    // INT cell (NO_INT if empty)
+    public int getInt(int row, int column) {
+        return ((IntBuffer) buffers.get(column)).values[row];
+    }
+
+    // DECIMAL cell (NaN if empty)
+    public double getDouble(int row, int column) {
+        return ((DecimalBuffer) buffers.get(column)).values[row];
+    }
+
+    // TEXT or CATEGORY cell (null if empty)
+    public String getText(int row, int column) {
+        return buffers.get(column).getText(row);
+    }
+
+    // Appends the cell as it is printed in reports (nothing for an empty cell)
+    public void appendTo(StringBuilder sb, int row, int column) {
+        buffers.get(column).appendTo(sb, row);
+    }
+
+    public String format(int row, int column) {
+        StringBuilder sb = new StringBuilder();
+        appendTo(sb, row, column);
+        return sb.toString();
+    }
+
+    // Pushes the whole report into another sink
+    public void writeTo(ReportSink sink) {
+        sink.start(title, columns);
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns.size(); column++) buffers.get(column).writeTo(sink, row);
+            sink.endRow();
+        }
+        for (String w : warnings) sink.warning(w);
+        sink.finish();
+    }
+
+    // Rough heap size of the stored cells, in bytes
+    public long estimateBytes() {
+        long bytes = 64;
+        for (ColumnBuffer b : buffers) bytes += b.estimateBytes();
+        for (String w : warnings) bytes += 40 + 2L * w.length();
+        return bytes;
+    }
+}
+
+// Growable storage of one column. Only the add / get methods of its type are supported.
+abstract class ColumnBuffer {
+    protected final ReportColumn column;
+
+    ColumnBuffer(ReportColumn column) {
+        this.column = column;
+    }
+
+    static ColumnBuffer of(ReportColumn column) {
+        switch (column.type) {
+            case INT: return new IntBuffer(column);
+            case DECIMAL: return new DecimalBuffer(column);
+            case CATEGORY: return new CategoryBuffer(column);
+            default: return new TextBuffer(column);
+        }
+    }
+
+    void addText(String value) {
+        throw wrongType("text");
+    }
+
+    void addInt(int value) {
+        throw wrongType("an int");
+    }
+
+    void addDecimal(double value) {
+        throw wrongType("a decimal");
+    }
+
+    abstract void addEmpty();
+
+    String getText(int row) {
+        throw wrongType("text");
+    }
+
+    abstract void appendTo(StringBuilder sb, int row);
+
+    abstract void writeTo(ReportSink sink, int row);
+
+    abstract long estimateBytes();
+
+    static int grow(int length) {
+        return Math.max(16, length * 2);
+    }
+
+    static long stringBytes(String s) {
+        return s == null ? 0 : 40 + s.length();   // header + array, mostly Latin-1
+    }
+
+    private IllegalStateException wrongType(String what) {
+        return new IllegalStateException("Column '" + column.name + "' is " + column.type + ", not " + what);
+    }
+}
+
+class IntBuffer extends ColumnBuffer {
+    int[] values = new int[16];
+    int size;
+
+    IntBuffer(ReportColumn column) {
+        super(column);
+    }
+
+    @Override
+    void addInt(int value) {
+        if (size == values.length) values = Arrays.copyOf(values, grow(size));
+        values[size++] = value;
+    }
+
+    @Override
+    void addEmpty() {
+        addInt(ReportData.NO_INT);
+    }
+
+    @Override
+    void appendTo(StringBuilder sb, int row) {
+        if (values[row] != ReportData.NO_INT) sb.append(values[row]);
+    }
+
+    @Override
+    void writeTo(ReportSink sink, int row) {
+        if (values[row] == ReportData.NO_INT) sink.empty();
+        else sink.integer(values[row]);
+    }
+
+    @Override
+    long estimateBytes() {
+        return 16 + 4L * values.length;
+    }
+}
+
+class DecimalBuffer extends ColumnBuffer {
+    double[] values = new double[16];
+    int size;
+
+    DecimalBuffer(ReportColumn column) {
+        super(column);
+    }
+
+    @Override
+    void addDecimal(double value) {
+        if (size == values.length) values = Arrays.copyOf(values, grow(size));
+        values[size++] = value;
+    }
+
+    @Override
+    void addEmpty() {
+        addDecimal(Double.NaN);
+    }
+
+    @Override
+    void appendTo(StringBuilder sb, int row) {
+        column.appendDecimal(sb, values[row]);
+    }
+
+    @Override
+    void writeTo(ReportSink sink, int row) {
+        if (Double.isNaN(values[row])) sink.empty();
+        else sink.decimal(values[row]);
+    }
+
+    @Override
+    long estimateBytes() {
+        return 16 + 8L * values.length;
+    }
+}
+
+class TextBuffer extends ColumnBuffer {
+    String[] values = new String[16];
+    int size;
+
+    TextBuffer(ReportColumn column) {
+        super(column);
+    }
+
+    @Override
+    void addText(String value) {
+        if (size == values.length) values = Arrays.copyOf(values, grow(size));
+        values[size++] = value;
+    }
+
+    @Override
+    void addEmpty() {
+        addText(null);
+    }
+
+    @Override
+    String getText(int row) {
+        return values[row];
+    }
+
+    @Override
+    void appendTo(StringBuilder sb, int row) {
+        if (values[row] != null) sb.append(values[row]);
+    }
+
+    @Override
+    void writeTo(ReportSink sink, int row) {
+        sink.text(values[row]);
+    }
+
+    @Override
+    long estimateBytes() {
+        long bytes = 16 + 4L * values.length;
+        for (int i = 0; i < size; i++) bytes += stringBytes(values[i]);
+        return bytes;
+    }
+}
+
+// Every distinct value once; per row its index in that list (-1 = empty)
+class CategoryBuffer extends ColumnBuffer {
+    final List<String> dictionary = new ArrayList<>();
+    private final Map<String, Integer> codes = new HashMap<>();
+    int[] values = new int[16];
+    int size;
+
+    CategoryBuffer(ReportColumn column) {
+        super(column);
+    }
+
+    @Override
+    void addText(String value) {
+        int code = -1;
+        if (value != null) {
+            Integer known = codes.get(value);
+            if (known == null) {
+                known = dictionary.size();
+                dictionary.add(value);
+                codes.put(value, known);
+            }
+            code = known;
+        }
+        if (size == values.length) values = Arrays.copyOf(values, grow(size));
+        values[size++] = code;
+    }
+
+    @Override
+    void addEmpty() {
+        addText(null);
+    }
+
+    @Override
+    String getText(int row) {
+        return values[row] < 0 ? null : dictionary.get(values[row]);
+    }
+
+    @Override
+    void appendTo(StringBuilder sb, int row) {
+        if (values[row] >= 0) sb.append(dictionary.get(values[row]));
+    }
+
+    @Override
+    void writeTo(ReportSink sink, int row) {
+        sink.text(getText(row));
+    }
+
+    @Override
+    long estimateBytes() {
+        long bytes = 16 + 4L * values.length;
+        for (String s : dictionary) bytes += stringBytes(s) + 48;   // + list slot and map entry
+        return bytes;
+    }
 }
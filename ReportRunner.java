@@ -0,0 +1,179 @@
+import java.io.File;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Headless entry point: builds reports and exports them without opening any window,
+// so reports can be produced from cron / Task Scheduler.
+//
+//   java -cp ".;sqlite-jdbc-3.51.1.0.jar" ReportRunner --report=all --format=csv --out=reports --db=seminar_system.db
+//
+//   --report   schedule, final, award, leaderboard or all (default all); may be a comma list
+//   --format   csv, txt or all (default all)
+//   --gzip     write the CSV files gzipped, as <report>.csv.gz
+//   --out      output folder (default reports), created if missing
+//   --db       database file (default seminar_system.db); must already exist
+//   --startup-budget-ms   warn when startup takes longer than this (default 2000)
+//
+// Startup = JVM boot + opening the database (loading the SQLite native library, PRAGMAs,
+// schema check). It is printed on every run so cron logs show regressions; on a single-core
+// test box it is ~1.4 s, about 0.55 s JVM boot and 0.4 s loading the native library.
+//
+// Files are written as <out>/<report>.<format>. Rows are streamed from the database straight
+// into the files (see StreamingReportBuilder), so memory use does not grow with the report.
+// The reports are built in parallel from one snapshot of the database (see BatchExportJob),
+// so they agree with each other even if the application is saving evaluations meanwhile.
+// Exit code is 0 on success, 1 on bad
+// arguments or a missing database, 2 if any report had warnings or failed to export.
+// Nothing here touches AWT/Swing, and java.awt.headless is set in case a library does.
+public class ReportRunner {
+
+    // Every report the application offers, by command-line name
+    private static final Map<String, Supplier<ReportBuilder>> BUILDERS = new LinkedHashMap<>();
+
+    static {
+        BUILDERS.put("schedule", ScheduleReportBuilder::new);
+        BUILDERS.put("final", FinalEvalReportBuilder::new);
+        BUILDERS.put("award", AwardReportBuilder::new);
+        BUILDERS.put("leaderboard", LeaderboardReportBuilder::new);
+    }
+
+    public static Map<String, Supplier<ReportBuilder>> builders() {
+        return BUILDERS;
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        System.exit(run(args));
+    }
+
+    static int run(String[] args) {
+        long jvmMs = millisSinceJvmStart();   // JVM boot until main()
+
+        String reports = "all";
+        String format = "all";
+        boolean gzip = false;
+        String outDir = "reports";
+        String dbPath = "seminar_system.db";
+        long startupBudgetMs = 2000;
+
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String key = eq < 0 ? arg : arg.substring(0, eq);
+            String value = eq < 0 ? "" : arg.substring(eq + 1);
+            switch (key) {
+                case "--report": reports = value; break;
+                case "--format": format = value; break;
+                case "--out": outDir = value; break;
+                case "--db": dbPath = value; break;
+                case "--gzip": gzip = true; break;
+                case "--startup-budget-ms":
+                    try {
+                        startupBudgetMs = Long.parseLong(value);
+                    } catch (NumberFormatException e) {
+                        startupBudgetMs = -1;
+                    }
+                    if (startupBudgetMs < 0) {
+                        System.out.println("Invalid startup budget: " + value);
+                        return usage();
+                    }
+                    break;
+                default:
+                    System.out.println("Unknown argument: " + arg);
+                    return usage();
+            }
+        }
+
+        List<String> names = new ArrayList<>();
+        for (String name : reports.split(",")) {
+            name = name.trim().toLowerCase();
+            if (name.equals("all")) {
+                names.addAll(BUILDERS.keySet());
+            } else if (BUILDERS.containsKey(name)) {
+                names.add(name);
+            } else {
+                System.out.println("Unknown report: " + name);
+                return usage();
+            }
+        }
+
+        boolean csv = format.equals("csv") || format.equals("all");
+        boolean txt = format.equals("txt") || format.equals("all");
+        if (!csv && !txt) {
+            System.out.println("Unknown format: " + format);
+            return usage();
+        }
+
+        if (!new File(dbPath).isFile()) {
+            System.out.println("Database not found: " + dbPath);
+            return 1;
+        }
+        File out = new File(outDir);
+        if (!out.isDirectory() && !out.mkdirs()) {
+            System.out.println("Cannot create output folder: " + outDir);
+            return 1;
+        }
+
+        // Reports only read, so use the reporting profile; bring an older file up to date first
+        DatabaseHandler.useDatabase(dbPath, DatabaseProfile.READ_ONLY_REPORTING);
+        try (Connection conn = DatabaseHandler.requireConnection()) {
+            SchemaMigrator.migrate(conn);
+        } catch (Exception e) {
+            System.out.println("Cannot open database " + dbPath + ": " + e.getMessage());
+            return 1;
+        }
+
+        long startupMs = millisSinceJvmStart();
+        System.out.println("Startup: " + startupMs + " ms (JVM " + jvmMs + " ms + database " + (startupMs - jvmMs)
+                + " ms), budget " + startupBudgetMs + " ms" + (startupMs > startupBudgetMs ? " - OVER BUDGET" : ""));
+
+        Map<String, Supplier<ReportBuilder>> selected = new LinkedHashMap<>();
+        for (String name : names) selected.put(name, BUILDERS.get(name));
+
+        BatchExportResult job;
+        try {
+            job = BatchExportJob.run(selected, out, csv, txt, gzip);
+        } catch (SQLException e) {
+            System.out.println("Export failed: " + e.getMessage());
+            DatabaseHandler.getPool().shutdown();
+            return 2;
+        }
+
+        int status = 0;
+        for (BatchReport report : job.reports) {
+            ExportResult result = report.result;
+            for (String w : result.warnings) {
+                System.out.println(report.name + ": WARNING: " + w);
+                status = 2;
+            }
+            for (String path : result.paths) {
+                if (path == null) status = 2;
+            }
+            System.out.println(report.name + ": " + result.rows + " rows, built and exported in "
+                    + report.millis + " ms -> " + result.paths);
+        }
+        System.out.println("Exported " + job.reports.size() + " report(s) in " + job.totalMillis + " ms, "
+                + job.parallelism + " at a time from one snapshot (opened in " + job.snapshotMillis + " ms)");
+
+        DatabaseHandler.getPool().shutdown();
+        System.out.println("Total: " + millisSinceJvmStart() + " ms");
+        return status;
+    }
+
+    // Wall time since the JVM process started (includes JVM boot and class loading)
+    private static long millisSinceJvmStart() {
+        return ProcessHandle.current().info().startInstant()
+                .map(start -> System.currentTimeMillis() - start.toEpochMilli())
+                .orElse(-1L);
+    }
+
+    private static int usage() {
+        System.out.println("Usage: java ReportRunner [--report=all|schedule|final|award|leaderboard] [--format=all|csv|txt]"
+                + " [--gzip] [--out=reports] [--db=seminar_system.db] [--startup-budget-ms=2000]");
+        return 1;
+    }
+}
@@ -0,0 +1,26 @@
+import java.util.List;
+
+// Receives a report one cell at a time from a StreamingReportBuilder: start() once, then per
+// row one call per cell in column order followed by endRow(), warnings at any point after
+// start(), and finish() once at the end (also after an error). The cell calls carry ints and
+// doubles as they are, so a sink can keep them in primitive arrays (ReportData) or format them
+// straight into a file (Exporter) without boxing. A sink that writes rows out instead of
+// keeping them needs the same memory for a hundred rows as for a million.
+public interface ReportSink {
+    void start(String title, List<ReportColumn> columns);
+
+    void text(String value);      // TEXT and CATEGORY columns; null is an empty cell
+
+    void integer(int value);      // INT columns
+
+    void decimal(double value);   // DECIMAL columns; NaN is an empty cell
+
+    void empty();                 // an empty cell in a column of any type
+
+    void endRow();
+
+    void warning(String message);
+
+    default void finish() {
+    }
+}
@@ -0,0 +1,132 @@
+import java.io.File;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+// Heap and time of exporting a report the old way (build() the whole ReportData, then
+// exportCSV + exportTXT walk it) against streaming it (Exporter.export: rows go from the
+// ResultSet straight into both files).
+//
+//   java -cp ".;sqlite-jdbc-3.51.1.0.jar" ReportStreamBenchmark [submissions]   (default 100000)
+//
+// Uses bench-db/synthetic-<submissions>.db (generated if missing). Every report and mode runs
+// in its own JVM with the same -Xmx, so one run's garbage cannot count against the next.
+// Heap is the largest heap use right after a GC seen during the run: what the export really
+// keeps alive, not how much garbage it made.
+public class ReportStreamBenchmark {
+
+    private static final String HEAP = "-Xmx2g";
+    private static final int RUNS = 3;    // per child; the best time is reported
+
+    private static final Map<String, Supplier<StreamingReportBuilder>> REPORTS = Map.of(
+            "schedule", ScheduleReportBuilder::new,
+            "final", FinalEvalReportBuilder::new);
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 4 && args[0].equals("--child")) {
+            runChild(args[1], args[2], args[3]);
+            return;
+        }
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+
+        File dir = new File("bench-db");
+        dir.mkdirs();
+        File db = new File(dir, "synthetic-" + size + ".db");
+        if (!db.exists()) {
+            DatabaseHandler.useDatabase(db.getPath(), DatabaseProfile.BULK_LOAD);
+            DataGenerator.generate(DataGenerator.forSubmissions(size, 42L));
+            DatabaseHandler.getPool().shutdown();
+        }
+        DatabaseHandler.useDatabase(db.getPath(), DatabaseProfile.INTERACTIVE);
+        DatabaseHandler.createNewTable();   // bring an older file up to date before the children read it
+        DatabaseHandler.getPool().shutdown();
+
+        String java = ProcessHandle.current().info().command().orElse("java");
+        System.out.printf("%-10s %-12s %10s %12s %14s%n", "report", "mode", "rows", "best ms", "peak heap MB");
+        for (String report : List.of("schedule", "final")) {
+            for (String mode : List.of("materialize", "stream")) {
+                Process child = new ProcessBuilder(java, HEAP, "-cp", System.getProperty("java.class.path"),
+                        ReportStreamBenchmark.class.getName(), "--child", db.getPath(), report, mode)
+                        .redirectErrorStream(true)
+                        .start();
+                String line = null;
+                for (String l : new String(child.getInputStream().readAllBytes()).split("\n")) {
+                    if (l.startsWith("RESULT ")) line = l;
+                }
+                child.waitFor();
+                if (line == null) {
+                    System.out.printf("%-10s %-12s %10s%n", report, mode, "failed (exit " + child.exitValue() + ")");
+                    continue;
+                }
+                String[] r = line.split(" ");
+                System.out.printf("%-10s %-12s %10s %12s %14.1f%n", report, mode, r[1], r[2],
+                        Long.parseLong(r[3]) / 1024.0 / 1024.0);
+            }
+        }
+    }
+
+    // One report in one mode; prints "RESULT rows bestMs peakHeapBytes"
+    private static void runChild(String dbPath, String report, String mode) throws Exception {
+        DatabaseHandler.useDatabase(dbPath, DatabaseProfile.READ_ONLY_REPORTING);
+        AtomicLong peak = watchHeapAfterGc();
+        File out = File.createTempFile("report-stream", "");
+        String base = out.getPath();
+
+        long rows = 0;
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            StreamingReportBuilder builder = REPORTS.get(report).get();
+            long t = System.nanoTime();
+            if (mode.equals("materialize")) {
+                ReportData data = builder.build();
+                System.gc();   // the rows are all alive here
+                Exporter.exportCSV(data, base);
+                Exporter.exportTXT(data, base);
+                rows = data.getRowCount();
+            } else {
+                rows = Exporter.export(builder, base, true, true).rows;
+                System.gc();   // same point of the export
+            }
+            best = Math.min(best, System.nanoTime() - t);
+        }
+        Thread.sleep(200);   // GC notifications are delivered asynchronously
+
+        for (String suffix : new String[]{"", ".csv", ".txt"}) new File(base + suffix).delete();
+        DatabaseHandler.getPool().shutdown();
+        System.out.println("RESULT " + rows + " " + best / 1_000_000 + " " + peak.get());
+    }
+
+    // Largest heap use right after any GC from now on
+    private static AtomicLong watchHeapAfterGc() {
+        Set<String> heapPools = new HashSet<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) heapPools.add(pool.getName());
+        }
+
+        AtomicLong peak = new AtomicLong();
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            ((NotificationEmitter) gc).addNotificationListener((n, handback) -> {
+                if (!n.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) return;
+                GarbageCollectionNotificationInfo info =
+                        GarbageCollectionNotificationInfo.from((CompositeData) n.getUserData());
+                long used = 0;
+                for (Map.Entry<String, MemoryUsage> e : info.getGcInfo().getMemoryUsageAfterGc().entrySet()) {
+                    if (heapPools.contains(e.getKey())) used += e.getValue().getUsed();
+                }
+                peak.accumulateAndGet(used, Math::max);
+            }, null, null);
+        }
+        return peak;
+    }
+}
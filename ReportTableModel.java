@@ -0,0 +1,37 @@
+import javax.swing.table.AbstractTableModel;
+
+// Shows a ReportData in a JTable straight from its column arrays. Cells are only turned into
+// text when the table paints them, so a big report costs no more than the visible rows.
+public class ReportTableModel extends AbstractTableModel {
+
+    private final ReportData data;
+
+    public ReportTableModel(ReportData data) {
+        this.data = data;
+    }
+
+    @Override
+    public int getRowCount() {
+        return data.getRowCount();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return data.getColumnCount();
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return data.getColumn(column).name;
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return data.format(row, column);
+    }
+}
@@ -1,27 +1,35 @@
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.util.List;
+import java.io.File;
 
 public class ReportsPanel extends JPanel {
 
-    private final DefaultTableModel model = new DefaultTableModel();
-    private final JTable table = new JTable(model);
+    private final JTable table = new JTable();
     private final JTextArea msg = new JTextArea(4, 30);
 
+    // The report on screen, kept by column (see ReportData); exports write exactly this
     private ReportData current = null;
 
+    // Runs report queries off the EDT; cancelled in removeNotify when the window closes
+    private final UiTaskRunner tasks = new UiTaskRunner();
+
+    // Reports are only rebuilt when a table they read has changed
+    private final ReportCache cache = ReportCache.DEFAULT;
+
     public ReportsPanel() {
         setLayout(new BorderLayout(10,10));
 
         JButton b1 = new JButton("Schedule Report");
         JButton b2 = new JButton("Final Evaluation Report");
         JButton b3 = new JButton("Award Agenda");
+        JButton b4 = new JButton("Leaderboard");
         JButton csv = new JButton("Export CSV");
         JButton txt = new JButton("Export TXT");
+        JButton all = new JButton("Export All Reports");
 
         JPanel top = new JPanel(new FlowLayout(FlowLayout.LEFT));
-        top.add(b1); top.add(b2); top.add(b3); top.add(csv); top.add(txt);
+        top.add(b1); top.add(b2); top.add(b3); top.add(b4); top.add(csv); top.add(txt); top.add(all);
+        top.add(tasks.getProgressBar());
         add(top, BorderLayout.NORTH);
 
         add(new JScrollPane(table), BorderLayout.CENTER);
@@ -31,22 +39,35 @@ public class ReportsPanel extends JPanel {
         b1.addActionListener(e -> load(new ScheduleReportBuilder()));
         b2.addActionListener(e -> load(new FinalEvalReportBuilder()));
         b3.addActionListener(e -> load(new AwardReportBuilder()));
+        b4.addActionListener(e -> load(new LeaderboardReportBuilder()));
 
         csv.addActionListener(e -> exportCSV());
         txt.addActionListener(e -> exportTXT());
+        all.addActionListener(e -> exportAll());
     }
 
     private void load(ReportBuilder builder) {
-        current = builder.build();
-        render(current);
+        tasks.run(() -> cache.get(builder),
+                report -> {
+                    current = report.data;
+                    render(current);
+                    msg.append((report.hit ? "Unchanged since last run, shown from memory" : "Built from the database")
+                            + " in " + report.millis + " ms\n");
+                    msg.append("Report cache: " + cache.summary() + "\n");
+                },
+                ex -> msg.setText("WARNING: " + ex.getMessage() + "\n"));
     }
 
-    private void render(ReportData r) {
-        model.setRowCount(0);
-        model.setColumnCount(0);
+    // Called when the panel leaves its window (e.g. the dashboard is disposed)
+    @Override
+    public void removeNotify() {
+        tasks.cancelAll();
+        super.removeNotify();
+    }
 
-        for (String c : r.columns) model.addColumn(c);
-        for (List<String> row : r.rows) model.addRow(row.toArray(new String[0]));
+    // The table reads the columns directly (see ReportTableModel)
+    private void render(ReportData r) {
+        table.setModel(new ReportTableModel(r));
 
         msg.setText("");
         if (!r.warnings.isEmpty()) {
@@ -60,10 +81,33 @@ public class ReportsPanel extends JPanel {
         if (current == null) { JOptionPane.showMessageDialog(this, "Generate a report first."); return; }
         JFileChooser fc = new JFileChooser();
         if (fc.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
-        String saved = Exporter.exportCSV(current, fc.getSelectedFile().getAbsolutePath());
+        String path = fc.getSelectedFile().getAbsolutePath();
+        String saved = Exporter.exportCSV(current, path, path.endsWith(".gz"));   // report.csv.gz is gzipped
         JOptionPane.showMessageDialog(this, "Saved: " + saved);
     }
 
+    // Every report as CSV and TXT into one folder, all from the same snapshot (see BatchExportJob)
+    private void exportAll() {
+        JFileChooser fc = new JFileChooser();
+        fc.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if (fc.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        File dir = fc.getSelectedFile();
+
+        msg.setText("Exporting all reports to " + dir + " ...\n");
+        tasks.run(() -> BatchExportJob.run(ReportRunner.builders(), dir, true, true, false),
+                job -> {
+                    msg.setText("");
+                    for (BatchReport report : job.reports) {
+                        msg.append(report.name + ": " + report.result.rows + " rows in " + report.millis + " ms\n");
+                        for (String w : report.result.warnings) msg.append("  WARNING: " + w + "\n");
+                        if (report.result.paths.contains(null)) msg.append("  WARNING: a file could not be written\n");
+                    }
+                    msg.append("All reports exported to " + dir + " in " + job.totalMillis + " ms ("
+                            + job.parallelism + " at a time, one snapshot)\n");
+                },
+                ex -> msg.setText("WARNING: " + ex.getMessage() + "\n"));
+    }
+
     private void exportTXT() {
         if (current == null) { JOptionPane.showMessageDialog(this, "Generate a report first."); return; }
         JFileChooser fc = new JFileChooser();
@@ -0,0 +1,115 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// One criterion of a rubric (a row of rubric_criteria)
+class RubricCriterion {
+    public int criterionId;
+    public String sessionType;   // Oral Presentation / Poster Presentation
+    public String code;          // stable key, e.g. "clarity"; scores are stored under it
+    public String label;         // shown in the dialog and as report column
+    public double weight;
+    public int minScore;
+    public int maxScore;
+    public int position;         // order in the dialog and the report
+}
+
+// The criteria one session type is graded on, and how they add up to the total.
+//
+// total = TOTAL_SCALE * sum(weight * (score - min) / (max - min)) / sum(weight)
+//
+// over the criteria the evaluation has a score for, so every type is on the same 0-20 scale
+// whatever its ranges and weights, and an evaluation made before a criterion was added is not
+// pulled down by it. The default rubric (four criteria, 0-5, weight 1) gives the plain sum of
+// the four scores, which is what the total always was.
+public class Rubric {
+
+    public static final double TOTAL_SCALE = 20.0;
+
+    // Criteria that also have their own column in evaluations, kept filled for older readers
+    static final String CLARITY = "clarity";
+    static final String METHODOLOGY = "methodology";
+    static final String RESULTS = "results";
+    static final String PRESENTATION = "presentation";
+
+    private final String sessionType;
+    private final List<RubricCriterion> criteria;
+
+    public Rubric(String sessionType, List<RubricCriterion> criteria) {
+        this.sessionType = sessionType;
+        this.criteria = Collections.unmodifiableList(new ArrayList<>(criteria));
+    }
+
+    public String getSessionType() {
+        return sessionType;
+    }
+
+    // In position order
+    public List<RubricCriterion> getCriteria() {
+        return criteria;
+    }
+
+    // True for a type without a rubric; evaluations of it keep the total they were given
+    public boolean isEmpty() {
+        return criteria.isEmpty();
+    }
+
+    public RubricCriterion find(String code) {
+        for (RubricCriterion c : criteria) {
+            if (c.code.equals(code)) return c;
+        }
+        return null;
+    }
+
+    // Weighted total of the given scores (criterion code -> score), rounded to 4 decimals so
+    // equal scores always give exactly the same total
+    public double total(Map<String, Integer> scores) {
+        double weighted = 0;
+        double weights = 0;
+        for (RubricCriterion c : criteria) {
+            Integer score = scores.get(c.code);
+            if (score == null) continue;
+
+            double fraction = (double) (score - c.minScore) / (c.maxScore - c.minScore);
+            weighted += c.weight * Math.min(1.0, Math.max(0.0, fraction));
+            weights += c.weight;
+        }
+        if (weights == 0) return 0;
+        return Math.round(TOTAL_SCALE * weighted / weights * 10000) / 10000.0;
+    }
+
+    // Makes an evaluation ready to be written: scores taken from the old columns when the caller
+    // only filled those, checked against the ranges, total computed, old columns filled in
+    void prepare(Evaluation e) {
+        if (isEmpty()) return;
+
+        if (e.scores.isEmpty()) {
+            Map<String, Integer> legacy = new LinkedHashMap<>();
+            legacy.put(CLARITY, e.clarity);
+            legacy.put(METHODOLOGY, e.methodology);
+            legacy.put(RESULTS, e.results);
+            legacy.put(PRESENTATION, e.presentation);
+            for (Map.Entry<String, Integer> s : legacy.entrySet()) {
+                if (find(s.getKey()) != null) e.scores.put(s.getKey(), s.getValue());
+            }
+        }
+
+        for (Map.Entry<String, Integer> s : e.scores.entrySet()) {
+            RubricCriterion c = find(s.getKey());
+            if (c == null) {
+                throw new IllegalArgumentException("'" + s.getKey() + "' is not a criterion for " + sessionType);
+            }
+            if (s.getValue() < c.minScore || s.getValue() > c.maxScore) {
+                throw new IllegalArgumentException(c.label + " must be between " + c.minScore + " and " + c.maxScore);
+            }
+        }
+
+        e.total = total(e.scores);
+        e.clarity = e.scores.getOrDefault(CLARITY, 0);
+        e.methodology = e.scores.getOrDefault(METHODOLOGY, 0);
+        e.results = e.scores.getOrDefault(RESULTS, 0);
+        e.presentation = e.scores.getOrDefault(PRESENTATION, 0);
+    }
+}
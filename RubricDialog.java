@@ -0,0 +1,114 @@
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+
+// RubricDialog lets the coordinator edit the criteria, ranges and weights of each session type.
+// Saving recomputes the total of every evaluation of that type (see RubricRepository.save).
+public class RubricDialog extends JDialog {
+
+    private static final String[] TYPES = {"Oral Presentation", "Poster Presentation"};
+
+    private final JComboBox<String> typeBox = new JComboBox<>(TYPES);
+    private final DefaultTableModel model = new DefaultTableModel(
+            new String[]{"Code", "Label", "Weight", "Min", "Max"}, 0) {
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return column == 2 ? Double.class : column >= 3 ? Integer.class : String.class;
+        }
+
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            return column != 0 || "".equals(getValueAt(row, 0));   // codes are fixed once saved
+        }
+    };
+    private final JTable table = new JTable(model);
+
+    private final UiTaskRunner tasks = new UiTaskRunner(this);
+
+    public RubricDialog(Frame owner) {
+        super(owner, "Evaluation Rubrics", true);
+        setSize(620, 360);
+        setLocationRelativeTo(owner);
+        setLayout(new BorderLayout());
+
+        JPanel top = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        top.add(new JLabel("Session type:"));
+        top.add(typeBox);
+        add(top, BorderLayout.NORTH);
+
+        table.getColumnModel().getColumn(1).setPreferredWidth(220);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+
+        JPanel btn = new JPanel();
+        JButton addBtn = new JButton("Add Criterion");
+        JButton removeBtn = new JButton("Remove Selected");
+        JButton saveBtn = new JButton("Save and Recompute Totals");
+        JButton closeBtn = new JButton("Close");
+        btn.add(addBtn);
+        btn.add(removeBtn);
+        btn.add(saveBtn);
+        btn.add(closeBtn);
+        btn.add(tasks.getProgressBar());
+        add(btn, BorderLayout.SOUTH);
+
+        typeBox.addActionListener(e -> load());
+        addBtn.addActionListener(e -> model.addRow(new Object[]{"", "", 1.0, 0, 5}));
+        removeBtn.addActionListener(e -> {
+            int row = table.getSelectedRow();
+            if (row >= 0) model.removeRow(table.convertRowIndexToModel(row));
+        });
+        saveBtn.addActionListener(e -> save());
+        closeBtn.addActionListener(e -> dispose());
+
+        load();
+        setVisible(true);
+    }
+
+    private void load() {
+        String type = (String) typeBox.getSelectedItem();
+        tasks.run(() -> RubricRepository.find(type),
+                rubric -> {
+                    model.setRowCount(0);
+                    for (RubricCriterion c : rubric.getCriteria()) {
+                        model.addRow(new Object[]{c.code, c.label, c.weight, c.minScore, c.maxScore});
+                    }
+                },
+                ex -> JOptionPane.showMessageDialog(this, "Database Error: " + ex.getMessage()));
+    }
+
+    private void save() {
+        if (table.isEditing()) table.getCellEditor().stopCellEditing();
+
+        String type = (String) typeBox.getSelectedItem();
+        List<RubricCriterion> criteria = new ArrayList<>();
+        for (int row = 0; row < model.getRowCount(); row++) {
+            RubricCriterion c = new RubricCriterion();
+            c.label = text(model.getValueAt(row, 1));
+            c.code = text(model.getValueAt(row, 0));
+            if (c.code.isEmpty()) c.code = c.label.toLowerCase().replaceAll("[^a-z0-9]+", "_");
+            c.weight = model.getValueAt(row, 2) == null ? 0 : (Double) model.getValueAt(row, 2);
+            c.minScore = model.getValueAt(row, 3) == null ? 0 : (Integer) model.getValueAt(row, 3);
+            c.maxScore = model.getValueAt(row, 4) == null ? 0 : (Integer) model.getValueAt(row, 4);
+            criteria.add(c);
+        }
+
+        int answer = JOptionPane.showConfirmDialog(this,
+                "Save the rubric for " + type + "?\nThe totals of all its evaluations are recomputed.",
+                "Save Rubric", JOptionPane.OK_CANCEL_OPTION);
+        if (answer != JOptionPane.OK_OPTION) return;
+
+        tasks.run(() -> RubricRepository.save(type, criteria),
+                changed -> {
+                    JOptionPane.showMessageDialog(this, "Rubric saved. " + changed + " evaluation total(s) changed.");
+                    load();
+                },
+                ex -> JOptionPane.showMessageDialog(this, "Could not save: " + ex.getMessage(),
+                        "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private static String text(Object value) {
+        return value == null ? "" : value.toString().trim();
+    }
+}
@@ -0,0 +1,243 @@
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// All SQL for rubric_criteria and evaluation_scores.
+// evaluations.total is the weighted total of the scores under the current rubric. It is
+// computed when an evaluation is written (see EvaluationRepository) and recomputed here for
+// every evaluation of a type when its rubric changes, so nothing that reads totals (awards,
+// reports, the leaderboard) has to know about rubrics.
+public class RubricRepository {
+
+    private static final String SELECT =
+        "SELECT criterion_id, session_type, code, label, weight, min_score, max_score, position " +
+        "FROM rubric_criteria ";
+
+    // The rubric of one session type (empty if it has none)
+    public static Rubric find(String sessionType) throws SQLException {
+        try (Connection conn = DatabaseHandler.requireConnection()) {
+            return find(conn, sessionType);
+        }
+    }
+
+    static Rubric find(Connection conn, String sessionType) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SELECT + "WHERE session_type = ? ORDER BY position")) {
+            ps.setString(1, sessionType);
+            return new Rubric(sessionType, readAll(ps));
+        }
+    }
+
+    // The rubric a submission is graded on, from its type
+    public static Rubric findForSubmission(int submitId) throws SQLException {
+        try (Connection conn = DatabaseHandler.requireConnection()) {
+            return findForSubmission(conn, submitId);
+        }
+    }
+
+    static Rubric findForSubmission(Connection conn, int submitId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT type FROM submissions WHERE submit_id = ?")) {
+            ps.setInt(1, submitId);
+            try (ResultSet rs = ps.executeQuery()) {
+                String type = rs.next() ? rs.getString(1) : null;
+                return type == null ? new Rubric(null, List.of()) : find(conn, type);
+            }
+        }
+    }
+
+    // Every rubric by session type
+    public static Map<String, Rubric> findAll() throws SQLException {
+        try (Connection conn = DatabaseHandler.requireConnection()) {
+            return findAll(conn);
+        }
+    }
+
+    static Map<String, Rubric> findAll(Connection conn) throws SQLException {
+        Map<String, List<RubricCriterion>> byType = new LinkedHashMap<>();
+        try (PreparedStatement ps = conn.prepareStatement(SELECT + "ORDER BY session_type, position")) {
+            for (RubricCriterion c : readAll(ps)) {
+                byType.computeIfAbsent(c.sessionType, t -> new ArrayList<>()).add(c);
+            }
+        }
+        Map<String, Rubric> rubrics = new LinkedHashMap<>();
+        for (Map.Entry<String, List<RubricCriterion>> e : byType.entrySet()) {
+            rubrics.put(e.getKey(), new Rubric(e.getKey(), e.getValue()));
+        }
+        return rubrics;
+    }
+
+    // Replaces the rubric of a session type with the given criteria (in this order) and
+    // recomputes the totals of its evaluations, all in one transaction. Criteria are matched
+    // by code, so scores given under a kept criterion stay; scores under a removed one are
+    // deleted. Returns the number of evaluations whose total changed.
+    public static int save(String sessionType, List<RubricCriterion> criteria) throws SQLException {
+        validate(criteria);
+
+        String insert = "INSERT INTO rubric_criteria(session_type, code, label, weight, min_score, max_score, position) " +
+                        "VALUES(?,?,?,?,?,?,?)";
+        String update = "UPDATE rubric_criteria SET label=?, weight=?, min_score=?, max_score=?, position=? " +
+                        "WHERE criterion_id=?";
+
+        return DatabaseHandler.inWriteTransaction(conn -> {
+            Rubric old = find(conn, sessionType);
+            Set<String> kept = new HashSet<>();
+
+            for (int i = 0; i < criteria.size(); i++) {
+                RubricCriterion c = criteria.get(i);
+                RubricCriterion existing = old.find(c.code);
+                kept.add(c.code);
+
+                if (existing == null) {
+                    try (PreparedStatement ps = conn.prepareStatement(insert)) {
+                        ps.setString(1, sessionType);
+                        ps.setString(2, c.code);
+                        ps.setString(3, c.label);
+                        ps.setDouble(4, c.weight);
+                        ps.setInt(5, c.minScore);
+                        ps.setInt(6, c.maxScore);
+                        ps.setInt(7, i + 1);
+                        ps.executeUpdate();
+                    }
+                } else {
+                    try (PreparedStatement ps = conn.prepareStatement(update)) {
+                        ps.setString(1, c.label);
+                        ps.setDouble(2, c.weight);
+                        ps.setInt(3, c.minScore);
+                        ps.setInt(4, c.maxScore);
+                        ps.setInt(5, i + 1);
+                        ps.setInt(6, existing.criterionId);
+                        ps.executeUpdate();
+                    }
+                }
+            }
+
+            for (RubricCriterion c : old.getCriteria()) {
+                if (kept.contains(c.code)) continue;
+                for (String sql : new String[]{"DELETE FROM evaluation_scores WHERE criterion_id = ?",
+                                               "DELETE FROM rubric_criteria WHERE criterion_id = ?"}) {
+                    try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                        ps.setInt(1, c.criterionId);
+                        ps.executeUpdate();
+                    }
+                }
+            }
+
+            return recompute(conn, sessionType);
+        });
+    }
+
+    // Recomputes the total of every evaluation of the type from its stored scores, in one pass
+    // ordered by evaluation, and writes back only the totals that changed. The per-submission
+    // and per-evaluator aggregates are rebuilt afterwards if anything changed.
+    // Returns the number of evaluations whose total changed.
+    static int recompute(Connection conn, String sessionType) throws SQLException {
+        Rubric rubric = find(conn, sessionType);
+        if (rubric.isEmpty()) return 0;
+
+        String scan = "SELECT e.eval_id, e.total, c.code, es.score " +
+                      "FROM evaluations e " +
+                      "JOIN submissions s ON s.submit_id = e.submit_id " +
+                      "JOIN evaluation_scores es ON es.eval_id = e.eval_id " +
+                      "JOIN rubric_criteria c ON c.criterion_id = es.criterion_id " +
+                      "WHERE s.type = ? ORDER BY e.eval_id";
+        int changed = 0;
+
+        try (PreparedStatement read = conn.prepareStatement(scan);
+             PreparedStatement write = conn.prepareStatement("UPDATE evaluations SET total = ? WHERE eval_id = ?")) {
+            read.setString(1, sessionType);
+            try (ResultSet rs = read.executeQuery()) {
+                int evalId = -1;
+                double oldTotal = 0;
+                Map<String, Integer> scores = new LinkedHashMap<>();
+
+                while (true) {
+                    boolean more = rs.next();
+                    if (!more || rs.getInt(1) != evalId) {
+                        if (evalId != -1) {
+                            double total = rubric.total(scores);
+                            if (total != oldTotal) {
+                                write.setDouble(1, total);
+                                write.setInt(2, evalId);
+                                write.addBatch();
+                                changed++;
+                            }
+                        }
+                        if (!more) break;
+                        evalId = rs.getInt(1);
+                        oldTotal = rs.getDouble(2);
+                        scores.clear();
+                    }
+                    scores.put(rs.getString(3), rs.getInt(4));
+                }
+            }
+            if (changed > 0) write.executeBatch();
+        }
+
+        if (changed > 0) {
+            ScoreRepository.rebuild(conn);
+            EvaluatorStatsRepository.rebuild(conn);
+        }
+        return changed;
+    }
+
+    // Stores the scores of evaluations that were just written (evalId filled in), replacing
+    // any scores they had. rubrics.get(i) is the rubric of evaluations.get(i).
+    static void saveScores(Connection conn, List<Evaluation> evaluations, List<Rubric> rubrics) throws SQLException {
+        try (PreparedStatement del = conn.prepareStatement("DELETE FROM evaluation_scores WHERE eval_id = ?");
+             PreparedStatement ins = conn.prepareStatement(
+                     "INSERT INTO evaluation_scores(eval_id, criterion_id, score) VALUES(?,?,?)")) {
+            for (int i = 0; i < evaluations.size(); i++) {
+                Evaluation e = evaluations.get(i);
+                Rubric rubric = rubrics.get(i);
+                del.setInt(1, e.evalId);
+                del.addBatch();
+
+                for (Map.Entry<String, Integer> s : e.scores.entrySet()) {
+                    RubricCriterion c = rubric.find(s.getKey());
+                    if (c == null) continue;   // prepare() already rejected these
+                    ins.setInt(1, e.evalId);
+                    ins.setInt(2, c.criterionId);
+                    ins.setInt(3, s.getValue());
+                    ins.addBatch();
+                }
+            }
+            del.executeBatch();
+            ins.executeBatch();
+        }
+    }
+
+    private static void validate(List<RubricCriterion> criteria) {
+        if (criteria.isEmpty()) throw new IllegalArgumentException("A rubric needs at least one criterion");
+
+        Set<String> codes = new HashSet<>();
+        for (RubricCriterion c : criteria) {
+            if (c.code == null || c.code.isBlank()) throw new IllegalArgumentException("Every criterion needs a code");
+            if (!codes.add(c.code)) throw new IllegalArgumentException("Criterion '" + c.code + "' is listed twice");
+            if (c.label == null || c.label.isBlank()) throw new IllegalArgumentException("Criterion '" + c.code + "' needs a label");
+            if (!(c.weight > 0)) throw new IllegalArgumentException(c.label + ": weight must be above 0");
+            if (c.maxScore <= c.minScore) throw new IllegalArgumentException(c.label + ": max must be above min");
+        }
+    }
+
+    private static List<RubricCriterion> readAll(PreparedStatement ps) throws SQLException {
+        List<RubricCriterion> list = new ArrayList<>();
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                RubricCriterion c = new RubricCriterion();
+                c.criterionId = rs.getInt("criterion_id");
+                c.sessionType = rs.getString("session_type");
+                c.code = rs.getString("code");
+                c.label = rs.getString("label");
+                c.weight = rs.getDouble("weight");
+                c.minScore = rs.getInt("min_score");
+                c.maxScore = rs.getInt("max_score");
+                c.position = rs.getInt("position");
+                list.add(c);
+            }
+        }
+        return list;
+    }
+}
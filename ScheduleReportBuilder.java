@@ -1,46 +1,45 @@
-import java.sql.*;
 import java.util.List;
 
-public class ScheduleReportBuilder implements ReportBuilder {
+public class ScheduleReportBuilder implements StreamingReportBuilder {
 
-    @Override
-    public ReportData build() {
-        ReportData r = new ReportData();
-        r.title = "Schedule Report";
-        r.columns = List.of("Session Type", "Date", "Time", "Venue", "Student", "Title", "Evaluator");
+    // Everything the report reads, directly or through derived tables (see ReportCache)
+    static final String[] TABLES = {"sessions", "assignments", "users", "submissions"};
 
-        String sql =
-            "SELECT se.session_type, se.date, se.time, se.venue, " +
-            "stu.username AS student_name, sub.title, eva.username AS evaluator_name " +
-            "FROM sessions se " +
-            "LEFT JOIN assignments a ON a.session_id = se.session_id " +
-            "LEFT JOIN users stu ON stu.user_id = a.student_id " +
-            "LEFT JOIN submissions sub ON sub.student_id = a.student_id " +
-            "LEFT JOIN users eva ON eva.user_id = a.evaluator_id " +
-            "ORDER BY se.date, se.time";
+    @Override
+    public String[] tables() {
+        return TABLES;
+    }
 
-        try (Connection conn = DatabaseHandler.connect();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
+    @Override
+    public void stream(ReportSink sink) {
+        sink.start("Schedule Report", List.of(
+                ReportColumn.category("Session Type"),
+                ReportColumn.category("Date"),
+                ReportColumn.category("Time"),
+                ReportColumn.category("Venue"),
+                ReportColumn.category("Student"),
+                ReportColumn.category("Title"),
+                ReportColumn.category("Evaluator")));
 
-            boolean any = false;
-            while (rs.next()) {
-                any = true;
-                r.rows.add(List.of(
-                        safe(rs.getString("session_type")),
-                        safe(rs.getString("date")),
-                        safe(rs.getString("time")),
-                        safe(rs.getString("venue")),
-                        safe(rs.getString("student_name")),
-                        safe(rs.getString("title")),
-                        safe(rs.getString("evaluator_name"))
-                ));
-            }
-            if (!any) r.warnings.add("No schedule data found.");
+        try {
+            long[] count = {0};
+            SessionRepository.scanScheduleRows(s -> {
+                sink.text(safe(s.sessionType));
+                sink.text(safe(s.date));
+                sink.text(safe(s.time));
+                sink.text(safe(s.venue));
+                sink.text(safe(s.studentName));
+                sink.text(safe(s.title));
+                sink.text(safe(s.evaluatorName));
+                sink.endRow();
+                count[0]++;
+            });
+            boolean any = count[0] > 0;
+            if (!any) sink.warning("No schedule data found.");
         } catch (Exception e) {
-            r.warnings.add("DB error: " + e.getMessage());
+            sink.warning("DB error: " + e.getMessage());
         }
-        return r;
+        sink.finish();
     }
 
     private String safe(String s) {
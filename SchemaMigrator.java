@@ -0,0 +1,330 @@
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+// Versioned schema migrations.
+// Each migration runs in its own transaction and is recorded in schema_version,
+// so startup does no DDL at all once the database is up to date.
+// To change the schema, ADD a new migration at the end - never edit an old one.
+public class SchemaMigrator {
+
+    // One numbered schema change
+    static class Migration {
+        final int version;
+        final String description;
+        final String[] statements;
+
+        Migration(int version, String description, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = statements;
+        }
+    }
+
+    private static final List<Migration> MIGRATIONS = new ArrayList<>();
+
+    static {
+        // 1. Original tables (same as the old createNewTable block).
+        //    IF NOT EXISTS keeps this safe on databases created before migrations existed.
+        MIGRATIONS.add(new Migration(1, "initial tables",
+            "CREATE TABLE IF NOT EXISTS users (\n"
+                + " user_id text PRIMARY KEY,\n"
+                + " username text NOT NULL UNIQUE,\n"
+                + " password text NOT NULL,\n"
+                + " role text NOT NULL\n"
+                + ")",
+            "CREATE TABLE IF NOT EXISTS submissions (\n"
+                + " submit_id integer PRIMARY KEY AUTOINCREMENT,\n"
+                + " title text,\n"
+                + " abstract text,\n"
+                + " supervisor text,\n"
+                + " type text,\n"
+                + " filepath text,\n"
+                + " student_id text,\n"
+                + " FOREIGN KEY (student_id) REFERENCES users(user_id)\n"
+                + ")",
+            "CREATE TABLE IF NOT EXISTS sessions (\n"
+                + " session_id integer PRIMARY KEY AUTOINCREMENT,\n"
+                + " date text,\n"
+                + " time text,\n"
+                + " venue text,\n"
+                + " session_type text\n" // Oral or Poster
+                + ")",
+            "CREATE TABLE IF NOT EXISTS assignments (\n"
+                + " assign_id integer PRIMARY KEY AUTOINCREMENT,\n"
+                + " session_id integer,\n"
+                + " student_id text,\n"
+                + " evaluator_id text,\n"
+                + " FOREIGN KEY (session_id) REFERENCES sessions(session_id),\n"
+                + " FOREIGN KEY (student_id) REFERENCES users(user_id),\n"
+                + " FOREIGN KEY (evaluator_id) REFERENCES users(user_id)\n"
+                + ")",
+            "CREATE TABLE IF NOT EXISTS evaluations (\n"
+                + " eval_id integer PRIMARY KEY AUTOINCREMENT,\n"
+                + " evaluator_id text,\n"
+                + " submit_id integer,\n"
+                + " clarity integer,\n"
+                + " methodology integer,\n"
+                + " results integer,\n"
+                + " presentation integer,\n"
+                + " total real,\n"
+                + " comments text,\n"
+                + " FOREIGN KEY (evaluator_id) REFERENCES users(user_id),\n"
+                + " FOREIGN KEY (submit_id) REFERENCES submissions(submit_id)\n"
+                + ")",
+            "CREATE TABLE IF NOT EXISTS awards (\n"
+                + " award_id integer PRIMARY KEY AUTOINCREMENT,\n"
+                + " award_type text,\n"
+                + " submit_id integer,\n"
+                + " total real,\n"
+                + " FOREIGN KEY (submit_id) REFERENCES submissions(submit_id)\n"
+                + ")",
+            // Ensure each evaluator can only be assigned once per student per session
+            "CREATE UNIQUE INDEX IF NOT EXISTS uq_assign_multi_eval "
+                + "ON assignments(session_id, student_id, evaluator_id)"
+        ));
+
+        // 2. Indexes for the joins used by the dashboards, dialogs and reports
+        MIGRATIONS.add(new Migration(2, "indexes for hot queries",
+            // student history / latest submission per student + type.
+            // Also serves lookups on student_id alone (leftmost column).
+            "CREATE INDEX IF NOT EXISTS idx_submissions_student_type ON submissions(student_id, type)",
+            // existsEvaluation, evaluator's own score, and AVG(total) per submission without touching the table
+            "CREATE INDEX IF NOT EXISTS idx_evaluations_submit_evaluator ON evaluations(submit_id, evaluator_id, total)",
+            // evaluator dashboard + isAuthorized
+            "CREATE INDEX IF NOT EXISTS idx_assignments_evaluator ON assignments(evaluator_id)",
+            // "is assigned" checks per student
+            "CREATE INDEX IF NOT EXISTS idx_assignments_student ON assignments(student_id)",
+            // isSlotBooked conflict check
+            "CREATE INDEX IF NOT EXISTS idx_sessions_slot ON sessions(date, time, venue)"
+        ));
+
+        // 3. Running score totals per submission, kept up to date on every evaluation save
+        //    (see ScoreRepository), so averages no longer need a GROUP BY over evaluations
+        MIGRATIONS.add(new Migration(3, "submission score aggregates",
+            "CREATE TABLE IF NOT EXISTS submission_scores (\n"
+                + " submit_id integer PRIMARY KEY,\n"
+                + " sum_total real NOT NULL,\n"
+                + " eval_count integer NOT NULL,\n"
+                + " min_total real,\n"
+                + " max_total real,\n"
+                + " last_updated text DEFAULT CURRENT_TIMESTAMP,\n"
+                + " FOREIGN KEY (submit_id) REFERENCES submissions(submit_id)\n"
+                + ")",
+            // Fill from the evaluations that already exist
+            "INSERT OR REPLACE INTO submission_scores(submit_id, sum_total, eval_count, min_total, max_total) "
+                + "SELECT submit_id, COALESCE(SUM(total), 0), COUNT(*), MIN(total), MAX(total) "
+                + "FROM evaluations WHERE submit_id IS NOT NULL GROUP BY submit_id"
+        ));
+
+        // 4. Runners-up: each award type now stores its top K, numbered by rank
+        MIGRATIONS.add(new Migration(4, "award ranks",
+            "ALTER TABLE awards ADD COLUMN rank integer NOT NULL DEFAULT 1",
+            "CREATE INDEX IF NOT EXISTS idx_awards_type_rank ON awards(award_type, rank)"
+        ));
+
+        // 5. One row per award type and rank, so awards can be saved with a single UPSERT.
+        //    Older databases may hold duplicates from interrupted saves: keep the newest.
+        MIGRATIONS.add(new Migration(5, "unique award rank",
+            "DELETE FROM awards WHERE award_id NOT IN "
+                + "(SELECT MAX(award_id) FROM awards GROUP BY award_type, rank)",
+            "DROP INDEX IF EXISTS idx_awards_type_rank",
+            "CREATE UNIQUE INDEX IF NOT EXISTS uq_awards_type_rank ON awards(award_type, rank)"
+        ));
+
+        // 6. Immutable history of award runs (rankings packed into one BLOB, see SnapshotRepository)
+        MIGRATIONS.add(new Migration(6, "award snapshots",
+            "CREATE TABLE IF NOT EXISTS award_snapshots (\n"
+                + " run_id integer PRIMARY KEY AUTOINCREMENT,\n"
+                + " created_at text DEFAULT CURRENT_TIMESTAMP,\n"
+                + " depth integer NOT NULL,\n"
+                + " payload blob NOT NULL\n"
+                + ")"
+        ));
+
+        // 7. Running mean / variance of each evaluator's totals (see EvaluatorStatsRepository)
+        MIGRATIONS.add(new Migration(7, "evaluator statistics",
+            "CREATE TABLE IF NOT EXISTS evaluator_stats (\n"
+                + " evaluator_id text PRIMARY KEY,\n"
+                + " eval_count integer NOT NULL,\n"
+                + " mean_total real NOT NULL,\n"
+                + " m2_total real NOT NULL,\n"
+                + " last_updated text DEFAULT CURRENT_TIMESTAMP\n"
+                + ")",
+            // Fill from the evaluations that already exist
+            "INSERT OR REPLACE INTO evaluator_stats(evaluator_id, eval_count, mean_total, m2_total) "
+                + "SELECT e.evaluator_id, a.n, a.mean, SUM((e.total - a.mean) * (e.total - a.mean)) "
+                + "FROM evaluations e "
+                + "JOIN (SELECT evaluator_id, COUNT(*) AS n, AVG(total) AS mean FROM evaluations "
+                + "      WHERE evaluator_id IS NOT NULL GROUP BY evaluator_id) a ON a.evaluator_id = e.evaluator_id "
+                + "GROUP BY e.evaluator_id"
+        ));
+
+        // 8. Audience voting for People's Choice: one ballot per voter, plus running counts
+        MIGRATIONS.add(new Migration(8, "audience votes",
+            "CREATE TABLE IF NOT EXISTS votes (\n"
+                + " voter_id text PRIMARY KEY,\n"
+                + " submit_id integer NOT NULL,\n"
+                + " voted_at text DEFAULT CURRENT_TIMESTAMP,\n"
+                + " FOREIGN KEY (submit_id) REFERENCES submissions(submit_id)\n"
+                + ")",
+            "CREATE TABLE IF NOT EXISTS vote_counts (\n"
+                + " submit_id integer PRIMARY KEY,\n"
+                + " vote_count integer NOT NULL,\n"
+                + " last_updated text DEFAULT CURRENT_TIMESTAMP,\n"
+                + " FOREIGN KEY (submit_id) REFERENCES submissions(submit_id)\n"
+                + ")"
+        ));
+
+        // 9. A write counter per table, bumped by triggers so writes from any process count
+        //    (see DataVersion). Derived tables (submission_scores, evaluator_stats, vote_counts)
+        //    only change together with their source table, so only the sources are tracked.
+        List<String> versions = new ArrayList<>();
+        versions.add("CREATE TABLE IF NOT EXISTS table_versions (\n"
+                + " table_name text PRIMARY KEY,\n"
+                + " version integer NOT NULL DEFAULT 0\n"
+                + ")");
+        addVersionTriggers(versions, "users", "submissions", "evaluations", "votes");
+        MIGRATIONS.add(new Migration(9, "table versions", versions.toArray(new String[0])));
+
+        // 10. Rubric per session type, and one row per criterion score (see Rubric).
+        //     Seeded with the four criteria the evaluations table has columns for, 0-5 and
+        //     weight 1, so existing totals stay as they are; their scores are copied over.
+        List<String> rubric = new ArrayList<>();
+        rubric.add("CREATE TABLE IF NOT EXISTS rubric_criteria (\n"
+                + " criterion_id integer PRIMARY KEY AUTOINCREMENT,\n"
+                + " session_type text NOT NULL,\n"
+                + " code text NOT NULL,\n"
+                + " label text NOT NULL,\n"
+                + " weight real NOT NULL,\n"
+                + " min_score integer NOT NULL,\n"
+                + " max_score integer NOT NULL,\n"
+                + " position integer NOT NULL,\n"
+                + " UNIQUE (session_type, code)\n"
+                + ")");
+        rubric.add("CREATE TABLE IF NOT EXISTS evaluation_scores (\n"
+                + " eval_id integer NOT NULL,\n"
+                + " criterion_id integer NOT NULL,\n"
+                + " score integer NOT NULL,\n"
+                + " PRIMARY KEY (eval_id, criterion_id),\n"
+                + " FOREIGN KEY (eval_id) REFERENCES evaluations(eval_id),\n"
+                + " FOREIGN KEY (criterion_id) REFERENCES rubric_criteria(criterion_id)\n"
+                + ") WITHOUT ROWID");
+        String[][] criteria = {
+            {Rubric.CLARITY, "Problem Clarity"}, {Rubric.METHODOLOGY, "Methodology"},
+            {Rubric.RESULTS, "Results"}, {Rubric.PRESENTATION, "Presentation"}};
+        for (String type : new String[]{"Oral Presentation", "Poster Presentation"}) {
+            for (int i = 0; i < criteria.length; i++) {
+                rubric.add("INSERT OR IGNORE INTO rubric_criteria(session_type, code, label, weight, min_score, max_score, position) "
+                        + "VALUES('" + type + "', '" + criteria[i][0] + "', '" + criteria[i][1] + "', 1, 0, 5, " + (i + 1) + ")");
+            }
+        }
+        rubric.add("INSERT OR IGNORE INTO evaluation_scores(eval_id, criterion_id, score) "
+                + "SELECT e.eval_id, c.criterion_id, COALESCE(CASE c.code "
+                + "WHEN 'clarity' THEN e.clarity WHEN 'methodology' THEN e.methodology "
+                + "WHEN 'results' THEN e.results ELSE e.presentation END, 0) "
+                + "FROM evaluations e "
+                + "JOIN submissions s ON s.submit_id = e.submit_id "
+                + "JOIN rubric_criteria c ON c.session_type = s.type");
+        addVersionTriggers(rubric, "rubric_criteria");
+        MIGRATIONS.add(new Migration(10, "rubric criteria and scores", rubric.toArray(new String[0])));
+
+        // 11. Counters for the other tables the reports read, so a cached report (see
+        //     ReportCache) is rebuilt after schedule, assignment and award changes too.
+        //     evaluation_scores is always written together with evaluations or rubric_criteria.
+        List<String> reportTables = new ArrayList<>();
+        addVersionTriggers(reportTables, "sessions", "assignments", "awards");
+        MIGRATIONS.add(new Migration(11, "report table versions", reportTables.toArray(new String[0])));
+
+        // 12. Scoring mode (AwardEngine.Scoring) each award run was ranked with, so runs of
+        //     different modes are not compared. Left NULL for older runs: it was not recorded.
+        MIGRATIONS.add(new Migration(12, "award snapshot scoring mode",
+            "ALTER TABLE award_snapshots ADD COLUMN scoring text"
+        ));
+    }
+
+    // Row in table_versions plus insert / update / delete triggers that bump it
+    private static void addVersionTriggers(List<String> sql, String... tables) {
+        for (String table : tables) {
+            sql.add("INSERT OR IGNORE INTO table_versions(table_name, version) VALUES('" + table + "', 0)");
+            String bump = " ON " + table + " BEGIN UPDATE table_versions SET version = version + 1"
+                    + " WHERE table_name = '" + table + "'; END";
+            sql.add("CREATE TRIGGER IF NOT EXISTS trg_" + table + "_version_ins AFTER INSERT" + bump);
+            sql.add("CREATE TRIGGER IF NOT EXISTS trg_" + table + "_version_upd AFTER UPDATE" + bump);
+            sql.add("CREATE TRIGGER IF NOT EXISTS trg_" + table + "_version_del AFTER DELETE" + bump);
+        }
+    }
+
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    // Brings the schema up to date. Returns the number of migrations applied.
+    public static int migrate(Connection conn) throws SQLException {
+        int current = currentVersion(conn);
+        if (current >= latestVersion()) {
+            return 0; // schema is current: no DDL at all
+        }
+
+        if (current == 0 && !tableExists(conn, "schema_version")) {
+            try (Statement st = conn.createStatement()) {
+                st.execute("CREATE TABLE IF NOT EXISTS schema_version (\n"
+                        + " version integer PRIMARY KEY,\n"
+                        + " description text,\n"
+                        + " applied_at text DEFAULT CURRENT_TIMESTAMP\n"
+                        + ")");
+            }
+        }
+
+        int applied = 0;
+        for (Migration m : MIGRATIONS) {
+            if (m.version <= current) continue;
+            apply(conn, m);
+            applied++;
+        }
+        return applied;
+    }
+
+    // Runs one migration and records it, all in a single transaction
+    private static void apply(Connection conn, Migration m) throws SQLException {
+        boolean oldAutoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (Statement st = conn.createStatement()) {
+            for (String sql : m.statements) {
+                st.execute(sql);
+            }
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO schema_version(version, description) VALUES(?, ?)")) {
+                ps.setInt(1, m.version);
+                ps.setString(2, m.description);
+                ps.executeUpdate();
+            }
+            conn.commit();
+            System.out.println("Applied schema migration " + m.version + ": " + m.description);
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Migration " + m.version + " (" + m.description + ") failed: " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(oldAutoCommit);
+        }
+    }
+
+    // Highest applied version, or 0 for a database without schema_version
+    public static int currentVersion(Connection conn) throws SQLException {
+        if (!tableExists(conn, "schema_version")) return 0;
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static boolean tableExists(Connection conn, String table) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT count(*) FROM sqlite_master WHERE type = 'table' AND name = ?")) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+}
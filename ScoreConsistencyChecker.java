@@ -0,0 +1,64 @@
+import java.util.List;
+
+// Checks submission_scores and evaluator_stats against the raw evaluations table and
+// optionally repairs them.
+//
+//   java -cp ".;sqlite-jdbc-3.51.1.0.jar" ScoreConsistencyChecker [db file] [--repair]
+//
+// Exit code 0 = consistent (or repaired), 1 = differences found.
+public class ScoreConsistencyChecker {
+
+    private static final int MAX_LISTED = 20;
+
+    public static void main(String[] args) throws Exception {
+        String db = "seminar_system.db";
+        boolean repair = false;
+        for (String arg : args) {
+            if (arg.equals("--repair")) repair = true;
+            else db = arg;
+        }
+
+        DatabaseHandler.useDatabase(db);
+        DatabaseHandler.createNewTable();
+
+        List<ScoreMismatch> diffs = ScoreRepository.findMismatches();
+        if (diffs.isEmpty()) {
+            System.out.println("submission_scores is consistent with evaluations.");
+        } else {
+            System.out.println(diffs.size() + " submission(s) differ:");
+            for (int i = 0; i < Math.min(MAX_LISTED, diffs.size()); i++) {
+                ScoreMismatch m = diffs.get(i);
+                System.out.println("  submit_id " + m.submitId + ": stored " + describe(m.stored)
+                        + ", expected " + describe(m.expected));
+            }
+            if (diffs.size() > MAX_LISTED) System.out.println("  ...");
+
+            if (repair) {
+                int rows = ScoreRepository.rebuild();
+                diffs = ScoreRepository.findMismatches();
+                System.out.println("Rebuilt submission_scores (" + rows + " rows), " + diffs.size() + " difference(s) left.");
+            }
+        }
+
+        List<String> evaluators = EvaluatorStatsRepository.findMismatches();
+        if (evaluators.isEmpty()) {
+            System.out.println("evaluator_stats is consistent with evaluations.");
+        } else {
+            System.out.println(evaluators.size() + " evaluator(s) differ: "
+                    + evaluators.subList(0, Math.min(MAX_LISTED, evaluators.size())));
+            if (repair) {
+                int rows = EvaluatorStatsRepository.rebuild();
+                evaluators = EvaluatorStatsRepository.findMismatches();
+                System.out.println("Rebuilt evaluator_stats (" + rows + " rows), " + evaluators.size() + " difference(s) left.");
+            }
+        }
+
+        DatabaseHandler.getPool().shutdown();
+        System.exit(diffs.isEmpty() && evaluators.isEmpty() ? 0 : 1);
+    }
+
+    private static String describe(SubmissionScoreRow r) {
+        if (r == null) return "(none)";
+        return "sum=" + r.sumTotal + " count=" + r.evalCount + " min=" + r.minTotal + " max=" + r.maxTotal;
+    }
+}
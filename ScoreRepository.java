@@ -0,0 +1,215 @@
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// One row of submission_scores
+class SubmissionScoreRow {
+    public int submitId;
+    public double sumTotal;
+    public int evalCount;
+    public Double minTotal;
+    public Double maxTotal;
+    public String lastUpdated;
+
+    public double average() {
+        return evalCount == 0 ? 0 : sumTotal / evalCount;
+    }
+}
+
+// One submission whose stored aggregate differs from the evaluations table
+class ScoreMismatch {
+    public int submitId;
+    public SubmissionScoreRow stored;     // null = missing from submission_scores
+    public SubmissionScoreRow expected;   // null = no evaluations any more
+}
+
+// SQL for submission_scores: running sum / count / min / max of evaluation totals per submission.
+// The write methods take the caller's connection so they run in the same transaction as the
+// evaluation insert or update they belong to (see EvaluationRepository).
+public class ScoreRepository {
+
+    private static final String ADD_SQL =
+        "INSERT INTO submission_scores(submit_id, sum_total, eval_count, min_total, max_total, last_updated) " +
+        "VALUES(?, ?, ?, ?, ?, CURRENT_TIMESTAMP) " +
+        "ON CONFLICT(submit_id) DO UPDATE SET " +
+        "  sum_total = sum_total + excluded.sum_total, " +
+        "  eval_count = eval_count + excluded.eval_count, " +
+        "  min_total = MIN(COALESCE(min_total, excluded.min_total), excluded.min_total), " +
+        "  max_total = MAX(COALESCE(max_total, excluded.max_total), excluded.max_total), " +
+        "  last_updated = CURRENT_TIMESTAMP";
+
+    // The aggregate as it should be, computed from the raw evaluations
+    private static final String EXPECTED_SQL =
+        "SELECT submit_id, COALESCE(SUM(total), 0) AS sum_total, COUNT(*) AS eval_count, " +
+        "       MIN(total) AS min_total, MAX(total) AS max_total " +
+        "FROM evaluations WHERE submit_id IS NOT NULL GROUP BY submit_id";
+
+    // A new evaluation of the submission
+    static void addEvaluation(Connection conn, int submitId, double total) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(ADD_SQL)) {
+            bindAdd(ps, submitId, total, 1, total, total);
+            ps.executeUpdate();
+        }
+    }
+
+    // Many new evaluations (batch insert): one upsert per submission
+    static void addEvaluations(Connection conn, List<Evaluation> evaluations) throws SQLException {
+        Map<Integer, double[]> bySubmission = new LinkedHashMap<>();   // sum, count, min, max
+        for (Evaluation e : evaluations) {
+            double[] a = bySubmission.get(e.submitId);
+            if (a == null) {
+                bySubmission.put(e.submitId, new double[]{e.total, 1, e.total, e.total});
+            } else {
+                a[0] += e.total;
+                a[1]++;
+                a[2] = Math.min(a[2], e.total);
+                a[3] = Math.max(a[3], e.total);
+            }
+        }
+
+        try (PreparedStatement ps = conn.prepareStatement(ADD_SQL)) {
+            for (Map.Entry<Integer, double[]> en : bySubmission.entrySet()) {
+                double[] a = en.getValue();
+                bindAdd(ps, en.getKey(), a[0], (int) a[1], a[2], a[3]);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    // A re-grade: the sum moves by the difference; min / max are re-read from the
+    // evaluations index (a handful of rows) because the old value may have been the extreme.
+    // Must run after the evaluations row itself was updated.
+    static void regrade(Connection conn, int submitId, double oldTotal, double newTotal) throws SQLException {
+        String sql =
+            "UPDATE submission_scores SET " +
+            "  sum_total = sum_total + ?, " +
+            "  min_total = (SELECT MIN(total) FROM evaluations WHERE submit_id = ?), " +
+            "  max_total = (SELECT MAX(total) FROM evaluations WHERE submit_id = ?), " +
+            "  last_updated = CURRENT_TIMESTAMP " +
+            "WHERE submit_id = ?";
+
+        int updated;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setDouble(1, newTotal - oldTotal);
+            ps.setInt(2, submitId);
+            ps.setInt(3, submitId);
+            ps.setInt(4, submitId);
+            updated = ps.executeUpdate();
+        }
+
+        // No running row (e.g. data written by an older version): compute it from scratch
+        if (updated == 0) refresh(conn, submitId);
+    }
+
+    // Recomputes one submission's row from the evaluations table
+    static void refresh(Connection conn, int submitId) throws SQLException {
+        String sql =
+            "INSERT OR REPLACE INTO submission_scores(submit_id, sum_total, eval_count, min_total, max_total, last_updated) " +
+            "SELECT submit_id, COALESCE(SUM(total), 0), COUNT(*), MIN(total), MAX(total), CURRENT_TIMESTAMP " +
+            "FROM evaluations WHERE submit_id = ? GROUP BY submit_id";
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, submitId);
+            ps.executeUpdate();
+        }
+    }
+
+    private static void bindAdd(PreparedStatement ps, int submitId, double sum, int count, double min, double max)
+            throws SQLException {
+        ps.setInt(1, submitId);
+        ps.setDouble(2, sum);
+        ps.setInt(3, count);
+        ps.setDouble(4, min);
+        ps.setDouble(5, max);
+    }
+
+    public static SubmissionScoreRow find(int submitId) throws SQLException {
+        String sql = "SELECT submit_id, sum_total, eval_count, min_total, max_total, last_updated " +
+                     "FROM submission_scores WHERE submit_id = ?";
+
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, submitId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? toRow(rs) : null;
+            }
+        }
+    }
+
+    // Compares submission_scores with a fresh aggregate of the evaluations table
+    public static List<ScoreMismatch> findMismatches() throws SQLException {
+        String sql =
+            "SELECT r.submit_id AS r_id, r.sum_total AS r_sum, r.eval_count AS r_count, r.min_total AS r_min, r.max_total AS r_max, " +
+            "       s.submit_id AS s_id, s.sum_total AS s_sum, s.eval_count AS s_count, s.min_total AS s_min, s.max_total AS s_max " +
+            "FROM (" + EXPECTED_SQL + ") r " +
+            "FULL OUTER JOIN submission_scores s ON s.submit_id = r.submit_id " +
+            "WHERE r.submit_id IS NULL OR s.submit_id IS NULL " +
+            "   OR ABS(r.sum_total - s.sum_total) > 1e-6 OR r.eval_count <> s.eval_count " +
+            "   OR r.min_total IS NOT s.min_total OR r.max_total IS NOT s.max_total " +
+            "ORDER BY COALESCE(r.submit_id, s.submit_id)";
+        List<ScoreMismatch> list = new ArrayList<>();
+
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                ScoreMismatch m = new ScoreMismatch();
+                m.expected = readSide(rs, "r_");
+                m.stored = readSide(rs, "s_");
+                m.submitId = m.expected != null ? m.expected.submitId : m.stored.submitId;
+                list.add(m);
+            }
+        }
+        return list;
+    }
+
+    // Throws the table away and rebuilds it from the evaluations (one transaction)
+    public static int rebuild() throws SQLException {
+        return DatabaseHandler.inTransaction(ScoreRepository::rebuild);
+    }
+
+    // Rebuild on a caller's connection (e.g. after totals were recomputed in the same transaction)
+    static int rebuild(Connection conn) throws SQLException {
+        DataVersion.bump(conn, "evaluations");   // averages change although no evaluation did
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("DELETE FROM submission_scores");
+            return st.executeUpdate(
+                "INSERT INTO submission_scores(submit_id, sum_total, eval_count, min_total, max_total) " +
+                EXPECTED_SQL);
+        }
+    }
+
+    private static SubmissionScoreRow readSide(ResultSet rs, String prefix) throws SQLException {
+        int id = rs.getInt(prefix + "id");
+        if (rs.wasNull()) return null;
+
+        SubmissionScoreRow r = new SubmissionScoreRow();
+        r.submitId = id;
+        r.sumTotal = rs.getDouble(prefix + "sum");
+        r.evalCount = rs.getInt(prefix + "count");
+        r.minTotal = nullableDouble(rs, prefix + "min");
+        r.maxTotal = nullableDouble(rs, prefix + "max");
+        return r;
+    }
+
+    private static SubmissionScoreRow toRow(ResultSet rs) throws SQLException {
+        SubmissionScoreRow r = new SubmissionScoreRow();
+        r.submitId = rs.getInt("submit_id");
+        r.sumTotal = rs.getDouble("sum_total");
+        r.evalCount = rs.getInt("eval_count");
+        r.minTotal = nullableDouble(rs, "min_total");
+        r.maxTotal = nullableDouble(rs, "max_total");
+        r.lastUpdated = rs.getString("last_updated");
+        return r;
+    }
+
+    private static Double nullableDouble(ResultSet rs, String column) throws SQLException {
+        double v = rs.getDouble(column);
+        return rs.wasNull() ? null : v;
+    }
+}
@@ -0,0 +1,143 @@
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+// Simple data holder for a row of the sessions table
+class Session {
+    public int sessionId;
+    public String date;         // YYYY-MM-DD
+    public String time;         // HH:MM
+    public String venue;
+    public String sessionType;  // Oral Presentation / Poster Presentation
+}
+
+// One line of the Schedule Report (every column may be null for an empty session)
+class ScheduleRow {
+    public String sessionType;
+    public String date;
+    public String time;
+    public String venue;
+    public String studentName;
+    public String title;
+    public String evaluatorName;
+}
+
+// All SQL for the sessions table
+public class SessionRepository {
+
+    public static List<Session> findAll() throws SQLException {
+        String sql = "SELECT session_id, date, time, venue, session_type FROM sessions";
+        List<Session> list = new ArrayList<>();
+
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                Session s = new Session();
+                s.sessionId = rs.getInt("session_id");
+                s.date = rs.getString("date");
+                s.time = rs.getString("time");
+                s.venue = rs.getString("venue");
+                s.sessionType = rs.getString("session_type");
+                list.add(s);
+            }
+        }
+        return list;
+    }
+
+    // True when another session already uses this venue at the same date and time
+    public static boolean isSlotBooked(String date, String time, String venue) throws SQLException {
+        String sql = "SELECT count(*) FROM sessions WHERE date = ? AND time = ? AND venue = ?";
+
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, date);
+            ps.setString(2, time);
+            ps.setString(3, venue);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    // Inserts one session and returns its new session_id
+    public static int insert(Session s) throws SQLException {
+        String sql = "INSERT INTO sessions(date, time, venue, session_type) VALUES(?,?,?,?)";
+
+        try (Connection conn = DatabaseHandler.requireConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                bind(ps, s);
+                ps.executeUpdate();
+            }
+            s.sessionId = SubmissionRepository.lastInsertId(conn);
+        }
+        return s.sessionId;
+    }
+
+    // Batch insert in one transaction
+    public static void saveAll(List<Session> sessions) throws SQLException {
+        String sql = "INSERT INTO sessions(date, time, venue, session_type) VALUES(?,?,?,?)";
+
+        DatabaseHandler.inTransaction(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (Session s : sessions) {
+                    bind(ps, s);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            return null;
+        });
+    }
+
+    private static void bind(PreparedStatement ps, Session s) throws SQLException {
+        ps.setString(1, s.date);
+        ps.setString(2, s.time);
+        ps.setString(3, s.venue);
+        ps.setString(4, s.sessionType);
+    }
+
+    // Receives the rows of scanScheduleRows one at a time
+    public interface ScheduleVisitor {
+        void visit(ScheduleRow r);
+    }
+
+    // Every session with its assigned students and evaluators (Schedule Report)
+    public static List<ScheduleRow> findScheduleRows() throws SQLException {
+        List<ScheduleRow> list = new ArrayList<>();
+        scanScheduleRows(list::add);
+        return list;
+    }
+
+    // Same rows as findScheduleRows, streamed to the visitor instead of collected into a list
+    public static void scanScheduleRows(ScheduleVisitor visitor) throws SQLException {
+        String sql =
+            "SELECT se.session_type, se.date, se.time, se.venue, " +
+            "stu.username AS student_name, sub.title, eva.username AS evaluator_name " +
+            "FROM sessions se " +
+            "LEFT JOIN assignments a ON a.session_id = se.session_id " +
+            "LEFT JOIN users stu ON stu.user_id = a.student_id " +
+            "LEFT JOIN submissions sub ON sub.student_id = a.student_id " +
+            "LEFT JOIN users eva ON eva.user_id = a.evaluator_id " +
+            "ORDER BY se.date, se.time";
+
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                ScheduleRow r = new ScheduleRow();
+                r.sessionType = rs.getString("session_type");
+                r.date = rs.getString("date");
+                r.time = rs.getString("time");
+                r.venue = rs.getString("venue");
+                r.studentName = rs.getString("student_name");
+                r.title = rs.getString("title");
+                r.evaluatorName = rs.getString("evaluator_name");
+                visitor.visit(r);
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// One difference between two award snapshots
+class SnapshotChange {
+    public String awardType;
+    public int submitId;
+    public int oldRank;          // 0 = not in the older snapshot
+    public int newRank;          // 0 = not in the newer snapshot
+    public double oldAverage;
+    public double newAverage;
+
+    public String kind() {
+        if (oldRank == 0) return "NEW";
+        if (newRank == 0) return "DROPPED";
+        if (newRank < oldRank) return "UP";
+        if (newRank > oldRank) return "DOWN";
+        return "SCORE";
+    }
+}
+
+// Compares two stored award runs using only their rankings (no access to the evaluations)
+public class SnapshotDiff {
+
+    // True unless the runs were ranked with different scoring modes: raw and normalized
+    // averages are on different scales, so every place would show up as changed. A run whose
+    // mode was not recorded (null) is taken as comparable.
+    public static boolean comparable(AwardSnapshot older, AwardSnapshot newer) {
+        return older.scoring == null || newer.scoring == null || older.scoring == newer.scoring;
+    }
+
+    // Every place that differs, per category, ordered by new rank (dropped entries last).
+    // Only the places both runs stored are compared, so an entry past the shorter depth
+    // is not reported as dropped. Runs of different scoring modes are refused (see comparable).
+    public static List<SnapshotChange> diff(AwardSnapshot older, AwardSnapshot newer) {
+        if (!comparable(older, newer)) {
+            throw new IllegalArgumentException("Run #" + older.runId + " is " + older.scoring + " and run #"
+                    + newer.runId + " is " + newer.scoring + "; runs of different scoring modes cannot be compared");
+        }
+        int depth = Math.min(older.depth, newer.depth);
+        List<SnapshotChange> changes = new ArrayList<>();
+
+        Set<String> types = new LinkedHashSet<>(newer.rankings.keySet());
+        types.addAll(older.rankings.keySet());
+
+        for (String type : types) {
+            Map<Integer, Integer> oldRanks = new HashMap<>();
+            Map<Integer, SnapshotEntry> oldEntries = new HashMap<>();
+            List<SnapshotEntry> before = top(older.rankings.get(type), depth);
+            for (int i = 0; i < before.size(); i++) {
+                oldRanks.put(before.get(i).submitId, i + 1);
+                oldEntries.put(before.get(i).submitId, before.get(i));
+            }
+
+            List<SnapshotEntry> after = top(newer.rankings.get(type), depth);
+            for (int i = 0; i < after.size(); i++) {
+                SnapshotEntry e = after.get(i);
+                Integer oldRank = oldRanks.remove(e.submitId);
+                SnapshotEntry old = oldEntries.get(e.submitId);
+                if (oldRank != null && oldRank == i + 1 && old.average == e.average) continue;
+
+                SnapshotChange c = new SnapshotChange();
+                c.awardType = type;
+                c.submitId = e.submitId;
+                c.oldRank = oldRank == null ? 0 : oldRank;
+                c.newRank = i + 1;
+                c.oldAverage = old == null ? 0 : old.average;
+                c.newAverage = e.average;
+                changes.add(c);
+            }
+
+            // Whatever is left was ranked before and is not any more
+            for (SnapshotEntry e : before) {
+                if (!oldRanks.containsKey(e.submitId)) continue;
+                SnapshotChange c = new SnapshotChange();
+                c.awardType = type;
+                c.submitId = e.submitId;
+                c.oldRank = oldRanks.get(e.submitId);
+                c.oldAverage = e.average;
+                changes.add(c);
+            }
+        }
+        return changes;
+    }
+
+    private static List<SnapshotEntry> top(List<SnapshotEntry> ranking, int depth) {
+        if (ranking == null) return List.of();
+        return ranking.size() <= depth ? ranking : ranking.subList(0, depth);
+    }
+}
@@ -0,0 +1,206 @@
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// One place in a snapshot ranking (the rank is the position in the list, starting at 1)
+class SnapshotEntry {
+    public int submitId;
+    public double average;
+    public int evalCount;
+}
+
+// One stored award run. Snapshots are never changed after they are written.
+class AwardSnapshot {
+    public int runId;
+    public String createdAt;
+    public int depth;            // how many places per category were kept
+    public AwardEngine.Scoring scoring;   // mode the run was ranked with, null for runs saved before it was recorded
+    public int sizeBytes;        // size of the stored rankings
+    public Map<String, List<SnapshotEntry>> rankings = new LinkedHashMap<>();   // award type -> best first
+}
+
+// SQL for award_snapshots. The rankings of a run are kept in a single BLOB:
+//   varint categoryCount, then per category: varint nameLength, name (UTF-8),
+//   varint entryCount, then per entry: varint submitId, zigzag varint average*1000, varint evalCount
+// which is ~5 bytes per ranked submission, against a row plus index entries per place.
+// Normalized averages can be negative, hence zigzag (format 2); format 1 payloads, written
+// before, hold the average as a plain varint and are still read.
+public class SnapshotRepository {
+
+    private static final int FORMAT = 2;                 // first byte of every payload
+    private static final int FORMAT_UNSIGNED = 1;        // earlier payloads: averages stored unsigned
+    private static final double AVERAGE_SCALE = 1000.0;  // averages are kept to 3 decimals
+
+    // How many runs are kept; older ones are pruned after every save (-Dseminar.awards.snapshotKeep=N)
+    public static final int KEEP_RUNS = Integer.getInteger("seminar.awards.snapshotKeep", 50);
+
+    // Stores a new snapshot of rankings made with the given scoring mode and prunes old ones.
+    // Returns the run id.
+    public static int save(Map<String, List<AwardResult>> rankings, int depth, AwardEngine.Scoring scoring)
+            throws SQLException {
+        byte[] payload = encode(rankings);
+        String insert = "INSERT INTO award_snapshots(depth, scoring, payload) VALUES(?, ?, ?)";
+
+        return DatabaseHandler.inTransaction(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(insert)) {
+                ps.setInt(1, depth);
+                ps.setString(2, scoring.name());
+                ps.setBytes(3, payload);
+                ps.executeUpdate();
+            }
+            int runId = SubmissionRepository.lastInsertId(conn);
+            prune(conn, KEEP_RUNS);
+            return runId;
+        });
+    }
+
+    // All stored runs, newest first, without their rankings
+    public static List<AwardSnapshot> findAll() throws SQLException {
+        String sql = "SELECT run_id, created_at, depth, scoring, length(payload) AS size " +
+                     "FROM award_snapshots ORDER BY run_id DESC";
+        List<AwardSnapshot> list = new ArrayList<>();
+
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                AwardSnapshot s = new AwardSnapshot();
+                s.runId = rs.getInt("run_id");
+                s.createdAt = rs.getString("created_at");
+                s.depth = rs.getInt("depth");
+                s.scoring = scoring(rs.getString("scoring"));
+                s.sizeBytes = rs.getInt("size");
+                list.add(s);
+            }
+        }
+        return list;
+    }
+
+    // One run with its rankings, or null if it was pruned
+    public static AwardSnapshot find(int runId) throws SQLException {
+        String sql = "SELECT run_id, created_at, depth, scoring, payload FROM award_snapshots WHERE run_id = ?";
+
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, runId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return null;
+
+                AwardSnapshot s = new AwardSnapshot();
+                s.runId = rs.getInt("run_id");
+                s.createdAt = rs.getString("created_at");
+                s.depth = rs.getInt("depth");
+                s.scoring = scoring(rs.getString("scoring"));
+                byte[] payload = rs.getBytes("payload");
+                s.sizeBytes = payload.length;
+                s.rankings = decode(payload);
+                return s;
+            }
+        }
+    }
+
+    private static AwardEngine.Scoring scoring(String name) {
+        return name == null ? null : AwardEngine.Scoring.valueOf(name);
+    }
+
+    // Retention policy: keep the newest `keep` runs, delete the rest. Returns the number deleted.
+    public static int prune(int keep) throws SQLException {
+        try (Connection conn = DatabaseHandler.requireConnection()) {
+            return prune(conn, keep);
+        }
+    }
+
+    private static int prune(Connection conn, int keep) throws SQLException {
+        String sql = "DELETE FROM award_snapshots WHERE run_id NOT IN " +
+                     "(SELECT run_id FROM award_snapshots ORDER BY run_id DESC LIMIT ?)";
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, Math.max(1, keep));
+            return ps.executeUpdate();
+        }
+    }
+
+    static byte[] encode(Map<String, List<AwardResult>> rankings) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(FORMAT);
+        writeVarint(out, rankings.size());
+        for (Map.Entry<String, List<AwardResult>> e : rankings.entrySet()) {
+            byte[] name = e.getKey().getBytes(StandardCharsets.UTF_8);
+            writeVarint(out, name.length);
+            out.write(name, 0, name.length);
+
+            writeVarint(out, e.getValue().size());
+            for (AwardResult r : e.getValue()) {
+                writeVarint(out, r.submitId);
+                writeVarint(out, zigzag(Math.round(r.total * AVERAGE_SCALE)));
+                writeVarint(out, r.evalCount);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    static Map<String, List<SnapshotEntry>> decode(byte[] payload) {
+        if (payload.length == 0 || (payload[0] != FORMAT && payload[0] != FORMAT_UNSIGNED)) {
+            throw new IllegalArgumentException("Unknown award snapshot format");
+        }
+        boolean signed = payload[0] == FORMAT;
+        int[] pos = {1};
+        Map<String, List<SnapshotEntry>> rankings = new LinkedHashMap<>();
+
+        long categories = readVarint(payload, pos);
+        for (long c = 0; c < categories; c++) {
+            int nameLength = (int) readVarint(payload, pos);
+            String name = new String(payload, pos[0], nameLength, StandardCharsets.UTF_8);
+            pos[0] += nameLength;
+
+            int count = (int) readVarint(payload, pos);
+            List<SnapshotEntry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                SnapshotEntry s = new SnapshotEntry();
+                s.submitId = (int) readVarint(payload, pos);
+                long average = readVarint(payload, pos);
+                s.average = (signed ? unzigzag(average) : average) / AVERAGE_SCALE;
+                s.evalCount = (int) readVarint(payload, pos);
+                entries.add(s);
+            }
+            rankings.put(name, Collections.unmodifiableList(entries));
+        }
+        return Collections.unmodifiableMap(rankings);
+    }
+
+    // Zigzag: 0, -1, 1, -2, 2 ... -> 0, 1, 2, 3, 4 ..., so small negative values stay short
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    // Unsigned LEB128: 7 bits per byte, high bit set while more bytes follow
+    private static void writeVarint(ByteArrayOutputStream out, long v) {
+        while ((v & ~0x7FL) != 0) {
+            out.write((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+
+    private static long readVarint(byte[] in, int[] pos) {
+        long v = 0;
+        int shift = 0;
+        while (true) {
+            byte b = in[pos[0]++];
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+            shift += 7;
+        }
+    }
+}
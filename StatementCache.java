@@ -0,0 +1,186 @@
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// LRU cache of PreparedStatements for ONE physical connection, keyed by SQL text.
+// ConnectionPool routes conn.prepareStatement(sql) through here, so callers keep
+// writing try-with-resources and close() just puts the statement back.
+// Only used by the thread that currently borrows the connection, so it is not synchronized.
+public class StatementCache {
+
+    // Counters shared by all caches (shown by PerfBenchmark / diagnostics)
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+
+    private final Connection physical;
+    private final int maxSize;
+    private final LinkedHashMap<String, Entry> entries;
+
+    public StatementCache(Connection physical, int maxSize) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        // access-order map = least recently used entry comes first
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    // Returns a cached statement for this SQL, or prepares and caches a new one.
+    // owner is the pooled connection proxy the caller holds (returned by getConnection()).
+    public PreparedStatement prepare(String sql, Connection owner) throws SQLException {
+        if (maxSize <= 0) {
+            return physical.prepareStatement(sql);
+        }
+
+        Entry e = entries.get(sql);
+        if (e != null && !e.inUse && !e.statement.isClosed()) {
+            HITS.incrementAndGet();
+            return e.borrow(owner);
+        }
+
+        MISSES.incrementAndGet();
+        PreparedStatement ps = physical.prepareStatement(sql);
+        if (e != null && e.inUse) {
+            // Same SQL already open by this caller (nested use): hand out an uncached statement
+            return ps;
+        }
+        if (e != null) entries.remove(sql);
+
+        Entry fresh = new Entry(ps);
+        entries.put(sql, fresh);
+        evictIfNeeded();
+        return fresh.borrow(owner);
+    }
+
+    // Closes least recently used statements that are not currently in use
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            Entry e = it.next().getValue();
+            if (e.inUse) continue;
+            it.remove();
+            closeQuietly(e.statement);
+        }
+    }
+
+    // Frees statements a caller forgot to close (when the connection goes back to the pool)
+    public void releaseAll() {
+        for (Entry e : entries.values()) {
+            if (e.current != null) {
+                try { e.current.giveBack(); } catch (SQLException ignored) { }
+            }
+        }
+    }
+
+    // Really closes every cached statement (when the physical connection is closed)
+    public void closeAll() {
+        for (Entry e : entries.values()) closeQuietly(e.statement);
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public static long getHits() { return HITS.get(); }
+    public static long getMisses() { return MISSES.get(); }
+
+    public static double getHitRate() {
+        long h = HITS.get(), m = MISSES.get();
+        return (h + m) == 0 ? 0.0 : (double) h / (h + m);
+    }
+
+    public static void resetCounters() {
+        HITS.set(0);
+        MISSES.set(0);
+    }
+
+    private static void closeQuietly(Statement s) {
+        try {
+            s.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    // One cached statement plus whether a caller currently holds it
+    private static class Entry {
+        final PreparedStatement statement;
+        boolean inUse = false;
+        Handle current;  // the caller currently holding it
+
+        Entry(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        PreparedStatement borrow(Connection owner) {
+            inUse = true;
+            current = new Handle(this, owner);
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    StatementCache.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    current);
+        }
+    }
+
+    // One borrow of a cached statement. close() resets it and marks it free again.
+    private static class Handle implements InvocationHandler {
+        final Entry entry;
+        final Connection owner;
+        boolean closed = false;
+        ResultSet lastResult;  // closed together with the statement
+
+        Handle(Entry entry, Connection owner) {
+            this.entry = entry;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    giveBack();
+                    return null;
+                case "isClosed":
+                    return closed || entry.statement.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    if (closed) throw new SQLException("PreparedStatement has been closed");
+            }
+
+            try {
+                Object result = method.invoke(entry.statement, args);
+                if (result instanceof ResultSet) lastResult = (ResultSet) result;
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        // Reset the statement so the next caller starts clean
+        private void giveBack() throws SQLException {
+            if (closed) return;
+            closed = true;
+            try {
+                // Many callers never close their ResultSet; an open one would keep a read lock
+                if (lastResult != null) {
+                    try { lastResult.close(); } catch (SQLException ignored) { }
+                    lastResult = null;
+                }
+                entry.statement.clearParameters();
+                entry.statement.clearBatch();
+            } finally {
+                entry.inUse = false;
+                entry.current = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+// A ReportBuilder that pushes its cells to a ReportSink while the ResultSet is read, instead of
+// collecting every row first. build() still works: it streams into a ReportData.
+public interface StreamingReportBuilder extends ReportBuilder {
+
+    void stream(ReportSink sink);
+
+    @Override
+    default ReportData build() {
+        ReportData data = new ReportData();
+        stream(data);
+        return data;
+    }
+
+    // Any builder as a streaming one; a plain ReportBuilder still builds all its rows first
+    static StreamingReportBuilder of(ReportBuilder builder) {
+        if (builder instanceof StreamingReportBuilder) return (StreamingReportBuilder) builder;
+        return sink -> builder.build().writeTo(sink);
+    }
+}
@@ -1,5 +1,7 @@
 import java.awt.*;
-import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Vector;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
@@ -21,6 +23,9 @@ public class StudentRegistration extends JFrame {
     private JTable historyTable;
     private DefaultTableModel tableModel;
 
+    // Runs database work off the EDT and shows progress
+    private final UiTaskRunner tasks = new UiTaskRunner(this);
+
     public StudentRegistration(String userId, String username) {
         this.currentUserId = userId;
         this.currentUsername = username;
@@ -48,6 +53,7 @@ public class StudentRegistration extends JFrame {
         });
         
         topPanel.add(welcomeLabel, BorderLayout.WEST);
+        topPanel.add(tasks.getProgressBar(), BorderLayout.CENTER);
         topPanel.add(logoutBtn, BorderLayout.EAST);
         topPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
@@ -129,15 +135,15 @@ public class StudentRegistration extends JFrame {
     private JPanel createHistoryPanel() {
         JPanel panel = new JPanel(new BorderLayout());
         
-        String[] columnNames = {"ID", "Title", "Date", "Venue", "Evaluator", "Status", "Grade", "Comment", "Abstract"};
+        String[] columnNames = {"ID", "Title", "Date", "Venue", "Evaluator", "Status", "Grade", "Rank in Type", "Comment", "Abstract"};
         tableModel = new DefaultTableModel(columnNames, 0) {
             @Override public boolean isCellEditable(int r, int c) { return false; }
         }; 
         historyTable = new JTable(tableModel);
         
-        historyTable.getColumnModel().getColumn(8).setMinWidth(0);
-        historyTable.getColumnModel().getColumn(8).setMaxWidth(0);
-        historyTable.getColumnModel().getColumn(8).setPreferredWidth(0);
+        historyTable.getColumnModel().getColumn(9).setMinWidth(0);
+        historyTable.getColumnModel().getColumn(9).setMaxWidth(0);
+        historyTable.getColumnModel().getColumn(9).setPreferredWidth(0);
         historyTable.getColumnModel().getColumn(0).setPreferredWidth(50);
 
         historyTable.addMouseListener(new java.awt.event.MouseAdapter() {
@@ -153,8 +159,9 @@ public class StudentRegistration extends JFrame {
                         String eval = String.valueOf(tableModel.getValueAt(row, 4));
                         String status = String.valueOf(tableModel.getValueAt(row, 5));
                         String grade = String.valueOf(tableModel.getValueAt(row, 6));
-                        String comment = String.valueOf(tableModel.getValueAt(row, 7));
-                        String fullAbstract = String.valueOf(tableModel.getValueAt(row, 8));
+                        String rank = String.valueOf(tableModel.getValueAt(row, 7));
+                        String comment = String.valueOf(tableModel.getValueAt(row, 8));
+                        String fullAbstract = String.valueOf(tableModel.getValueAt(row, 9));
 
                         JTextArea textArea = new JTextArea(
                             "Submission ID: " + id + "\n" +
@@ -167,6 +174,7 @@ public class StudentRegistration extends JFrame {
                             "--- Result ---\n" +
                             "Status: " + status + "\n" +
                             "Grade: " + grade + "\n" +
+                            "Rank in Type: " + rank + "\n" +
                             "Comment: " + comment
                         );
                         textArea.setLineWrap(true);
@@ -205,89 +213,81 @@ public class StudentRegistration extends JFrame {
             return;
         }
 
-        String sql = "INSERT INTO submissions(title, abstract, supervisor, type, filepath, student_id) VALUES(?,?,?,?,?,?)";
-
-        try (Connection conn = DatabaseHandler.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, title);
-            pstmt.setString(2, abs);
-            pstmt.setString(3, supervisor);
-            pstmt.setString(4, type);
-            pstmt.setString(5, selectedFilePath);
-            pstmt.setString(6, this.currentUserId);
-
-            pstmt.executeUpdate();
-            JOptionPane.showMessageDialog(this, "Submitted Successfully!");
-            
-            researchTitle.setText("");
-            researchAbstract.setText("");
-            supervisorName.setText("");
-            filePath.setText("No file chosen");
-            loadHistoryData(); 
-
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage());
-        }
+        Submission s = new Submission();
+        s.title = title;
+        s.abstractText = abs;
+        s.supervisor = supervisor;
+        s.type = type;
+        s.filepath = selectedFilePath;
+        s.studentId = this.currentUserId;
+
+        tasks.run(() -> SubmissionRepository.insert(s),
+                id -> {
+                    JOptionPane.showMessageDialog(this, "Submitted Successfully!");
+                    
+                    researchTitle.setText("");
+                    researchAbstract.setText("");
+                    supervisorName.setText("");
+                    filePath.setText("No file chosen");
+                    loadHistoryData(); 
+                },
+                ex -> {
+                    ex.printStackTrace();
+                    JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage());
+                });
     }
 
    private void loadHistoryData() {
-        tableModel.setRowCount(0);
-
-        String sql = "SELECT s.submit_id, s.title, s.abstract, sess.date, sess.venue, u_eval.username as eval_name, " +
-                     "e.total, e.comments, " +
-                     "(SELECT count(*) FROM assignments a_check WHERE a_check.student_id = s.student_id) as is_assigned " +
-                     "FROM submissions s " +
-                     "LEFT JOIN assignments a ON s.student_id = a.student_id " +
-                     "LEFT JOIN sessions sess ON a.session_id = sess.session_id " +
-                     "LEFT JOIN users u_eval ON a.evaluator_id = u_eval.user_id " +
-                     "LEFT JOIN evaluations e ON s.submit_id = e.submit_id " +
-                     "WHERE s.student_id = ?";
-
-        try (Connection conn = DatabaseHandler.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, this.currentUserId);
-            ResultSet rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                Vector<String> row = new Vector<>();
+        tasks.run(() -> {
+                    List<SubmissionHistoryRow> rows = SubmissionRepository.findHistoryByStudent(this.currentUserId);
+                    List<Integer> ids = new ArrayList<>();
+                    for (SubmissionHistoryRow h : rows) ids.add(Integer.valueOf(h.submitId));
+                    Map<Integer, LeaderboardPosition> ranks = Leaderboard.get().positions(ids);
+                    for (SubmissionHistoryRow h : rows) {
+                        LeaderboardPosition p = ranks.get(Integer.valueOf(h.submitId));
+                        h.rank = p == null ? "-" : p.describeTypeRank();
+                    }
+                    return rows;
+                },
+                rows -> {
+                    tableModel.setRowCount(0);
+                    for (SubmissionHistoryRow h : rows) {
+                        Vector<String> row = new Vector<>();
                 
-                row.add(rs.getString("submit_id"));
-                row.add(rs.getString("title"));
-                row.add(rs.getString("date") != null ? rs.getString("date") : "TBA");
-                row.add(rs.getString("venue") != null ? rs.getString("venue") : "TBA");
-                row.add(rs.getString("eval_name") != null ? rs.getString("eval_name") : "TBA");
-
-                int assignedCount = rs.getInt("is_assigned");
-                double score = rs.getDouble("total");
-                boolean isGraded = !rs.wasNull();
-                String comments = rs.getString("comments");
-
-                String status = "Pending Review";
-                String gradeDisplay = "-";
-                String commentDisplay = "-";
-
-                if (isGraded) {
-                    status = "Graded";
-                    gradeDisplay = String.valueOf(score);
-                    commentDisplay = (comments != null) ? comments : "No comments";
-                } else if (assignedCount > 0) {
-                    status = "Assigned";
-                }
+                        row.add(h.submitId);
+                        row.add(h.title);
+                        row.add(h.date != null ? h.date : "TBA");
+                        row.add(h.venue != null ? h.venue : "TBA");
+                        row.add(h.evaluatorName != null ? h.evaluatorName : "TBA");
+
+                        int assignedCount = h.assignedCount;
+                        boolean isGraded = h.total != null;
+                        String comments = h.comments;
+
+                        String status = "Pending Review";
+                        String gradeDisplay = "-";
+                        String commentDisplay = "-";
+
+                        if (isGraded) {
+                            status = "Graded";
+                            gradeDisplay = String.valueOf(h.total);
+                            commentDisplay = (comments != null) ? comments : "No comments";
+                        } else if (assignedCount > 0) {
+                            status = "Assigned";
+                        }
                 
-                row.add(status);
-                row.add(gradeDisplay);
-                row.add(commentDisplay);
-                row.add(rs.getString("abstract"));
+                        row.add(status);
+                        row.add(gradeDisplay);
+                        row.add(h.rank);
+                        row.add(commentDisplay);
+                        row.add(h.abstractText);
 
-                tableModel.addRow(row);
-            }
-
-        } catch (SQLException e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error loading history: " + e.getMessage());
-        }
+                        tableModel.addRow(row);
+                    }
+                },
+                e -> {
+                    e.printStackTrace();
+                    JOptionPane.showMessageDialog(this, "Error loading history: " + e.getMessage());
+                });
     }
 }
\ No newline at end of file
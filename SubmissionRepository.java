@@ -0,0 +1,218 @@
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Simple data holder for a row of the submissions table
+class Submission {
+    public int submitId;
+    public String title;
+    public String abstractText;
+    public String supervisor;
+    public String type;        // Oral Presentation / Poster Presentation
+    public String filepath;
+    public String studentId;
+}
+
+// One line of the coordinator's submission list
+class SubmissionStatusRow {
+    public int submitId;
+    public String studentId;
+    public String studentName;
+    public String title;
+    public String type;
+    public int assignedCount;  // number of assignments for the student
+    public Double average;     // average evaluation total, null if not evaluated yet
+}
+
+// One line of the student's "My History & Status" tab
+class SubmissionHistoryRow {
+    public String submitId;
+    public String title;
+    public String abstractText;
+    public String date;           // null until scheduled
+    public String venue;          // null until scheduled
+    public String evaluatorName;  // null until assigned
+    public Double total;          // null until graded
+    public String comments;
+    public int assignedCount;
+    public String rank;           // position in its type, filled in from the Leaderboard ("-" if not graded)
+}
+
+// All SQL for the submissions table
+public class SubmissionRepository {
+
+    // SQLite limits the number of ? in one statement, so large ID lists are split
+    private static final int IN_CHUNK = 500;
+
+    // Inserts one submission and returns its new submit_id
+    public static int insert(Submission s) throws SQLException {
+        String sql = "INSERT INTO submissions(title, abstract, supervisor, type, filepath, student_id) VALUES(?,?,?,?,?,?)";
+
+        try (Connection conn = DatabaseHandler.requireConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                bind(ps, s);
+                ps.executeUpdate();
+            }
+            s.submitId = lastInsertId(conn);
+        }
+        return s.submitId;
+    }
+
+    // Batch insert in one transaction
+    public static void saveAll(List<Submission> submissions) throws SQLException {
+        String sql = "INSERT INTO submissions(title, abstract, supervisor, type, filepath, student_id) VALUES(?,?,?,?,?,?)";
+
+        DatabaseHandler.inTransaction(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (Submission s : submissions) {
+                    bind(ps, s);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            return null;
+        });
+    }
+
+    // ID generated by the last INSERT on this connection
+    static int lastInsertId(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT last_insert_rowid()");
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void bind(PreparedStatement ps, Submission s) throws SQLException {
+        ps.setString(1, s.title);
+        ps.setString(2, s.abstractText);
+        ps.setString(3, s.supervisor);
+        ps.setString(4, s.type);
+        ps.setString(5, s.filepath);
+        ps.setString(6, s.studentId);
+    }
+
+    // Loads many submissions by ID with one query per chunk instead of one per ID
+    public static List<Submission> findByIds(List<Integer> ids) throws SQLException {
+        if (ids.isEmpty()) return Collections.emptyList();
+        List<Submission> list = new ArrayList<>();
+
+        try (Connection conn = DatabaseHandler.requireConnection()) {
+            for (int from = 0; from < ids.size(); from += IN_CHUNK) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + IN_CHUNK, ids.size()));
+                String marks = String.join(",", Collections.nCopies(chunk.size(), "?"));
+                String sql = "SELECT submit_id, title, abstract, supervisor, type, filepath, student_id " +
+                             "FROM submissions WHERE submit_id IN (" + marks + ")";
+
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) ps.setInt(i + 1, chunk.get(i));
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            Submission s = new Submission();
+                            s.submitId = rs.getInt("submit_id");
+                            s.title = rs.getString("title");
+                            s.abstractText = rs.getString("abstract");
+                            s.supervisor = rs.getString("supervisor");
+                            s.type = rs.getString("type");
+                            s.filepath = rs.getString("filepath");
+                            s.studentId = rs.getString("student_id");
+                            list.add(s);
+                        }
+                    }
+                }
+            }
+        }
+        return list;
+    }
+
+    // Every submission with its student and whether the student has been assigned (coordinator view)
+    // Title, type and student of every submission by submit ID (assignedCount / average not filled)
+    public static Map<Integer, SubmissionStatusRow> findAllById() throws SQLException {
+        String sql = "SELECT s.submit_id, s.student_id, u.username, s.title, s.type " +
+                     "FROM submissions s LEFT JOIN users u ON s.student_id = u.user_id";
+        Map<Integer, SubmissionStatusRow> map = new HashMap<>();
+
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                SubmissionStatusRow r = new SubmissionStatusRow();
+                r.submitId = rs.getInt("submit_id");
+                r.studentId = rs.getString("student_id");
+                r.studentName = rs.getString("username");
+                r.title = rs.getString("title");
+                r.type = rs.getString("type");
+                map.put(r.submitId, r);
+            }
+        }
+        return map;
+    }
+
+    public static List<SubmissionStatusRow> findAllWithAssignmentStatus() throws SQLException {
+        String sql = "SELECT s.submit_id, u.user_id, u.username, s.title, s.type, " +
+                     "(SELECT count(*) FROM assignments a WHERE a.student_id = u.user_id) as is_assigned, " +
+                     "sc.sum_total / sc.eval_count AS avg_total " +
+                     "FROM submissions s JOIN users u ON s.student_id = u.user_id " +
+                     "LEFT JOIN submission_scores sc ON sc.submit_id = s.submit_id";
+        List<SubmissionStatusRow> list = new ArrayList<>();
+
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                SubmissionStatusRow r = new SubmissionStatusRow();
+                r.submitId = rs.getInt("submit_id");
+                r.studentId = rs.getString("user_id");
+                r.studentName = rs.getString("username");
+                r.title = rs.getString("title");
+                r.type = rs.getString("type");
+                r.assignedCount = rs.getInt("is_assigned");
+                double avg = rs.getDouble("avg_total");
+                r.average = rs.wasNull() ? null : avg;
+                list.add(r);
+            }
+        }
+        return list;
+    }
+
+    // A student's submissions with schedule, evaluator and grade (student history tab)
+    public static List<SubmissionHistoryRow> findHistoryByStudent(String studentId) throws SQLException {
+        String sql = "SELECT s.submit_id, s.title, s.abstract, sess.date, sess.venue, u_eval.username as eval_name, " +
+                     "e.total, e.comments, " +
+                     "(SELECT count(*) FROM assignments a_check WHERE a_check.student_id = s.student_id) as is_assigned " +
+                     "FROM submissions s " +
+                     "LEFT JOIN assignments a ON s.student_id = a.student_id " +
+                     "LEFT JOIN sessions sess ON a.session_id = sess.session_id " +
+                     "LEFT JOIN users u_eval ON a.evaluator_id = u_eval.user_id " +
+                     "LEFT JOIN evaluations e ON s.submit_id = e.submit_id " +
+                     "WHERE s.student_id = ?";
+        List<SubmissionHistoryRow> list = new ArrayList<>();
+
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, studentId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    SubmissionHistoryRow r = new SubmissionHistoryRow();
+                    r.submitId = rs.getString("submit_id");
+                    r.title = rs.getString("title");
+                    r.abstractText = rs.getString("abstract");
+                    r.date = rs.getString("date");
+                    r.venue = rs.getString("venue");
+                    r.evaluatorName = rs.getString("eval_name");
+                    r.assignedCount = rs.getInt("is_assigned");
+                    double total = rs.getDouble("total");
+                    r.total = rs.wasNull() ? null : total;
+                    r.comments = rs.getString("comments");
+                    list.add(r);
+                }
+            }
+        }
+        return list;
+    }
+}
@@ -0,0 +1,94 @@
+import java.awt.Window;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import javax.swing.JProgressBar;
+import javax.swing.SwingUtilities;
+
+// Per-window helper for background database work.
+// - runs the query through AsyncDb (virtual thread)
+// - delivers the result or error back on the EDT via SwingUtilities.invokeLater
+// - shows a progress bar while anything is running
+// - cancels in-flight queries when the window is disposed
+public class UiTaskRunner {
+
+    private final JProgressBar progress = new JProgressBar();
+    private final Set<CompletableFuture<?>> inFlight = ConcurrentHashMap.newKeySet();
+    private int running = 0;                 // only touched on the EDT
+    private volatile boolean disposed = false;
+
+    // For panels: the owner must call cancelAll() itself (e.g. from removeNotify)
+    public UiTaskRunner() {
+        progress.setIndeterminate(true);
+        progress.setStringPainted(true);
+        progress.setString("Loading...");
+        progress.setVisible(false);
+    }
+
+    // For windows: queries are cancelled automatically when the window is disposed
+    public UiTaskRunner(Window window) {
+        this();
+        window.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                cancelAll();
+            }
+        });
+    }
+
+    // Add this to the window's layout
+    public JProgressBar getProgressBar() {
+        return progress;
+    }
+
+    // Must be called on the EDT. onSuccess / onError also run on the EDT, and
+    // are skipped if the window was disposed in the meantime.
+    public <T> CompletableFuture<T> run(AsyncDb.Query<T> query, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        CompletableFuture<T> future = AsyncDb.supply(query);
+        inFlight.add(future);
+        started();
+
+        future.whenComplete((value, error) -> {
+            inFlight.remove(future);
+            SwingUtilities.invokeLater(() -> {
+                finished();
+                if (disposed || future.isCancelled()) return;
+                if (error == null) {
+                    onSuccess.accept(value);
+                } else {
+                    onError.accept(unwrap(error));
+                }
+            });
+        });
+        return future;
+    }
+
+    // Cancels everything still running; later results are ignored
+    public void cancelAll() {
+        disposed = true;
+        for (CompletableFuture<?> f : inFlight) f.cancel(true);
+        inFlight.clear();
+    }
+
+    public boolean isBusy() {
+        return running > 0;
+    }
+
+    private void started() {
+        running++;
+        progress.setVisible(true);
+    }
+
+    private void finished() {
+        running = Math.max(0, running - 1);
+        if (running == 0) progress.setVisible(false);
+    }
+
+    private static Throwable unwrap(Throwable t) {
+        return (t instanceof CompletionException && t.getCause() != null) ? t.getCause() : t;
+    }
+}
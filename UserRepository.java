@@ -0,0 +1,80 @@
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+// Simple data holder for a row of the users table
+class User {
+    public String userId;    // e.g. s001, e001, a001
+    public String username;  // display name
+    public String password;
+    public String role;      // Student / Evaluator / Coordinator
+}
+
+// All SQL for the users table
+public class UserRepository {
+
+    // Login lookup; returns null when the ID / password / role do not match
+    public static User findByCredentials(String userId, String password, String role) throws SQLException {
+        String sql = "SELECT user_id, username, role FROM users WHERE user_id = ? AND password = ? AND role = ?";
+
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, userId);
+            ps.setString(2, password);
+            ps.setString(3, role);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    User u = new User();
+                    u.userId = rs.getString("user_id");
+                    u.username = rs.getString("username");
+                    u.role = rs.getString("role");
+                    return u;
+                }
+            }
+        }
+        return null;
+    }
+
+    // All users with the given role (e.g. every Evaluator for the assign dialog)
+    public static List<User> findByRole(String role) throws SQLException {
+        String sql = "SELECT user_id, username, role FROM users WHERE role = ?";
+        List<User> list = new ArrayList<>();
+
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, role);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    User u = new User();
+                    u.userId = rs.getString("user_id");
+                    u.username = rs.getString("username");
+                    u.role = rs.getString("role");
+                    list.add(u);
+                }
+            }
+        }
+        return list;
+    }
+
+    // Batch insert in one transaction
+    public static void saveAll(List<User> users) throws SQLException {
+        String sql = "INSERT INTO users(user_id, username, password, role) VALUES(?,?,?,?)";
+
+        DatabaseHandler.inTransaction(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (User u : users) {
+                    ps.setString(1, u.userId);
+                    ps.setString(2, u.username);
+                    ps.setString(3, u.password);
+                    ps.setString(4, u.role);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            return null;
+        });
+    }
+}
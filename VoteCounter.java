@@ -0,0 +1,192 @@
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Takes audience votes for People's Choice. Many attendees vote at the same moment, so a vote
+// never waits for the database: the voter is checked against an in-memory set, the
+// submission's LongAdder is incremented (striped, so concurrent voters do not contend on one
+// counter) and the ballot is queued. A background thread writes the queued ballots and their
+// per-submission counts every FLUSH_INTERVAL_MS in one transaction (VoteRepository.flush).
+//
+// Submissions are loaded once at start; one added since (by this process or another) is looked
+// up in the database the first time it gets a vote.
+//
+// A ballot that was accepted but not yet written is lost if the process dies; the voter can
+// then vote again after a restart, since only written ballots are reloaded for the dedup.
+public class VoteCounter {
+
+    public enum Result { ACCEPTED, DUPLICATE, UNKNOWN_SUBMISSION, CLOSED }
+
+    // How often queued votes are written (-Dseminar.votes.flushMs=N)
+    public static final long FLUSH_INTERVAL_MS = Long.getLong("seminar.votes.flushMs", 1000L);
+
+    private static VoteCounter instance;
+
+    private final Map<Integer, LongAdder> counts = new ConcurrentHashMap<>();   // live votes per submission
+    private final Set<String> voters = ConcurrentHashMap.newKeySet();
+    private final ConcurrentLinkedQueue<Ballot> queue = new ConcurrentLinkedQueue<>();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final ScheduledExecutorService flusher;
+    private final Object flushLock = new Object();
+    private List<Ballot> failed = new ArrayList<>();   // batch to retry after a failed write
+    private volatile boolean open = true;
+
+    private VoteCounter(long flushIntervalMs) throws SQLException {
+        voters.addAll(VoteRepository.findVoters());
+        for (Integer id : VoteRepository.findSubmissionIds()) counts.put(id, new LongAdder());
+        for (AwardResult r : VoteRepository.findTopVoted(Integer.MAX_VALUE)) counts.get(r.submitId).add(r.votes);
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "vote-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close));
+    }
+
+    // The shared counter, started on first use
+    public static synchronized VoteCounter get() throws SQLException {
+        if (instance == null) instance = new VoteCounter(FLUSH_INTERVAL_MS);
+        return instance;
+    }
+
+    // Writes queued votes now if voting was started in this process (before reading vote_counts)
+    public static void flushIfStarted() throws SQLException {
+        VoteCounter c;
+        synchronized (VoteCounter.class) {
+            c = instance;
+        }
+        if (c != null) c.flush();
+    }
+
+    // Stops the shared counter after writing what is queued (tests, switching databases)
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.close();
+            instance = null;
+        }
+    }
+
+    // One vote; safe to call from any number of threads. Each voter counts once.
+    public Result vote(String voterId, int submitId) {
+        if (!open) return Result.CLOSED;
+        LongAdder count = counts.get(submitId);
+        if (count == null) {
+            count = findSubmission(submitId);
+            if (count == null) return Result.UNKNOWN_SUBMISSION;
+        }
+        if (!voters.add(voterId)) {
+            duplicates.increment();
+            return Result.DUPLICATE;
+        }
+        count.increment();
+        accepted.increment();
+        Ballot ballot = new Ballot(voterId, submitId);
+        queue.add(ballot);
+
+        // close() may have taken its last batch between the check above and the add. If the
+        // ballot is still queued it will never be written: take it back, as if voting had
+        // closed first. (If open is still true here, the add came before close's last batch.)
+        if (!open && queue.remove(ballot)) {
+            count.decrement();
+            accepted.decrement();
+            voters.remove(voterId);
+            return Result.CLOSED;
+        }
+        return Result.ACCEPTED;
+    }
+
+    // Makes a submission registered after voting started votable
+    public void addSubmission(int submitId) {
+        counts.putIfAbsent(submitId, new LongAdder());
+    }
+
+    // Counter of a submission that was not loaded at start, if it exists now; a database error
+    // is reported and treated as unknown
+    private LongAdder findSubmission(int submitId) {
+        try {
+            if (!VoteRepository.submissionExists(submitId)) return null;
+        } catch (SQLException e) {
+            System.out.println("Vote rejected, submission lookup failed: " + e.getMessage());
+            return null;
+        }
+        return counts.computeIfAbsent(submitId, id -> new LongAdder());
+    }
+
+    // Live vote count, including votes not written yet
+    public long count(int submitId) {
+        LongAdder c = counts.get(submitId);
+        return c == null ? 0 : c.sum();
+    }
+
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    public long getDuplicates() {
+        return duplicates.sum();
+    }
+
+    // Votes accepted but not written yet
+    public int getPending() {
+        return queue.size();
+    }
+
+    // Writes every queued ballot and the per-submission counts of the ballots the database
+    // took. Returns the number of ballots written. A ballot it ignored (the voter was already
+    // stored by another process) is taken back out of the live count too.
+    public int flush() throws SQLException {
+        synchronized (flushLock) {
+            List<Ballot> batch = failed;
+            failed = new ArrayList<>();
+            for (Ballot b; (b = queue.poll()) != null; ) batch.add(b);
+            if (batch.isEmpty()) return 0;
+
+            List<Ballot> ignored;
+            try {
+                ignored = VoteRepository.flush(batch);
+            } catch (SQLException e) {
+                failed = batch;   // nothing was written (one transaction); try again next time
+                throw e;
+            }
+            for (Ballot b : ignored) {
+                counts.get(b.submitId).decrement();
+                accepted.decrement();
+                duplicates.increment();
+            }
+            return batch.size() - ignored.size();
+        }
+    }
+
+    // Stops taking votes and writes what is left. A vote that races with this is either in the
+    // last batch or taken back as CLOSED (see vote).
+    public void close() {
+        if (!open) return;
+        open = false;
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (SQLException e) {
+            System.out.println("Vote flush failed, will retry: " + e.getMessage());
+        }
+    }
+}
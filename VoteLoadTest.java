@@ -0,0 +1,206 @@
+import java.io.File;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Load test for audience voting: thousands of voters press "vote" at the same moment.
+//
+//   java -cp ".;sqlite-jdbc-3.51.1.0.jar" VoteLoadTest [voters] [threads]
+//
+// Each of `threads` threads (default 2000, all released together) plays voters/threads
+// attendees (default 20000 voters in total). One in ten attendees presses twice, so the
+// dedup is exercised under contention. Afterwards the votes table, vote_counts and the live
+// counters must all agree with what the voters were told. For comparison the same number of
+// votes is written the direct way, one INSERT + UPDATE transaction per vote. Then a
+// submission added after voting started must be votable, and votes racing with the close
+// must be either written or rejected, never accepted and lost.
+public class VoteLoadTest {
+
+    private static final int SUBMISSIONS = 50;
+
+    public static void main(String[] args) throws Exception {
+        int voters = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+
+        File dir = new File("bench-db");
+        dir.mkdirs();
+        File db = new File(dir, "vote-load.db");
+        for (String suffix : new String[]{"", "-wal", "-shm"}) new File(db.getPath() + suffix).delete();
+        DatabaseHandler.useDatabase(db.getPath(), DatabaseProfile.INTERACTIVE);
+        DatabaseHandler.createNewTable();
+        seedSubmissions();
+
+        VoteCounter counter = VoteCounter.get();
+        Map<Integer, LongAdder> expected = new ConcurrentHashMap<>();
+        LongAdder accepted = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        AtomicLong maxVoteNanos = new AtomicLong();
+
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        int perThread = (voters + threads - 1) / threads;
+        for (int t = 0; t < threads; t++) {
+            int first = t * perThread;
+            Thread th = new Thread(() -> {
+                Random rnd = new Random(first);
+                try {
+                    start.await();
+                    for (int v = first; v < Math.min(first + perThread, voters); v++) {
+                        int submitId = 1 + (int) Math.min(SUBMISSIONS - 1, Math.abs(rnd.nextGaussian()) * 12);
+                        int presses = rnd.nextInt(10) == 0 ? 2 : 1;
+                        for (int p = 0; p < presses; p++) {
+                            long t0 = System.nanoTime();
+                            VoteCounter.Result r = counter.vote("voter-" + v, submitId);
+                            maxVoteNanos.accumulateAndGet(System.nanoTime() - t0, Math::max);
+                            if (r == VoteCounter.Result.ACCEPTED) {
+                                accepted.increment();
+                                expected.computeIfAbsent(submitId, id -> new LongAdder()).increment();
+                            } else {
+                                rejected.increment();
+                            }
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            th.start();
+        }
+
+        long t0 = System.nanoTime();
+        start.countDown();
+        done.await();
+        long voteNanos = System.nanoTime() - t0;
+        int pendingAtEnd = counter.getPending();
+        VoteCounter.shutdown();   // writes what is still queued
+        long totalNanos = System.nanoTime() - t0;
+
+        long[] totals = VoteRepository.totals();
+        boolean ok = accepted.sum() == voters && totals[0] == voters && totals[1] == voters;
+        for (AwardResult r : VoteRepository.findTopVoted(SUBMISSIONS)) {
+            LongAdder e = expected.get(r.submitId);
+            if (e == null || e.sum() != r.votes || counter.count(r.submitId) != r.votes) ok = false;
+        }
+
+        System.out.println(threads + " threads, " + voters + " voters, " + (accepted.sum() + rejected.sum()) + " presses");
+        System.out.printf("  accepted %d, rejected as duplicate %d%n", accepted.sum(), rejected.sum());
+        System.out.printf("  voting: %.0f ms (%.0f votes/s), slowest vote() call %.2f ms%n",
+                voteNanos / 1e6, voters / (voteNanos / 1e9), maxVoteNanos.get() / 1e6);
+        System.out.printf("  %d votes still queued when voting ended, all written after %.0f ms%n",
+                pendingAtEnd, totalNanos / 1e6);
+        System.out.printf("  stored: %d ballots, %d counted in vote_counts%n", totals[0], totals[1]);
+
+        direct(Math.min(voters, 2000));
+        ok &= alreadyStored();
+        ok &= lateSubmission();
+        ok &= closeRace(20, 8);
+
+        DatabaseHandler.getPool().shutdown();
+        System.out.println(ok ? "PASS: every accepted vote was stored and counted exactly once"
+                              : "FAIL: stored votes do not match the accepted votes");
+        System.exit(ok ? 0 : 1);
+    }
+
+    // The naive way: one transaction per vote, straight to the database (single thread, so the
+    // number is not capped by the pool size)
+    private static void direct(int votes) throws SQLException {
+        long t = System.nanoTime();
+        for (int v = 0; v < votes; v++) {
+            List<Ballot> one = List.of(new Ballot("direct-" + v, 1 + v % SUBMISSIONS));
+            VoteRepository.flush(one);
+        }
+        long nanos = System.nanoTime() - t;
+        System.out.printf("  direct (one transaction per vote): %d votes in %.0f ms (%.0f votes/s)%n",
+                votes, nanos / 1e6, votes / (nanos / 1e9));
+    }
+
+    // Ballots whose voters another process already stored (its dedup set is not ours) must be
+    // ignored in vote_counts too, not only in votes
+    private static boolean alreadyStored() throws SQLException {
+        List<Ballot> batch = List.of(new Ballot("voter-0", 1), new Ballot("direct-0", 2), new Ballot("late-voter", 3));
+        List<Ballot> ignored = VoteRepository.flush(batch);
+        long[] totals = VoteRepository.totals();
+        System.out.printf("  batch with 2 already-stored voters: %d ignored, %d ballots, %d counted%n",
+                ignored.size(), totals[0], totals[1]);
+        return ignored.size() == 2 && totals[0] == totals[1];
+    }
+
+    // A submission inserted after the counter loaded its IDs takes votes
+    private static boolean lateSubmission() throws SQLException {
+        Submission s = new Submission();
+        s.title = "Late submission";
+        s.type = "Oral Presentation";
+        s.studentId = "s-late";
+        VoteCounter counter = VoteCounter.get();
+        int submitId = SubmissionRepository.insert(s);
+        VoteCounter.Result r = counter.vote("late-submission-voter", submitId);
+        VoteCounter.shutdown();
+        long stored = countVotes("SELECT COUNT(*) FROM votes WHERE submit_id = " + submitId);
+        System.out.printf("  submission added after voting started: %s, %d stored%n", r, stored);
+        return r == VoteCounter.Result.ACCEPTED && stored == 1;
+    }
+
+    // `rounds` times: `threads` threads vote with new voters until they are told CLOSED (at most
+    // 5000 each), while the counter is shut down under them once they are all voting. Exactly
+    // the accepted ballots must be stored.
+    private static boolean closeRace(int rounds, int threads) throws Exception {
+        long accepted = 0;
+        long stored = 0;
+        for (int round = 0; round < rounds; round++) {
+            VoteCounter counter = VoteCounter.get();
+            LongAdder ok = new LongAdder();
+            CountDownLatch started = new CountDownLatch(threads);
+            List<Thread> voting = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                String prefix = "race-" + round + "-" + t + "-";
+                Thread th = new Thread(() -> {
+                    for (int v = 0; v < 5000; v++) {
+                        if (v == 100) started.countDown();
+                        VoteCounter.Result r = counter.vote(prefix + v, 1 + v % SUBMISSIONS);
+                        if (r == VoteCounter.Result.CLOSED) return;
+                        if (r == VoteCounter.Result.ACCEPTED) ok.increment();
+                    }
+                });
+                voting.add(th);
+                th.start();
+            }
+            started.await();
+            VoteCounter.shutdown();
+            for (Thread th : voting) th.join();
+            accepted += ok.sum();
+            stored = countVotes("SELECT COUNT(*) FROM votes WHERE voter_id LIKE 'race-%'");
+        }
+        long[] totals = VoteRepository.totals();
+        System.out.printf("  votes racing with close (%d rounds): %d accepted, %d stored, counts %s%n",
+                rounds, accepted, stored, totals[0] == totals[1] ? "agree" : "DIFFER");
+        return accepted == stored && totals[0] == totals[1];
+    }
+
+    private static long countVotes(String sql) throws SQLException {
+        try (Connection conn = DatabaseHandler.requireConnection();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private static void seedSubmissions() throws SQLException {
+        List<Submission> subs = new ArrayList<>();
+        for (int i = 1; i <= SUBMISSIONS; i++) {
+            Submission s = new Submission();
+            s.title = "Submission " + i;
+            s.type = i % 2 == 0 ? "Poster Presentation" : "Oral Presentation";
+            s.studentId = "s" + i;
+            subs.add(s);
+        }
+        SubmissionRepository.saveAll(subs);
+    }
+}
@@ -0,0 +1,152 @@
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// One audience vote waiting to be written
+class Ballot {
+    public final String voterId;
+    public final int submitId;
+
+    public Ballot(String voterId, int submitId) {
+        this.voterId = voterId;
+        this.submitId = submitId;
+    }
+}
+
+// SQL for votes (one ballot per voter) and vote_counts (votes per submission).
+// Votes are counted in memory by VoteCounter and written here in batches.
+public class VoteRepository {
+
+    private static final String COUNT_SQL =
+        "INSERT INTO vote_counts(submit_id, vote_count, last_updated) VALUES(?, ?, CURRENT_TIMESTAMP) " +
+        "ON CONFLICT(submit_id) DO UPDATE SET " +
+        "  vote_count = vote_count + excluded.vote_count, " +
+        "  last_updated = CURRENT_TIMESTAMP";
+
+    // Writes a batch of ballots and adds the ones actually inserted to vote_counts, in one
+    // transaction. A ballot the database ignores (the voter was already stored, e.g. by another
+    // copy of the application) is not counted, so vote_counts always equals the votes table.
+    // Returns the ignored ballots.
+    static List<Ballot> flush(List<Ballot> ballots) throws SQLException {
+        return DatabaseHandler.inTransaction(conn -> {
+            List<Ballot> ignored = new ArrayList<>();
+            Map<Integer, Long> deltas = new LinkedHashMap<>();
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT OR IGNORE INTO votes(voter_id, submit_id) VALUES(?, ?)")) {
+                for (Ballot b : ballots) {
+                    ps.setString(1, b.voterId);
+                    ps.setInt(2, b.submitId);
+                    ps.addBatch();
+                }
+                int[] inserted = ps.executeBatch();   // 1 per stored ballot, 0 per ignored one
+                for (int i = 0; i < ballots.size(); i++) {
+                    Ballot b = ballots.get(i);
+                    if (inserted[i] > 0) deltas.merge(b.submitId, 1L, Long::sum);
+                    else ignored.add(b);
+                }
+            }
+            try (PreparedStatement ps = conn.prepareStatement(COUNT_SQL)) {
+                for (Map.Entry<Integer, Long> d : deltas.entrySet()) {
+                    ps.setInt(1, d.getKey());
+                    ps.setLong(2, d.getValue());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            return ignored;
+        });
+    }
+
+    // Everyone who has already voted (so a restart does not let them vote again)
+    static Set<String> findVoters() throws SQLException {
+        Set<String> voters = new HashSet<>();
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT voter_id FROM votes");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) voters.add(rs.getString(1));
+        }
+        return voters;
+    }
+
+    // IDs of all submissions that can be voted for
+    static Set<Integer> findSubmissionIds() throws SQLException {
+        Set<Integer> ids = new HashSet<>();
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT submit_id FROM submissions");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) ids.add(rs.getInt(1));
+        }
+        return ids;
+    }
+
+    // True if the submission exists (one registered after VoteCounter loaded the IDs above)
+    static boolean submissionExists(int submitId) throws SQLException {
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT 1 FROM submissions WHERE submit_id = ?")) {
+            ps.setInt(1, submitId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    // The k submissions with the most votes, best first (ties: earlier submission first).
+    // total and votes both hold the vote count; names and titles are not filled in.
+    public static List<AwardResult> findTopVoted(int k) throws SQLException {
+        String sql =
+            "SELECT vc.submit_id, s.student_id, s.type, vc.vote_count " +
+            "FROM vote_counts vc " +
+            "JOIN submissions s ON s.submit_id = vc.submit_id " +
+            "WHERE vc.vote_count > 0 " +
+            "ORDER BY vc.vote_count DESC, vc.submit_id " +
+            "LIMIT ?";
+        List<AwardResult> list = new ArrayList<>();
+
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, k);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    AwardResult r = new AwardResult();
+                    r.submitId = rs.getInt(1);
+                    r.studentId = rs.getString(2);
+                    r.type = rs.getString(3);
+                    r.votes = rs.getLong(4);
+                    r.total = r.votes;
+                    r.rank = list.size() + 1;
+                    list.add(r);
+                }
+            }
+        }
+        return list;
+    }
+
+    // Total stored ballots and the sum of vote_counts (equal once every batch is written)
+    public static long[] totals() throws SQLException {
+        String sql = "SELECT (SELECT COUNT(*) FROM votes), (SELECT COALESCE(SUM(vote_count), 0) FROM vote_counts)";
+        try (Connection conn = DatabaseHandler.requireConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return new long[]{rs.getLong(1), rs.getLong(2)};
+        }
+    }
+
+    // Recomputes vote_counts from the ballots (the batches keep them equal; this is the repair path)
+    public static int rebuildCounts() throws SQLException {
+        return DatabaseHandler.inTransaction(conn -> {
+            DataVersion.bump(conn, "votes");   // counts change although no ballot did
+            try (Statement st = conn.createStatement()) {
+                st.executeUpdate("DELETE FROM vote_counts");
+                return st.executeUpdate(
+                    "INSERT INTO vote_counts(submit_id, vote_count) " +
+                    "SELECT submit_id, COUNT(*) FROM votes GROUP BY submit_id");
+            }
+        });
+    }
+}